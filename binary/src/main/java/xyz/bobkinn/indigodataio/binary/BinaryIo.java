@@ -0,0 +1,143 @@
+package xyz.bobkinn.indigodataio.binary;
+
+import xyz.bobkinn.indigodataio.AbstractDataHolder;
+import xyz.bobkinn.indigodataio.ops.TypeOps;
+
+import java.io.*;
+import java.nio.ByteBuffer;
+
+/**
+ * Reads and writes any {@link AbstractDataHolder} in compact binary format using its {@link TypeOps}.<br>
+ * Format is self-describing: values have type tags, integers are varints, primitive arrays are stored natively
+ * and repeated map keys are written once and then referenced by index.
+ * Each stream starts with magic bytes and format version
+ * @since 3.1.0
+ */
+@SuppressWarnings("unused")
+public final class BinaryIo {
+
+    private BinaryIo() {
+    }
+
+    private static <T extends AbstractDataHolder<T, P, D>, P, D extends P> void write(T data, BinaryWriter w) {
+        w.writeHeader();
+        // raw storage is visited, so keys with dots are written as is
+        data.getOps().visit(data.getRaw(), w);
+        w.flush();
+    }
+
+    private static <T extends AbstractDataHolder<T, P, D>, P, D extends P> T read(BinaryReader r, T to) {
+        var ops = to.getOps();
+        r.readHeader();
+        var sink = ops.sink();
+        r.read(sink);
+        var map = sink.result();
+        var entries = ops.getMapValues(map)
+                .orElseThrow(() -> new IllegalStateException("Top-level value must be map to construct DataHolder"));
+        entries.forEach(p -> {
+            var key = p.getFirst();
+            to.putRaw(ops.getString(key).orElseThrow(() -> new IllegalStateException("Map key is not string: " + key)),
+                    p.getSecond());
+        });
+        return to;
+    }
+
+    /**
+     * Writes holder to stream, stream is not closed
+     * @param data holder
+     * @param to output stream
+     */
+    public static <T extends AbstractDataHolder<T, P, D>, P, D extends P> void write(T data, OutputStream to) {
+        write(data, new BinaryWriter(to));
+    }
+
+    /**
+     * Writes holder to buffer
+     * @param data holder
+     * @param to buffer
+     * @throws java.nio.BufferOverflowException if buffer has not enough space
+     */
+    public static <T extends AbstractDataHolder<T, P, D>, P, D extends P> void write(T data, ByteBuffer to) {
+        write(data, new BinaryWriter(to));
+    }
+
+    public static <T extends AbstractDataHolder<T, P, D>, P, D extends P> void write(T data, File to) {
+        try (var out = new FileOutputStream(to)) {
+            write(data, out);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to write file " + to, e);
+        }
+    }
+
+    public static <T extends AbstractDataHolder<T, P, D>, P, D extends P> byte[] toBytes(T data) {
+        var out = new ByteArrayOutputStream();
+        write(data, out);
+        return out.toByteArray();
+    }
+
+    /**
+     * Reads entries from stream and puts them to holder, stream is not closed
+     * @param from input stream
+     * @param to holder, its ops are used to create values
+     * @return to
+     * @throws IllegalStateException if data is malformed
+     */
+    public static <T extends AbstractDataHolder<T, P, D>, P, D extends P> T read(InputStream from, T to) {
+        return read(new BinaryReader(from), to);
+    }
+
+    public static <T extends AbstractDataHolder<T, P, D>, P, D extends P> T read(ByteBuffer from, T to) {
+        return read(new BinaryReader(from), to);
+    }
+
+    public static <T extends AbstractDataHolder<T, P, D>, P, D extends P> T read(byte[] from, T to) {
+        return read(ByteBuffer.wrap(from), to);
+    }
+
+    public static <T extends AbstractDataHolder<T, P, D>, P, D extends P> T read(File from, T to) {
+        if (!from.isFile()) throw new IllegalArgumentException("File " + from + " does not exists or is directory");
+        try (var in = new FileInputStream(from)) {
+            return read(in, to);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to read file " + from, e);
+        }
+    }
+
+    /**
+     * Writes single value of any type, including scalars and lists
+     * @param ops ops of value
+     * @param value value
+     * @param to output stream, not closed
+     */
+    public static <T> void writeValue(TypeOps<T> ops, T value, OutputStream to) {
+        var w = new BinaryWriter(to);
+        w.writeHeader();
+        ops.visit(value, w);
+        w.flush();
+    }
+
+    /**
+     * Reads single value written by {@link #writeValue(TypeOps, Object, OutputStream)}
+     * @param ops ops used to create value
+     * @param from input stream, not closed
+     * @return read value
+     */
+    public static <T> T readValue(TypeOps<T> ops, InputStream from) {
+        var r = new BinaryReader(from);
+        r.readHeader();
+        var sink = ops.sink();
+        r.read(sink);
+        return sink.result();
+    }
+
+    /**
+     * @see #readValue(TypeOps, InputStream)
+     */
+    public static <T> T readValue(TypeOps<T> ops, ByteBuffer from) {
+        var r = new BinaryReader(from);
+        r.readHeader();
+        var sink = ops.sink();
+        r.read(sink);
+        return sink.result();
+    }
+}
@@ -0,0 +1,302 @@
+package xyz.bobkinn.indigodataio.binary;
+
+import xyz.bobkinn.indigodataio.ops.DataVisitor;
+
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static xyz.bobkinn.indigodataio.binary.Tags.*;
+
+/**
+ * Decodes values written by {@link BinaryWriter} and sends them to visitor.
+ * Nesting is handled without recursion, so deep values do not overflow stack.
+ * Malformed data causes {@link IllegalStateException}, errors of input are rethrown as {@link UncheckedIOException}
+ * @since 3.1.0
+ */
+public class BinaryReader {
+    // malformed size hints and lengths must not cause huge allocations
+    private static final int MAX_SIZE_HINT = 1 << 16;
+
+    /**
+     * Source of encoded bytes
+     */
+    @FunctionalInterface
+    public interface Input {
+        /**
+         * @return count of read bytes or -1 at end of input
+         */
+        int read(byte[] b, int off, int len) throws IOException;
+    }
+
+    private final Input in;
+    private final byte[] buf;
+    private int pos;
+    private int limit;
+    private final List<String> keys = new ArrayList<>();
+    private boolean[] maps = new boolean[16];
+
+    public BinaryReader(Input in, int bufferSize) {
+        if (bufferSize < 16) throw new IllegalArgumentException("Buffer size must be at least 16");
+        this.in = in;
+        this.buf = new byte[bufferSize];
+    }
+
+    public BinaryReader(InputStream in) {
+        this(in::read, 8192);
+    }
+
+    /**
+     * Reads remaining bytes of buffer, position of buffer is moved by read bytes
+     * and can be after end of value because of buffering
+     */
+    public BinaryReader(ByteBuffer in) {
+        this((b, off, len) -> {
+            if (!in.hasRemaining()) return -1;
+            int n = Math.min(len, in.remaining());
+            in.get(b, off, n);
+            return n;
+        }, 8192);
+    }
+
+    /**
+     * Reads magic and version written by {@link BinaryWriter#writeHeader()}
+     * @throws IllegalStateException if data is not in binary format or version is not supported
+     */
+    public void readHeader() {
+        for (var b : MAGIC) {
+            if (readByte() != b) throw new IllegalStateException("Data is not in binary format");
+        }
+        int version = readByte();
+        if (version != VERSION) throw new IllegalStateException("Unsupported binary format version " + version);
+    }
+
+    private boolean fill() {
+        if (pos < limit) return true;
+        try {
+            int n;
+            do {
+                n = in.read(buf, 0, buf.length);
+            } while (n == 0);
+            if (n < 0) return false;
+            pos = 0;
+            limit = n;
+            return true;
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private int readByte() {
+        if (!fill()) throw new UncheckedIOException(new EOFException("Unexpected end of binary data"));
+        return buf[pos++];
+    }
+
+    private long readVarint() {
+        long ret = 0;
+        for (int shift = 0; shift < 64; shift += 7) {
+            int b = readByte();
+            ret |= (long) (b & 0x7F) << shift;
+            if ((b & 0x80) == 0) return ret;
+        }
+        throw new IllegalStateException("Malformed varint");
+    }
+
+    private long readZigzag() {
+        long v = readVarint();
+        return (v >>> 1) ^ -(v & 1);
+    }
+
+    private int readLength() {
+        long v = readVarint();
+        if (v < 0 || v > Integer.MAX_VALUE - 8) throw new IllegalStateException("Malformed length " + v);
+        return (int) v;
+    }
+
+    private int readSize() {
+        long v = readVarint();
+        return v == 0 ? -1 : (int) Math.min(v - 1, MAX_SIZE_HINT);
+    }
+
+    private int readInt32() {
+        return (readByte() & 0xFF) << 24 | (readByte() & 0xFF) << 16 | (readByte() & 0xFF) << 8 | readByte() & 0xFF;
+    }
+
+    private long readInt64() {
+        return (long) readInt32() << 32 | readInt32() & 0xFFFFFFFFL;
+    }
+
+    /**
+     * @return capacity of array allocated before its elements are read
+     */
+    private static int initialCapacity(int len) {
+        return Math.min(len, MAX_SIZE_HINT);
+    }
+
+    /**
+     * Arrays grow while elements are read, so malformed length fails at end of data instead of allocating it
+     * @return new capacity of array
+     */
+    private static int grow(int capacity, int len) {
+        return (int) Math.min(len, capacity * 2L);
+    }
+
+    private byte[] readBytes(int len) {
+        var ret = new byte[initialCapacity(len)];
+        int off = 0;
+        while (off < len) {
+            if (!fill()) throw new UncheckedIOException(new EOFException("Unexpected end of binary data"));
+            if (off == ret.length) ret = Arrays.copyOf(ret, grow(ret.length, len));
+            int n = Math.min(ret.length - off, limit - pos);
+            System.arraycopy(buf, pos, ret, off, n);
+            pos += n;
+            off += n;
+        }
+        return ret;
+    }
+
+    private String readUtf() {
+        int len = readLength();
+        if (len <= limit - pos) {
+            // fast path, string is in buffer
+            var s = new String(buf, pos, len, StandardCharsets.UTF_8);
+            pos += len;
+            return s;
+        }
+        return new String(readBytes(len), StandardCharsets.UTF_8);
+    }
+
+    private String readKey(long ref) {
+        if (ref == KEY_NEW) {
+            var key = readUtf();
+            keys.add(key);
+            return key;
+        }
+        long i = ref - 2;
+        if (i < 0 || i >= keys.size()) throw new IllegalStateException("Unknown key reference " + ref);
+        return keys.get((int) i);
+    }
+
+    /**
+     * Reads one value and sends it to visitor
+     * @param visitor visitor
+     */
+    public void read(DataVisitor visitor) {
+        int depth = 0;
+        while (true) {
+            if (depth > 0 && maps[depth - 1]) {
+                long ref = readVarint();
+                if (ref == KEY_END) {
+                    visitor.endMap();
+                    if (--depth == 0) return;
+                    continue;
+                }
+                visitor.visitKey(readKey(ref));
+            }
+            int tag = readByte();
+            switch (tag) {
+                case MAP, LIST -> {
+                    boolean map = tag == MAP;
+                    if (map) visitor.beginMap(readSize());
+                    else visitor.beginList(readSize());
+                    if (depth == maps.length) maps = Arrays.copyOf(maps, depth * 2);
+                    maps[depth++] = map;
+                    continue;
+                }
+                case END -> {
+                    if (depth == 0 || maps[depth - 1]) throw new IllegalStateException("Unexpected end of list");
+                    visitor.endList();
+                    depth--;
+                }
+                default -> readScalar(tag, visitor);
+            }
+            if (depth == 0) return;
+        }
+    }
+
+    private void readScalar(int tag, DataVisitor visitor) {
+        switch (tag) {
+            case NULL -> visitor.visitNull();
+            case FALSE -> visitor.visitBoolean(false);
+            case TRUE -> visitor.visitBoolean(true);
+            case BYTE -> visitor.visitByte((byte) readByte());
+            case SHORT -> visitor.visitShort((short) readZigzag());
+            case INT -> visitor.visitInt((int) readZigzag());
+            case LONG -> visitor.visitLong(readZigzag());
+            case FLOAT -> visitor.visitFloat(Float.intBitsToFloat(readInt32()));
+            case DOUBLE -> visitor.visitDouble(Double.longBitsToDouble(readInt64()));
+            case STRING -> visitor.visitString(readUtf());
+            case BIG_INTEGER -> visitor.visitNumber(new BigInteger(readBytes(readLength())));
+            case BIG_DECIMAL -> {
+                int scale = (int) readZigzag();
+                visitor.visitNumber(new BigDecimal(new BigInteger(readBytes(readLength())), scale));
+            }
+            case BOOL_ARRAY -> {
+                int len = readLength();
+                var ret = new boolean[initialCapacity(len)];
+                for (int i = 0; i < len; i += 8) {
+                    int b = readByte();
+                    // capacity is multiple of 8 until it reaches length
+                    if (i == ret.length) ret = Arrays.copyOf(ret, grow(ret.length, len));
+                    for (int j = 0; j < 8 && i + j < len; j++) ret[i + j] = (b & (1 << j)) != 0;
+                }
+                visitor.visitBoolArray(ret);
+            }
+            case BYTE_ARRAY -> visitor.visitByteArray(readBytes(readLength()));
+            case SHORT_ARRAY -> {
+                int len = readLength();
+                var ret = new short[initialCapacity(len)];
+                for (int i = 0; i < len; i++) {
+                    if (i == ret.length) ret = Arrays.copyOf(ret, grow(ret.length, len));
+                    ret[i] = (short) readZigzag();
+                }
+                visitor.visitShortArray(ret);
+            }
+            case INT_ARRAY -> {
+                int len = readLength();
+                var ret = new int[initialCapacity(len)];
+                for (int i = 0; i < len; i++) {
+                    if (i == ret.length) ret = Arrays.copyOf(ret, grow(ret.length, len));
+                    ret[i] = (int) readZigzag();
+                }
+                visitor.visitIntArray(ret);
+            }
+            case LONG_ARRAY -> {
+                int len = readLength();
+                var ret = new long[initialCapacity(len)];
+                for (int i = 0; i < len; i++) {
+                    if (i == ret.length) ret = Arrays.copyOf(ret, grow(ret.length, len));
+                    ret[i] = readZigzag();
+                }
+                visitor.visitLongArray(ret);
+            }
+            case FLOAT_ARRAY -> {
+                int len = readLength();
+                var ret = new float[initialCapacity(len)];
+                for (int i = 0; i < len; i++) {
+                    if (i == ret.length) ret = Arrays.copyOf(ret, grow(ret.length, len));
+                    ret[i] = Float.intBitsToFloat(readInt32());
+                }
+                visitor.visitFloatArray(ret);
+            }
+            case DOUBLE_ARRAY -> {
+                int len = readLength();
+                var ret = new double[initialCapacity(len)];
+                for (int i = 0; i < len; i++) {
+                    if (i == ret.length) ret = Arrays.copyOf(ret, grow(ret.length, len));
+                    ret[i] = Double.longBitsToDouble(readInt64());
+                }
+                visitor.visitDoubleArray(ret);
+            }
+            default -> throw new IllegalStateException("Unknown tag " + tag);
+        }
+    }
+}
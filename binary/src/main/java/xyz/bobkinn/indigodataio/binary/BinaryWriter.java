@@ -0,0 +1,300 @@
+package xyz.bobkinn.indigodataio.binary;
+
+import xyz.bobkinn.indigodataio.ops.DataVisitor;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
+import java.util.Map;
+
+import static xyz.bobkinn.indigodataio.binary.Tags.*;
+
+/**
+ * Visitor that encodes received events in binary format.
+ * Output is buffered, call {@link #flush()} after last value.
+ * Errors of output are rethrown as {@link UncheckedIOException}
+ * @since 3.1.0
+ */
+public class BinaryWriter implements DataVisitor {
+
+    /**
+     * Receiver of encoded bytes
+     */
+    @FunctionalInterface
+    public interface Output {
+        void write(byte[] b, int off, int len) throws IOException;
+    }
+
+    private final Output out;
+    private final byte[] buf;
+    private int pos;
+    private final Map<String, Integer> keys = new HashMap<>();
+
+    public BinaryWriter(Output out, int bufferSize) {
+        if (bufferSize < 16) throw new IllegalArgumentException("Buffer size must be at least 16");
+        this.out = out;
+        this.buf = new byte[bufferSize];
+    }
+
+    public BinaryWriter(OutputStream out) {
+        this(out::write, 8192);
+    }
+
+    /**
+     * @param out buffer, {@link java.nio.BufferOverflowException} is thrown when it is full
+     */
+    public BinaryWriter(ByteBuffer out) {
+        this(out::put, 8192);
+    }
+
+    /**
+     * Writes magic and version, must be called before first value of stream
+     */
+    public void writeHeader() {
+        ensure(MAGIC.length + 1);
+        for (var b : MAGIC) buf[pos++] = b;
+        buf[pos++] = VERSION;
+    }
+
+    /**
+     * Writes buffered bytes to output
+     */
+    public void flush() {
+        if (pos == 0) return;
+        try {
+            out.write(buf, 0, pos);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        pos = 0;
+    }
+
+    private void ensure(int n) {
+        if (pos + n > buf.length) flush();
+    }
+
+    private void writeByte(int b) {
+        ensure(1);
+        buf[pos++] = (byte) b;
+    }
+
+    private void writeVarint(long v) {
+        ensure(10);
+        while ((v & ~0x7FL) != 0) {
+            buf[pos++] = (byte) ((v & 0x7F) | 0x80);
+            v >>>= 7;
+        }
+        buf[pos++] = (byte) v;
+    }
+
+    private void writeZigzag(long v) {
+        writeVarint((v << 1) ^ (v >> 63));
+    }
+
+    private void writeInt32(int v) {
+        ensure(4);
+        buf[pos++] = (byte) (v >>> 24);
+        buf[pos++] = (byte) (v >>> 16);
+        buf[pos++] = (byte) (v >>> 8);
+        buf[pos++] = (byte) v;
+    }
+
+    private void writeInt64(long v) {
+        ensure(8);
+        for (int s = 56; s >= 0; s -= 8) buf[pos++] = (byte) (v >>> s);
+    }
+
+    private void writeBytes(byte[] b, int off, int len) {
+        if (len <= buf.length - pos) {
+            System.arraycopy(b, off, buf, pos, len);
+            pos += len;
+            return;
+        }
+        flush();
+        if (len <= buf.length) {
+            System.arraycopy(b, off, buf, 0, len);
+            pos = len;
+            return;
+        }
+        try {
+            out.write(b, off, len);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private void writeUtf(String s) {
+        var b = s.getBytes(StandardCharsets.UTF_8);
+        writeVarint(b.length);
+        writeBytes(b, 0, b.length);
+    }
+
+    private void writeSize(int sizeHint) {
+        writeVarint(sizeHint < 0 ? 0 : sizeHint + 1L);
+    }
+
+    @Override
+    public void visitNull() {
+        writeByte(NULL);
+    }
+
+    @Override
+    public void visitString(String value) {
+        writeByte(STRING);
+        writeUtf(value);
+    }
+
+    @Override
+    public void visitBoolean(boolean value) {
+        writeByte(value ? TRUE : FALSE);
+    }
+
+    @Override
+    public void visitByte(byte value) {
+        ensure(2);
+        buf[pos++] = BYTE;
+        buf[pos++] = value;
+    }
+
+    @Override
+    public void visitShort(short value) {
+        writeByte(SHORT);
+        writeZigzag(value);
+    }
+
+    @Override
+    public void visitInt(int value) {
+        writeByte(INT);
+        writeZigzag(value);
+    }
+
+    @Override
+    public void visitLong(long value) {
+        writeByte(LONG);
+        writeZigzag(value);
+    }
+
+    @Override
+    public void visitFloat(float value) {
+        writeByte(FLOAT);
+        writeInt32(Float.floatToRawIntBits(value));
+    }
+
+    @Override
+    public void visitDouble(double value) {
+        writeByte(DOUBLE);
+        writeInt64(Double.doubleToRawLongBits(value));
+    }
+
+    @Override
+    public void visitNumber(Number value) {
+        if (value instanceof BigInteger bi) {
+            writeByte(BIG_INTEGER);
+            var b = bi.toByteArray();
+            writeVarint(b.length);
+            writeBytes(b, 0, b.length);
+            return;
+        }
+        // other numbers, like lazily parsed ones, are stored by decimal value
+        var bd = value instanceof BigDecimal d ? d : new BigDecimal(value.toString());
+        writeByte(BIG_DECIMAL);
+        writeZigzag(bd.scale());
+        var b = bd.unscaledValue().toByteArray();
+        writeVarint(b.length);
+        writeBytes(b, 0, b.length);
+    }
+
+    @Override
+    public void beginMap(int sizeHint) {
+        writeByte(MAP);
+        writeSize(sizeHint);
+    }
+
+    @Override
+    public void visitKey(String key) {
+        var index = keys.get(key);
+        if (index != null) {
+            writeVarint(index + 2L);
+            return;
+        }
+        keys.put(key, keys.size());
+        writeVarint(KEY_NEW);
+        writeUtf(key);
+    }
+
+    @Override
+    public void endMap() {
+        writeVarint(KEY_END);
+    }
+
+    @Override
+    public void beginList(int sizeHint) {
+        writeByte(LIST);
+        writeSize(sizeHint);
+    }
+
+    @Override
+    public void endList() {
+        writeByte(END);
+    }
+
+    @Override
+    public void visitBoolArray(boolean[] value) {
+        writeByte(BOOL_ARRAY);
+        writeVarint(value.length);
+        for (int i = 0; i < value.length; i += 8) {
+            int b = 0;
+            for (int j = 0; j < 8 && i + j < value.length; j++) {
+                if (value[i + j]) b |= 1 << j;
+            }
+            writeByte(b);
+        }
+    }
+
+    @Override
+    public void visitByteArray(byte[] value) {
+        writeByte(BYTE_ARRAY);
+        writeVarint(value.length);
+        writeBytes(value, 0, value.length);
+    }
+
+    @Override
+    public void visitShortArray(short[] value) {
+        writeByte(SHORT_ARRAY);
+        writeVarint(value.length);
+        for (var v : value) writeZigzag(v);
+    }
+
+    @Override
+    public void visitIntArray(int[] value) {
+        writeByte(INT_ARRAY);
+        writeVarint(value.length);
+        for (var v : value) writeZigzag(v);
+    }
+
+    @Override
+    public void visitLongArray(long[] value) {
+        writeByte(LONG_ARRAY);
+        writeVarint(value.length);
+        for (var v : value) writeZigzag(v);
+    }
+
+    @Override
+    public void visitFloatArray(float[] value) {
+        writeByte(FLOAT_ARRAY);
+        writeVarint(value.length);
+        for (var v : value) writeInt32(Float.floatToRawIntBits(v));
+    }
+
+    @Override
+    public void visitDoubleArray(double[] value) {
+        writeByte(DOUBLE_ARRAY);
+        writeVarint(value.length);
+        for (var v : value) writeInt64(Double.doubleToRawLongBits(v));
+    }
+}
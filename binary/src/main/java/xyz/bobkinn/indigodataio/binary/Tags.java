@@ -0,0 +1,43 @@
+package xyz.bobkinn.indigodataio.binary;
+
+/**
+ * Value tags of binary format.<br>
+ * Stream starts with {@link #MAGIC} and version, then single value follows.
+ * Signed integers are zigzag varints, floats are big-endian IEEE 754.
+ * Map and list tags are followed by varint of size + 1 (0 if unknown).
+ * Map entries start with varint key reference: 0 ends map, 1 is new key (varint length and UTF-8 bytes)
+ * that is added to key table, other values are index + 2 in key table. List ends with {@link #END} tag
+ */
+final class Tags {
+    static final byte[] MAGIC = {'I', 'D', 'B'};
+    static final byte VERSION = 1;
+
+    static final int NULL = 0;
+    static final int FALSE = 1;
+    static final int TRUE = 2;
+    static final int BYTE = 3;
+    static final int SHORT = 4;
+    static final int INT = 5;
+    static final int LONG = 6;
+    static final int FLOAT = 7;
+    static final int DOUBLE = 8;
+    static final int STRING = 9;
+    static final int BIG_INTEGER = 10;
+    static final int BIG_DECIMAL = 11;
+    static final int MAP = 12;
+    static final int LIST = 13;
+    static final int END = 14;
+    static final int BOOL_ARRAY = 15;
+    static final int BYTE_ARRAY = 16;
+    static final int SHORT_ARRAY = 17;
+    static final int INT_ARRAY = 18;
+    static final int LONG_ARRAY = 19;
+    static final int FLOAT_ARRAY = 20;
+    static final int DOUBLE_ARRAY = 21;
+
+    static final int KEY_END = 0;
+    static final int KEY_NEW = 1;
+
+    private Tags() {
+    }
+}
@@ -0,0 +1,106 @@
+package xyz.bobkinn.indigodataio.binary;
+
+import org.junit.Test;
+import xyz.bobkinn.indigodataio.NestedKeyMap;
+import xyz.bobkinn.indigodataio.ops.MapOps;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.UncheckedIOException;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+import java.util.List;
+
+public class TestBinary {
+
+    @Test
+    public void testRoundtrip(){
+        var map = NestedKeyMap.withNativeArrays();
+        map.put("s", "text ✓");
+        map.put("b", true);
+        map.put("i", -123456);
+        map.put("l", Long.MIN_VALUE);
+        map.put("d", 0.1);
+        map.put("f", 1.5f);
+        map.put("big", new BigInteger("123456789012345678901234567890"));
+        map.put("dec", new BigDecimal("-1.25E-30"));
+        map.put("a.ints", new int[]{1, -2, 300000});
+        map.putDoubleArray("a.doubles", new double[]{1.5, Double.NaN});
+        map.putBoolArray("a.bools", new boolean[]{true, false, false, true, true, false, true, true, false});
+        map.putByteArray("a.bytes", new byte[]{-1, 0, 1});
+        for (int i = 0; i < 100; i++) {
+            map.put("list." + i + ".name", "n" + i);
+            map.put("list." + i + ".value", i);
+        }
+        map.putStringList("strings", List.of("x", "y"));
+        // top-level key with dot is not a path
+        map.putRaw("dotted.key", 7);
+
+        var bytes = BinaryIo.toBytes(map);
+        var read = BinaryIo.read(bytes, NestedKeyMap.withNativeArrays());
+        assert read.keys().equals(map.keys()) : read;
+        assert read.getSection("list").equals(map.getSection("list"));
+        assert read.get("big").equals(map.get("big"));
+        assert read.get("dec").equals(map.get("dec"));
+        assert read.getFloat("f", 0) == 1.5f;
+        assert Arrays.equals(read.getDoubleArray("a.doubles"), map.getDoubleArray("a.doubles"));
+        assert Arrays.equals(read.getByteArray("a.bytes"), map.getByteArray("a.bytes"));
+        assert read.getIntArray("a.ints")[2] == 300000;
+        assert Arrays.equals(read.getBoolArray("a.bools"), map.getBoolArray("a.bools"));
+        assert read.getLong("l", 0) == Long.MIN_VALUE;
+        assert read.getString("s").equals("text ✓");
+        assert read.getRaw().get("dotted.key").equals(7) && !read.contains("dotted");
+
+        // repeated keys are stored once
+        var sb = new StringBuilder();
+        for (var b : bytes) sb.append((char) (b & 0xFF));
+        assert sb.indexOf("value") == sb.lastIndexOf("value");
+
+        var buffer = ByteBuffer.allocate(bytes.length);
+        BinaryIo.write(map, buffer);
+        assert !buffer.hasRemaining();
+        var fromBuffer = BinaryIo.read(buffer.flip(), new NestedKeyMap());
+        assert fromBuffer.getIntList("a.ints").equals(List.of(1, -2, 300000));
+        assert fromBuffer.getString("list.42.name").equals("n42");
+
+        var out = new ByteArrayOutputStream();
+        BinaryIo.writeValue(MapOps.INSTANCE, List.of(1, "two", List.of()), out);
+        var value = BinaryIo.readValue(MapOps.INSTANCE, new ByteArrayInputStream(out.toByteArray()));
+        assert value.equals(List.of(1, "two", List.of())) : value;
+
+        var broken = Arrays.copyOf(bytes, bytes.length / 2);
+        try {
+            BinaryIo.read(broken, new NestedKeyMap());
+            assert false;
+        } catch (RuntimeException ignored) {
+        }
+    }
+
+    @Test
+    public void testMalformedLength(){
+        int[] tags = {Tags.STRING, Tags.BIG_INTEGER, Tags.BOOL_ARRAY, Tags.BYTE_ARRAY, Tags.SHORT_ARRAY,
+                Tags.INT_ARRAY, Tags.LONG_ARRAY, Tags.FLOAT_ARRAY, Tags.DOUBLE_ARRAY};
+        for (var tag : tags) {
+            // length of Integer.MAX_VALUE - 8 followed by few bytes
+            var data = ByteBuffer.allocate(16).put(Tags.MAGIC).put(Tags.VERSION).put((byte) tag)
+                    .put(new byte[]{(byte) 0xF7, (byte) 0xFF, (byte) 0xFF, (byte) 0xFF, 0x07, 1, 2, 3}).flip();
+            try {
+                BinaryIo.readValue(MapOps.INSTANCE, data);
+                assert false;
+            } catch (UncheckedIOException ignored) {
+            }
+        }
+        var ints = new int[200000];
+        for (int i = 0; i < ints.length; i++) ints[i] = i - 1000;
+        // arrays longer than initial capacity are grown while read
+        var bools = new boolean[70001];
+        bools[70000] = true;
+        var out = new ByteArrayOutputStream();
+        BinaryIo.writeValue(MapOps.NATIVE_ARRAYS, List.of(ints, bools, new byte[100000]), out);
+        var read = (List<?>) BinaryIo.readValue(MapOps.NATIVE_ARRAYS, new ByteArrayInputStream(out.toByteArray()));
+        assert Arrays.equals((int[]) read.get(0), ints) && Arrays.equals((boolean[]) read.get(1), bools);
+        assert ((byte[]) read.get(2)).length == 100000;
+    }
+}
@@ -7,6 +7,23 @@ import xyz.bobkinn.indigodataio.ops.MapOps;
 import java.util.AbstractMap;
 
 public abstract class AbstractDataHolder<T extends DataHolder<T, P>, P, D extends P> extends AbstractMap<String, P> implements DataHolder<T, P> {
+    private static volatile DataPathCache pathCache = new DataPathCache(
+            Integer.getInteger("indigodataio.pathCacheSize", DataPathCache.DEFAULT_SIZE));
+
+    /**
+     * @return cache shared by all holders to parse string keys
+     */
+    public static DataPathCache getPathCache() {
+        return pathCache;
+    }
+
+    /**
+     * Replaces cache shared by all holders. Use {@code new DataPathCache(0)} to disable caching
+     * @param cache new cache
+     */
+    public static void setPathCache(@NotNull DataPathCache cache) {
+        pathCache = cache;
+    }
 
     /**
      * Get raw object used as storage in this holder
@@ -29,6 +46,15 @@ public abstract class AbstractDataHolder<T extends DataHolder<T, P>, P, D extend
     @Contract("_ -> new")
     public abstract T getNewRaw(D data);
 
+    /**
+     * Puts value to storage under top-level key, dots in key are not treated as path separators
+     * @param key key in storage
+     * @param value value, null is handled same as by {@link #putValue(DataPath, Object)}
+     * @return previous value
+     * @since 3.1.0
+     */
+    public abstract P putRaw(@NotNull String key, P value);
+
     @Contract("_ -> new")
     protected @NotNull Pair<String, String> extractMapKey(@NotNull String key) {
         int i = key.lastIndexOf(".");
@@ -38,7 +64,37 @@ public abstract class AbstractDataHolder<T extends DataHolder<T, P>, P, D extend
         return Pair.of(l, r);
     }
 
-    protected abstract D resolveMap(String key, boolean create);
+    /**
+     * Parses string key used by string-keyed methods using {@link #getPathCache() shared cache}
+     * @param key dot separated key
+     * @return parsed path
+     */
+    protected @NotNull DataPath path(@NotNull String key) {
+        return pathCache.get(key);
+    }
+
+    protected D resolveMap(String key, boolean create) {
+        var path = path(key);
+        return resolveMap(path, path.size(), create);
+    }
+
+    /**
+     * Walks first segments of path
+     * @param path path
+     * @param length count of segments to walk
+     * @param create create missing maps
+     * @return map at path or null if not exists and create is false
+     */
+    protected abstract D resolveMap(DataPath path, int length, boolean create);
+
+    /**
+     * @param path path
+     * @param create create missing maps
+     * @return map that contains {@link DataPath#last()} of path
+     */
+    protected D resolveParent(DataPath path, boolean create) {
+        return resolveMap(path, path.size() - 1, create);
+    }
 
     @Override
     public P put(String key, Object value) {
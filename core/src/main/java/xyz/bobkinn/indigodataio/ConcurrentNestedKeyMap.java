@@ -0,0 +1,233 @@
+package xyz.bobkinn.indigodataio;
+
+import lombok.NonNull;
+import org.jetbrains.annotations.Contract;
+import org.jetbrains.annotations.NotNull;
+import xyz.bobkinn.indigodataio.ops.MapOps;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.UnaryOperator;
+
+/**
+ * Thread-safe NestedKeyMap. All levels are {@link ConcurrentHashMap}s, missing sections are created atomically.<br>
+ * Modifications take one of striped locks chosen by first segment of key, so {@code put} and {@code remove}
+ * of deep paths are linearizable with other modifications of this holder, while modifications
+ * of different top-level keys mostly run in parallel. Reads do not lock.<br>
+ * Maps put into this holder are copied into concurrent maps, null values are not stored:
+ * putting null removes key. Sections share locks with this holder, but lock by their own first segment,
+ * so their modifications are not ordered with modifications of ancestor paths made through this holder
+ * @since 3.1.0
+ */
+public class ConcurrentNestedKeyMap extends NestedKeyMap {
+    public static final int DEFAULT_STRIPES = 16;
+
+    private final @NotNull MapOps mapOps;
+    private final ReentrantLock[] locks;
+
+    private ConcurrentNestedKeyMap(@NotNull ConcurrentMap<String, Object> data, @NotNull MapOps ops, ReentrantLock[] locks) {
+        super(data, ops);
+        this.mapOps = ops;
+        this.locks = locks;
+    }
+
+    /**
+     * @param ops ops used to create values
+     * @param stripes count of locks, rounded up to power of two
+     */
+    public ConcurrentNestedKeyMap(@NonNull MapOps ops, int stripes) {
+        this(new ConcurrentHashMap<>(), ops, newLocks(stripes));
+    }
+
+    public ConcurrentNestedKeyMap() {
+        this(MapOps.INSTANCE, DEFAULT_STRIPES);
+    }
+
+    /**
+     * @param map map to copy
+     * @return new concurrent map with deep copy of map values and same ops
+     */
+    public static ConcurrentNestedKeyMap copyOf(NestedKeyMap map) {
+        var ret = new ConcurrentNestedKeyMap((MapOps) map.getOps(), DEFAULT_STRIPES);
+        for (var e : map.getRaw().entrySet()) {
+            if (e.getValue() != null) ret.getRaw().put(e.getKey(), toConcurrent(e.getValue()));
+        }
+        return ret;
+    }
+
+    private static ReentrantLock[] newLocks(int stripes) {
+        if (stripes < 1) throw new IllegalArgumentException("Count of stripes must be positive");
+        int n = Integer.highestOneBit(stripes);
+        if (n < stripes) n <<= 1;
+        var ret = new ReentrantLock[n];
+        for (int i = 0; i < n; i++) ret[i] = new ReentrantLock();
+        return ret;
+    }
+
+    /**
+     * Copies maps into concurrent maps, other values are returned as is
+     */
+    @SuppressWarnings("unchecked")
+    private static Object toConcurrent(Object value) {
+        if (!(value instanceof Map<?, ?> map)) return value;
+        var ret = new ConcurrentHashMap<String, Object>(Math.max(16, map.size() * 4 / 3 + 1));
+        for (var e : ((Map<String, Object>) map).entrySet()) {
+            if (e.getValue() != null) ret.put(e.getKey(), toConcurrent(e.getValue()));
+        }
+        return ret;
+    }
+
+    private ReentrantLock lock(DataPath key) {
+        return lock(key.get(0));
+    }
+
+    private ReentrantLock lock(String topKey) {
+        int h = topKey.hashCode();
+        return locks[(h ^ (h >>> 16)) & (locks.length - 1)];
+    }
+
+    @Override
+    public NestedKeyMap getNew() {
+        return new ConcurrentNestedKeyMap(mapOps, locks.length);
+    }
+
+    @Override
+    public Map<String, Object> getNewRaw() {
+        return new ConcurrentHashMap<>();
+    }
+
+    /**
+     * @return concurrent section sharing locks with this holder,
+     * or plain {@link NestedKeyMap} if data is not concurrent map, like maps inside lists
+     */
+    @Override
+    public NestedKeyMap getNewRaw(Map<String, Object> data) {
+        if (data instanceof ConcurrentMap<String, Object> cm) return new ConcurrentNestedKeyMap(cm, mapOps, locks);
+        return new NestedKeyMap(data, mapOps);
+    }
+
+    @Contract("_, _, true -> !null")
+    @SuppressWarnings("unchecked")
+    @Override
+    protected Map<String, Object> resolveMap(@NotNull DataPath path, int length, boolean create) {
+        var ret = getRaw();
+        for (int i = 0; i < length; i++) {
+            var k = path.get(i);
+            if (k.isEmpty()) return ret;
+            var o = create ? ret.computeIfAbsent(k, n -> getNewRaw()) : ret.get(k);
+            if (!(o instanceof Map)) return null;
+            ret = (Map<String, Object>) o;
+        }
+        return ret;
+    }
+
+    /**
+     * @throws IllegalArgumentException if value on path to key is not section
+     */
+    @Override
+    public Object putValue(DataPath key, Object value) {
+        if (value instanceof NestedKeyMap) {
+            throw new IllegalArgumentException("Use putSection to put NestedKeyMap");
+        }
+        if (value == null) return remove(key);
+        var v = toConcurrent(value);
+        var lock = lock(key);
+        lock.lock();
+        try {
+            var map = resolveParent(key, true);
+            if (map == null) throw new IllegalArgumentException("Parent of '" + key + "' is not section");
+            return map.put(key.last(), v);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public Object putRaw(@NotNull String key, Object value) {
+        if (value instanceof NestedKeyMap) {
+            throw new IllegalArgumentException("Use putSection to put NestedKeyMap");
+        }
+        var lock = lock(key);
+        lock.lock();
+        try {
+            return value == null ? getRaw().remove(key) : getRaw().put(key, toConcurrent(value));
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public Object remove(DataPath key) {
+        var lock = lock(key);
+        lock.lock();
+        try {
+            return super.remove(key);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Atomically replaces value at key
+     * @param key key
+     * @param function receives current value or null, returns new value or null to remove key
+     * @return new value
+     * @throws IllegalArgumentException if value on path to key is not section
+     */
+    public Object computeValue(String key, UnaryOperator<Object> function) {
+        var path = path(key);
+        if (path.isEmpty()) throw new IllegalArgumentException("Empty key '" + key + "'");
+        var lock = lock(path);
+        lock.lock();
+        try {
+            var map = resolveParent(path, false);
+            var old = map != null ? map.get(path.last()) : null;
+            var ret = function.apply(old);
+            // kept as is, so existing section is not replaced by its copy
+            if (ret == old) return ret;
+            if (ret == null) {
+                if (map != null) map.remove(path.last());
+                return null;
+            }
+            if (ret instanceof NestedKeyMap) {
+                throw new IllegalArgumentException("Use getRaw of NestedKeyMap to put it");
+            }
+            if (map == null) map = resolveParent(path, true);
+            if (map == null) throw new IllegalArgumentException("Parent of '" + key + "' is not section");
+            map.put(path.last(), toConcurrent(ret));
+            return ret;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Atomically puts value if key has no value
+     * @param key key
+     * @param value value
+     * @return current value or null if value was put
+     */
+    public Object putValueIfAbsent(String key, Object value) {
+        var current = new Object[1];
+        computeValue(key, old -> {
+            current[0] = old;
+            return old != null ? old : value;
+        });
+        return current[0];
+    }
+
+    /**
+     * Removes all keys, waits for running modifications
+     */
+    @Override
+    public void clear() {
+        for (var lock : locks) lock.lock();
+        try {
+            getRaw().clear();
+        } finally {
+            for (var lock : locks) lock.unlock();
+        }
+    }
+}
@@ -29,7 +29,8 @@ import java.util.*;
 public interface DataHolder<T extends DataHolder<T, P>, P> {
 
     /**
-     * Creates another DataHolder with values of this
+     * Creates another DataHolder with values of this.
+     * Values are converted in single traversal using {@link TypeOps#transfer(TypeOps, Object)}
      * @param to other instance of DataHolder
      * @return new instance of other DataHolder with values
      * @param <TO> type of other DataHolder
@@ -41,7 +42,7 @@ public interface DataHolder<T extends DataHolder<T, P>, P> {
         var selfOps = this.getOps();
         for (var key : this.keys()) {
             var sv = this.get(key);
-            var ov = selfOps.convertTo(otherOps, sv);
+            var ov = selfOps.transfer(otherOps, sv);
             to.putValue(key, ov);
         }
         return to;
@@ -61,6 +62,16 @@ public interface DataHolder<T extends DataHolder<T, P>, P> {
 
     T getNew();
 
+    /**
+     * Creates deep copy of this holder
+     * @return new holder with copied values
+     * @see xyz.bobkinn.indigodataio.ops.ParallelConverter#copy(DataHolder)
+     * @since 3.1.0
+     */
+    default T copy() {
+        return convertTo(getNew());
+    }
+
     /**
      * @return new builder
      */
@@ -270,7 +281,7 @@ public interface DataHolder<T extends DataHolder<T, P>, P> {
     // getters
 
     default boolean getBoolean(String key, boolean def) {
-        return getOps().getBoolean(get(key)).orElse(def);
+        return getOps().getBoolean(get(key), def);
     }
 
     default boolean getBoolean(String key){
@@ -313,7 +324,7 @@ public interface DataHolder<T extends DataHolder<T, P>, P> {
     // getters
 
     default byte getByte(String key, byte def) {
-        return getOps().getByte(get(key)).orElse(def);
+        return getOps().getByte(get(key), def);
     }
 
     default byte getByte(String key){
@@ -356,7 +367,7 @@ public interface DataHolder<T extends DataHolder<T, P>, P> {
     // getters
 
     default short getShort(String key, short def){
-        return getOps().getShort(get(key)).orElse(def);
+        return getOps().getShort(get(key), def);
     }
 
     default short getShort(String key) {
@@ -399,7 +410,7 @@ public interface DataHolder<T extends DataHolder<T, P>, P> {
     // getters
 
     default int getInt(String key, int def){
-        return getOps().getInt(get(key)).orElse(def);
+        return getOps().getInt(get(key), def);
     }
 
     default int getInt(String key) {
@@ -442,7 +453,7 @@ public interface DataHolder<T extends DataHolder<T, P>, P> {
     // getters
 
     default long getLong(String key, long def){
-        return getOps().getLong(get(key)).orElse(def);
+        return getOps().getLong(get(key), def);
     }
 
     default long getLong(String key) {
@@ -485,7 +496,7 @@ public interface DataHolder<T extends DataHolder<T, P>, P> {
     // getters
 
     default float getFloat(String key, float def){
-        return getOps().getFloat(get(key)).orElse(def);
+        return getOps().getFloat(get(key), def);
     }
 
     default float getFloat(String key) {
@@ -528,7 +539,7 @@ public interface DataHolder<T extends DataHolder<T, P>, P> {
     // getters
 
     default double getDouble(String key, double def){
-        return getOps().getDouble(get(key)).orElse(def);
+        return getOps().getDouble(get(key), def);
     }
 
     default double getDouble(String key) {
@@ -567,4 +578,411 @@ public interface DataHolder<T extends DataHolder<T, P>, P> {
 
     //</editor-fold>
 
+    //<editor-fold desc="DataPath methods" defaultstate="collapsed">
+
+    /* BASE METHODS */
+
+    P get(DataPath key, P def);
+
+    default P get(DataPath key) {
+        return get(key, null);
+    }
+
+    P remove(DataPath key);
+
+    boolean contains(DataPath key);
+
+    default boolean contains(DataPath key, Class<? extends P> type) {
+        return type.isInstance(get(key));
+    }
+
+    default boolean containsSection(DataPath key) {
+        return getMap(key) != null;
+    }
+
+    Set<String> keys(DataPath key);
+
+    /**
+     * Puts java value in this map
+     * @implSpec {@link MapOps} ops must be used
+     * @param key key
+     * @param value value that can be converted using {@link MapOps#convertTo(TypeOps, Object)}
+     * @return previous value
+     * @see #put(String, Object)
+     */
+    default P put(DataPath key, Object value) {
+        return putValue(key, MapOps.INSTANCE.convertTo(getOps(), value));
+    }
+
+    /**
+     * Puts type value that extends P
+     * @param key key
+     * @param value value that extends P
+     * @return previous value
+     * @see #putValue(String, Object)
+     */
+    P putValue(DataPath key, P value);
+
+    /* SECTION AND MAP METHODS */
+
+    T getSection(DataPath key, T def);
+
+    default T getSection(DataPath key) {
+        return getSection(key, null);
+    }
+
+    P putSection(DataPath key, T value);
+
+    Map<String, P> getMap(DataPath key, Map<String, P> def);
+
+    default Map<String, P> getMap(DataPath key) {
+        return getMap(key, null);
+    }
+
+    P putMap(DataPath key, Map<String, P> value);
+
+    /* String methods */
+
+    // getters
+
+    default String getString(DataPath key, String def){
+        return getOps().getString(get(key)).orElse(def);
+    }
+
+    default String getString(DataPath key){
+        return getString(key, null);
+    }
+
+    default List<String> getStringList(DataPath key, List<String> def) {
+        return getOps().getStringList(get(key)).orElse(def);
+    }
+
+    default List<String> getStringList(DataPath key){
+        return getStringList(key, getDefaultList());
+    }
+
+    default String[] getStringArray(DataPath key, String[] def){
+        return getOps().getStringArray(get(key)).orElse(def);
+    }
+
+    default String[] getStringArray(DataPath key){
+        return getStringArray(key, null);
+    }
+
+    // setters
+
+    default P putString(DataPath key, String value){
+        return putValue(key, getOps().createString(value));
+    }
+
+    default P putStringList(DataPath key, List<String> value){
+        return putValue(key, getOps().createStringList(value));
+    }
+
+    default P putStringArray(DataPath key, String[] value){
+        return putValue(key, getOps().createStringArray(value));
+    }
+
+    /* Bool methods */
+
+    // getters
+
+    default boolean getBoolean(DataPath key, boolean def) {
+        return getOps().getBoolean(get(key), def);
+    }
+
+    default boolean getBoolean(DataPath key){
+        return getBoolean(key, false);
+    }
+
+    default List<Boolean> getBoolList(DataPath key, List<Boolean> def){
+        return getOps().getBoolList(get(key)).orElse(def);
+    }
+
+    default List<Boolean> getBoolList(DataPath key){
+        return getBoolList(key, getDefaultList());
+    }
+
+    default boolean[] getBoolArray(DataPath key, boolean[] def){
+        return getOps().getBoolArray(get(key)).orElse(def);
+    }
+
+    default boolean[] getBoolArray(DataPath key){
+        return getBoolArray(key, null);
+    }
+
+    // setters
+
+    default P putBoolean(DataPath key, boolean value){
+        return putValue(key, getOps().createBoolean(value));
+    }
+
+    default P putBoolList(DataPath key, List<Boolean> value){
+        return putValue(key, getOps().createBoolList(value));
+    }
+
+    default P putBoolArray(DataPath key, boolean[] value){
+        return putValue(key, getOps().createBoolArray(value));
+    }
+
+
+    /* Byte methods */
+
+    // getters
+
+    default byte getByte(DataPath key, byte def) {
+        return getOps().getByte(get(key), def);
+    }
+
+    default byte getByte(DataPath key){
+        return getByte(key, (byte) 0);
+    }
+
+    default List<Byte> getByteList(DataPath key, List<Byte> def){
+        return getOps().getByteList(get(key)).orElse(def);
+    }
+
+    default List<Byte> getByteList(DataPath key){
+        return getByteList(key, getDefaultList());
+    }
+
+    default byte[] getByteArray(DataPath key, byte[] def){
+        return getOps().getByteArray(get(key)).orElse(def);
+    }
+
+    default byte[] getByteArray(DataPath key){
+        return getByteArray(key, null);
+    }
+
+    // setters
+
+    default P putByte(DataPath key, byte value){
+        return putValue(key, getOps().createByte(value));
+    }
+
+    default P putByteList(DataPath key, List<Byte> value){
+        return putValue(key, getOps().createByteList(value));
+    }
+
+    default P putByteArray(DataPath key, byte[] value){
+        return putValue(key, getOps().createByteArray(value));
+    }
+
+
+    /* Short methods */
+
+    // getters
+
+    default short getShort(DataPath key, short def){
+        return getOps().getShort(get(key), def);
+    }
+
+    default short getShort(DataPath key) {
+        return getShort(key, (short) 0);
+    }
+
+    default List<Short> getShortList(DataPath key, List<Short> def){
+        return getOps().getShortList(get(key)).orElse(def);
+    }
+
+    default List<Short> getShortList(DataPath key){
+        return getShortList(key, getDefaultList());
+    }
+
+    default short[] getShortArray(DataPath key, short[] def){
+        return getOps().getShortArray(get(key)).orElse(def);
+    }
+
+    default short[] getShortArray(DataPath key){
+        return getShortArray(key,null);
+    }
+
+    // setters
+
+    default P putShort(DataPath key, short value){
+        return putValue(key, getOps().createShort(value));
+    }
+
+    default P putShortList(DataPath key, List<Short> value){
+        return putValue(key, getOps().createShortList(value));
+    }
+
+    default P putShortArray(DataPath key, short[] value){
+        return putValue(key, getOps().createShortArray(value));
+    }
+
+
+    /* Integer methods */
+
+    // getters
+
+    default int getInt(DataPath key, int def){
+        return getOps().getInt(get(key), def);
+    }
+
+    default int getInt(DataPath key) {
+        return getInt(key, 0);
+    }
+
+    default List<Integer> getIntList(DataPath key, List<Integer> def){
+        return getOps().getIntList(get(key)).orElse(def);
+    }
+
+    default List<Integer> getIntList(DataPath key){
+        return getIntList(key, getDefaultList());
+    }
+
+    default int[] getIntArray(DataPath key, int[] def){
+        return getOps().getIntArray(get(key)).orElse(def);
+    }
+
+    default int[] getIntArray(DataPath key){
+        return getIntArray(key, null);
+    }
+
+    // setters
+
+    default P putInt(DataPath key, int value){
+        return putValue(key, getOps().createInt(value));
+    }
+
+    default P putIntList(DataPath key, List<Integer> value){
+        return putValue(key, getOps().createIntList(value));
+    }
+
+    default P putIntArray(DataPath key, int[] value){
+        return putValue(key, getOps().createIntArray(value));
+    }
+
+
+    /* Long methods */
+
+    // getters
+
+    default long getLong(DataPath key, long def){
+        return getOps().getLong(get(key), def);
+    }
+
+    default long getLong(DataPath key) {
+        return getLong(key, 0L);
+    }
+
+    default List<Long> getLongList(DataPath key, List<Long> def){
+        return getOps().getLongList(get(key)).orElse(def);
+    }
+
+    default List<Long> getLongList(DataPath key){
+        return getLongList(key, getDefaultList());
+    }
+
+    default long[] getLongArray(DataPath key, long[] def){
+        return getOps().getLongArray(get(key)).orElse(def);
+    }
+
+    default long[] getLongArray(DataPath key){
+        return getLongArray(key, null);
+    }
+
+    // setters
+
+    default P putLong(DataPath key, long value){
+        return putValue(key, getOps().createLong(value));
+    }
+
+    default P putLongList(DataPath key, List<Long> value){
+        return putValue(key, getOps().createLongList(value));
+    }
+
+    default P putLongArray(DataPath key, long[] value){
+        return putValue(key, getOps().createLongArray(value));
+    }
+
+
+    /* Float methods */
+
+    // getters
+
+    default float getFloat(DataPath key, float def){
+        return getOps().getFloat(get(key), def);
+    }
+
+    default float getFloat(DataPath key) {
+        return getFloat(key, 0);
+    }
+
+    default List<Float> getFloatList(DataPath key, List<Float> def){
+        return getOps().getFloatList(get(key)).orElse(def);
+    }
+
+    default List<Float> getFloatList(DataPath key){
+        return getFloatList(key, getDefaultList());
+    }
+
+    default float[] getFloatArray(DataPath key, float[] def){
+        return getOps().getFloatArray(get(key)).orElse(def);
+    }
+
+    default float[] getFloatArray(DataPath key){
+        return getFloatArray(key, null);
+    }
+
+    // setters
+
+    default P putFloat(DataPath key, float value){
+        return putValue(key, getOps().createFloat(value));
+    }
+
+    default P putFloatList(DataPath key, List<Float> value){
+        return putValue(key, getOps().createFloatList(value));
+    }
+
+    default P putFloatArray(DataPath key, float[] value){
+        return putValue(key, getOps().createFloatArray(value));
+    }
+
+
+    /* Double methods */
+
+    // getters
+
+    default double getDouble(DataPath key, double def){
+        return getOps().getDouble(get(key), def);
+    }
+
+    default double getDouble(DataPath key) {
+        return getDouble(key, 0);
+    }
+
+    default List<Double> getDoubleList(DataPath key, List<Double> def){
+        return getOps().getDoubleList(get(key)).orElse(def);
+    }
+
+    default List<Double> getDoubleList(DataPath key){
+        return getDoubleList(key, getDefaultList());
+    }
+
+    default double[] getDoubleArray(DataPath key, double[] def){
+        return getOps().getDoubleArray(get(key)).orElse(def);
+    }
+
+    default double[] getDoubleArray(DataPath key){
+        return getDoubleArray(key, null);
+    }
+
+    // setters
+
+    default P putDouble(DataPath key, double value){
+        return putValue(key, getOps().createDouble(value));
+    }
+
+    default P putDoubleList(DataPath key, List<Double> value){
+        return putValue(key, getOps().createDoubleList(value));
+    }
+
+    default P putDoubleArray(DataPath key, double[] value){
+        return putValue(key, getOps().createDoubleArray(value));
+    }
+
+    //</editor-fold>
+
 }
@@ -0,0 +1,165 @@
+package xyz.bobkinn.indigodataio;
+
+import org.jetbrains.annotations.Contract;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Pre-parsed key like {@code inside.some.object.value}.<br>
+ * Key is split only once at creation, so lookups with the same path instance
+ * walk the tree without any parsing or allocation.
+ * Segment hash codes are cached by {@link String} itself, path hash code is cached here.
+ * @since 3.1.0
+ */
+@SuppressWarnings("unused")
+public final class DataPath {
+    private final String key;
+    private final String[] segments;
+    private final int hash;
+
+    private DataPath(String key, String[] segments) {
+        this.key = key;
+        this.segments = segments;
+        this.hash = key.hashCode();
+    }
+
+    /**
+     * Parses key into path. Unlike {@link String#split(String)} empty segments are kept
+     * @param key dot separated key
+     * @return new path
+     */
+    @Contract("_ -> new")
+    public static @NotNull DataPath of(@NotNull String key) {
+        int count = 1;
+        for (int i = 0; i < key.length(); i++) {
+            if (key.charAt(i) == '.') count++;
+        }
+        var segments = new String[count];
+        if (count == 1) {
+            segments[0] = key;
+            return new DataPath(key, segments);
+        }
+        int start = 0;
+        int n = 0;
+        for (int i = 0; i < key.length(); i++) {
+            if (key.charAt(i) != '.') continue;
+            segments[n++] = key.substring(start, i);
+            start = i + 1;
+        }
+        segments[n] = key.substring(start);
+        return new DataPath(key, segments);
+    }
+
+    /**
+     * Creates path from segments. Segments must not contain dots
+     * @param segments path segments
+     * @return new path
+     */
+    @Contract("_ -> new")
+    public static @NotNull DataPath of(@NotNull String... segments) {
+        if (segments.length == 0) throw new IllegalArgumentException("Path must contain at least one segment");
+        for (var s : segments) {
+            if (s.indexOf('.') != -1) throw new IllegalArgumentException("Segment '" + s + "' contains dot");
+        }
+        return new DataPath(String.join(".", segments), segments.clone());
+    }
+
+    /**
+     * @return count of segments, always at least 1
+     */
+    public int size() {
+        return segments.length;
+    }
+
+    /**
+     * @param index segment index
+     * @return segment at index
+     */
+    public String get(int index) {
+        return segments[index];
+    }
+
+    /**
+     * @return last segment, that is key in parent map
+     */
+    public String last() {
+        return segments[segments.length - 1];
+    }
+
+    /**
+     * @return true if this path is empty string key
+     */
+    public boolean isEmpty() {
+        return key.isEmpty();
+    }
+
+    /**
+     * @return path without last segment or null if this path has only one segment
+     */
+    public DataPath parent() {
+        if (segments.length == 1) return null;
+        var s = Arrays.copyOf(segments, segments.length - 1);
+        return new DataPath(key.substring(0, key.lastIndexOf('.')), s);
+    }
+
+    /**
+     * @param other path to append
+     * @return new path with segments of other path appended
+     */
+    @Contract("_ -> new")
+    public @NotNull DataPath resolve(@NotNull DataPath other) {
+        var s = Arrays.copyOf(segments, segments.length + other.segments.length);
+        System.arraycopy(other.segments, 0, s, segments.length, other.segments.length);
+        return new DataPath(key + "." + other.key, s);
+    }
+
+    /**
+     * @param key key to append
+     * @return new path with parsed key appended
+     */
+    @Contract("_ -> new")
+    public @NotNull DataPath resolve(@NotNull String key) {
+        return resolve(of(key));
+    }
+
+    /**
+     * @param other other path
+     * @return true if other path segments are first segments of this path
+     */
+    public boolean startsWith(@NotNull DataPath other) {
+        if (other.segments.length > segments.length) return false;
+        for (int i = 0; i < other.segments.length; i++) {
+            if (!segments[i].equals(other.segments[i])) return false;
+        }
+        return true;
+    }
+
+    /**
+     * @return unmodifiable list of segments
+     */
+    public List<String> segments() {
+        return List.of(segments);
+    }
+
+    @Override
+    public boolean equals(Object obj) {
+        if (obj == this) return true;
+        if (!(obj instanceof DataPath other)) return false;
+        return hash == other.hash && key.equals(other.key);
+    }
+
+    @Override
+    public int hashCode() {
+        return hash;
+    }
+
+    /**
+     * @return dot separated key
+     */
+    @Override
+    public String toString() {
+        return key;
+    }
+}
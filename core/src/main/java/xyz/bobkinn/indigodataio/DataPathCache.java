@@ -0,0 +1,117 @@
+package xyz.bobkinn.indigodataio;
+
+import org.jetbrains.annotations.NotNull;
+
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Bounded lock-free cache of parsed keys used by string-keyed methods of {@link AbstractDataHolder}.<br>
+ * Cache is a fixed table of slots indexed by key hash, so lookup of cached key does not allocate.
+ * When two keys share a slot {@link Eviction} decides which one stays
+ * @since 3.1.0
+ */
+@SuppressWarnings("unused")
+public final class DataPathCache {
+    public static final int DEFAULT_SIZE = 1024;
+
+    public enum Eviction {
+        /**
+         * New key replaces key in its slot
+         */
+        REPLACE,
+        /**
+         * Key in slot is never replaced, new key is parsed on every call.
+         * Useful when set of hot keys is stable and filled first
+         */
+        KEEP
+    }
+
+    private final AtomicReferenceArray<DataPath> slots;
+    private final int mask;
+    private final Eviction eviction;
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+
+    /**
+     * @param size max count of cached keys, rounded up to power of two. 0 disables cache
+     * @param eviction what to do when slot is taken
+     */
+    public DataPathCache(int size, @NotNull Eviction eviction) {
+        if (size < 0) throw new IllegalArgumentException("Negative cache size " + size);
+        int cap = size == 0 ? 0 : 1;
+        while (cap < size) cap <<= 1;
+        this.slots = new AtomicReferenceArray<>(cap);
+        this.mask = cap - 1;
+        this.eviction = eviction;
+    }
+
+    public DataPathCache(int size) {
+        this(size, Eviction.REPLACE);
+    }
+
+    /**
+     * Returns cached path or parses key and caches it
+     * @param key dot separated key
+     * @return parsed path
+     */
+    public @NotNull DataPath get(@NotNull String key) {
+        if (mask < 0) return DataPath.of(key);
+        int i = spread(key.hashCode()) & mask;
+        var cached = slots.getAcquire(i);
+        if (cached != null) {
+            var s = cached.toString();
+            //noinspection StringEquality
+            if (s == key || s.equals(key)) {
+                hits.increment();
+                return cached;
+            }
+        }
+        misses.increment();
+        var path = DataPath.of(key);
+        if (cached == null || eviction == Eviction.REPLACE) {
+            slots.setRelease(i, path);
+        }
+        return path;
+    }
+
+    private static int spread(int h) {
+        return h ^ (h >>> 16);
+    }
+
+    /**
+     * @return capacity of this cache
+     */
+    public int capacity() {
+        return slots.length();
+    }
+
+    public Eviction getEviction() {
+        return eviction;
+    }
+
+    public long getHits() {
+        return hits.sum();
+    }
+
+    public long getMisses() {
+        return misses.sum();
+    }
+
+    /**
+     * Removes all cached keys and resets counters
+     */
+    public void clear() {
+        for (int i = 0; i < slots.length(); i++) {
+            slots.setRelease(i, null);
+        }
+        hits.reset();
+        misses.reset();
+    }
+
+    @Override
+    public String toString() {
+        return "DataPathCache[capacity=" + capacity() + ", eviction=" + eviction
+                + ", hits=" + getHits() + ", misses=" + getMisses() + "]";
+    }
+}
@@ -0,0 +1,53 @@
+package xyz.bobkinn.indigodataio;
+
+import org.jetbrains.annotations.Nullable;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Counts modifications of holder and its sections, used to skip saving of unchanged data
+ * @see TrackedNestedKeyMap
+ * @since 3.1.0
+ */
+public final class DirtyTracker {
+    private final AtomicLong version = new AtomicLong();
+    private volatile long savedVersion;
+    private volatile Runnable listener;
+
+    /**
+     * Records modification and notifies listener
+     */
+    public void markDirty() {
+        version.incrementAndGet();
+        var l = listener;
+        if (l != null) l.run();
+    }
+
+    /**
+     * @return count of modifications
+     */
+    public long getVersion() {
+        return version.get();
+    }
+
+    /**
+     * @return true if data was modified after last {@link #markSaved(long)}
+     */
+    public boolean isDirty() {
+        return version.get() != savedVersion;
+    }
+
+    /**
+     * @param version version that was saved, taken by {@link #getVersion()} before saving
+     */
+    public void markSaved(long version) {
+        savedVersion = version;
+    }
+
+    /**
+     * @param listener action called after each modification, or null
+     */
+    public void setListener(@Nullable Runnable listener) {
+        this.listener = listener;
+    }
+}
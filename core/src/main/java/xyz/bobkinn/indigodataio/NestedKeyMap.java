@@ -1,7 +1,6 @@
 package xyz.bobkinn.indigodataio;
 
 import lombok.NonNull;
-import lombok.RequiredArgsConstructor;
 import org.jetbrains.annotations.Contract;
 import org.jetbrains.annotations.NotNull;
 import xyz.bobkinn.indigodataio.ops.MapOps;
@@ -9,15 +8,39 @@ import xyz.bobkinn.indigodataio.ops.TypeOps;
 
 import java.util.*;
 
-@RequiredArgsConstructor
 public class NestedKeyMap extends AbstractDataHolder<NestedKeyMap, Object, Map<String, Object>>{
-    @NonNull // to generate check
     private final @NotNull Map<String, Object> data;
+    private final @NotNull MapOps ops;
+
+    public NestedKeyMap(@NonNull Map<String, Object> data){
+        this(data, MapOps.INSTANCE);
+    }
+
+    /**
+     * @param data storage
+     * @param ops ops used to create values, like {@link MapOps#NATIVE_ARRAYS}
+     * @since 3.1.0
+     */
+    public NestedKeyMap(@NonNull Map<String, Object> data, @NonNull MapOps ops){
+        this.data = data;
+        this.ops = ops;
+    }
 
     public NestedKeyMap(){
         this(new HashMap<>());
     }
 
+    /**
+     * Creates map that stores primitive arrays as-is instead of boxed lists.
+     * Array getters return stored array without copying and list getters return views of it
+     * @return new empty map
+     * @see MapOps#NATIVE_ARRAYS
+     * @since 3.1.0
+     */
+    public static NestedKeyMap withNativeArrays(){
+        return new NestedKeyMap(new HashMap<>(), MapOps.NATIVE_ARRAYS);
+    }
+
     public static MapBuilder<NestedKeyMap, Object> newBuilder(){
         return new NestedKeyMap().toBuilder();
     }
@@ -28,7 +51,7 @@ public class NestedKeyMap extends AbstractDataHolder<NestedKeyMap, Object, Map<S
 
     @Override
     public NestedKeyMap getNew() {
-        return new NestedKeyMap();
+        return new NestedKeyMap(getNewRaw(), ops);
     }
 
     @Override
@@ -38,17 +61,17 @@ public class NestedKeyMap extends AbstractDataHolder<NestedKeyMap, Object, Map<S
 
     @Override
     public NestedKeyMap getNewRaw(Map<String, Object> data) {
-        return new NestedKeyMap(data);
+        return new NestedKeyMap(data, ops);
     }
 
     @Override
     public TypeOps<Object> getOps() {
-        return MapOps.INSTANCE;
+        return ops;
     }
 
     @Override
     public MapBuilder<NestedKeyMap, Object> toBuilder() {
-        return new MapBuilder<>(null, this, NestedKeyMap::new,
+        return new MapBuilder<>(null, this, this::getNew,
                 n -> n, b -> b, s -> s);
     }
 
@@ -62,7 +85,7 @@ public class NestedKeyMap extends AbstractDataHolder<NestedKeyMap, Object, Map<S
             root = getNew();
             putSection(key, root);
         }
-        return new MapBuilder<>(null, root, NestedKeyMap::new,
+        return new MapBuilder<>(null, root, this::getNew,
                 n -> n, b -> b, s -> s);
     }
 
@@ -71,27 +94,21 @@ public class NestedKeyMap extends AbstractDataHolder<NestedKeyMap, Object, Map<S
         return data.toString();
     }
 
-    @Contract("_, true -> !null")
+    @Contract("_, _, true -> !null")
     @SuppressWarnings("unchecked")
-    protected Map<String, Object> resolveMap(@NotNull String key, boolean create) {
+    protected Map<String, Object> resolveMap(@NotNull DataPath path, int length, boolean create) {
         var ret = data;
-        for (String k : key.split("\\.")) {
+        for (int i = 0; i < length; i++) {
+            var k = path.get(i);
             if (k.isEmpty()) return ret;
-            if (ret == null) return null;
-            Object o;
-            if (ret.containsKey(k)) {
-                o = ret.get(k);
-            } else if (create) {
+            var o = ret.get(k);
+            if (o == null && !ret.containsKey(k)) {
+                if (!create) return null;
                 o = getNewRaw();
                 ret.put(k, o);
-            } else {
-                return null;
-            }
-            try {
-                ret = (Map<String, Object>) o;
-            } catch (ClassCastException e) {
-                return null;
             }
+            if (!(o instanceof Map)) return null;
+            ret = (Map<String, Object>) o;
         }
         return ret;
     }
@@ -100,22 +117,36 @@ public class NestedKeyMap extends AbstractDataHolder<NestedKeyMap, Object, Map<S
         if (key.isEmpty()) throw new IllegalArgumentException("Empty key '"+key+"'");
     }
 
+    private static void checkEmptyKey(DataPath key){
+        if (key.isEmpty()) throw new IllegalArgumentException("Empty key '"+key+"'");
+    }
+
     @Override
     public Object remove(String key) {
         checkEmptyKey(key);
-        var p = extractMapKey(key);
-        var map = resolveMap(p.getLeft(), false);
+        return remove(path(key));
+    }
+
+    @Override
+    public Object remove(DataPath key) {
+        checkEmptyKey(key);
+        var map = resolveParent(key, false);
         if (map == null) return null;
-        return map.remove(p.getRight());
+        return map.remove(key.last());
     }
 
     @Override
     public boolean contains(String key) {
         checkEmptyKey(key);
-        var p = extractMapKey(key);
-        var map = resolveMap(p.getLeft(), false);
+        return contains(path(key));
+    }
+
+    @Override
+    public boolean contains(DataPath key) {
+        checkEmptyKey(key);
+        var map = resolveParent(key, false);
         if (map == null) return false;
-        return map.containsKey(p.getRight());
+        return map.containsKey(key.last());
     }
 
     @Override
@@ -136,8 +167,12 @@ public class NestedKeyMap extends AbstractDataHolder<NestedKeyMap, Object, Map<S
 
     @Override
     public Set<String> keys(String key) {
-        var p = extractMapKey(key);
-        var map = resolveMap(p.getLeft(), false);
+        return keys(path(key));
+    }
+
+    @Override
+    public Set<String> keys(DataPath key) {
+        var map = resolveParent(key, false);
         if (map == null) return Set.of();
         return map.keySet();
     }
@@ -160,10 +195,14 @@ public class NestedKeyMap extends AbstractDataHolder<NestedKeyMap, Object, Map<S
 
     @Override
     public Object get(String key, Object def) {
-        var p = extractMapKey(key);
-        var map = resolveMap(p.getLeft(), false);
+        return get(path(key), def);
+    }
+
+    @Override
+    public Object get(DataPath key, Object def) {
+        var map = resolveParent(key, false);
         if (map == null) return def;
-        return map.getOrDefault(p.getRight(), def);
+        return map.getOrDefault(key.last(), def);
     }
 
     @Override
@@ -176,17 +215,30 @@ public class NestedKeyMap extends AbstractDataHolder<NestedKeyMap, Object, Map<S
         var o = get(key, def);
         if (o instanceof Collection<?> ls){
             return new ArrayList<>(ls);
-        } else return def;
+        }
+        return ops.getStream(o).<List<?>>map(TypeOps::toArrayList).orElse(def);
     }
 
     @Override
     public Object putValue(String key, Object value) {
+        return putValue(path(key), value);
+    }
+
+    @Override
+    public Object putValue(DataPath key, Object value) {
+        if (value instanceof NestedKeyMap){
+            throw new IllegalArgumentException("Use putSection to put NestedKeyMap");
+        }
+        var map = resolveParent(key, true);
+        return map.put(key.last(), value);
+    }
+
+    @Override
+    public Object putRaw(@NotNull String key, Object value) {
         if (value instanceof NestedKeyMap){
             throw new IllegalArgumentException("Use putSection to put NestedKeyMap");
         }
-        var p = extractMapKey(key);
-        var map = resolveMap(p.getLeft(), true);
-        return map.put(p.getRight(), value);
+        return data.put(key, value);
     }
 
     @Override
@@ -196,9 +248,7 @@ public class NestedKeyMap extends AbstractDataHolder<NestedKeyMap, Object, Map<S
 
     @Override
     public NestedKeyMap getSection(String key, NestedKeyMap def) {
-        var m = getMap(key, null);
-        if (m == null) return def;
-        return new NestedKeyMap(m);
+        return getSection(path(key), def);
     }
 
     @Override
@@ -206,6 +256,13 @@ public class NestedKeyMap extends AbstractDataHolder<NestedKeyMap, Object, Map<S
         return getSection(key, null);
     }
 
+    @Override
+    public NestedKeyMap getSection(DataPath key, NestedKeyMap def) {
+        var m = getMap(key, null);
+        if (m == null) return def;
+        return getNewRaw(m);
+    }
+
     @Override
     public List<NestedKeyMap> getSectionList(String key, List<NestedKeyMap> def) {
         var ls = getMapList(key);
@@ -218,6 +275,11 @@ public class NestedKeyMap extends AbstractDataHolder<NestedKeyMap, Object, Map<S
         return putValue(key, value != null ? value.data : null);
     }
 
+    @Override
+    public Object putSection(DataPath key, NestedKeyMap value) {
+        return putValue(key, value != null ? value.data : null);
+    }
+
     @Override
     public Object putSectionList(String key, List<NestedKeyMap> value) {
         if (value == null) return putValue(key, null);
@@ -226,13 +288,7 @@ public class NestedKeyMap extends AbstractDataHolder<NestedKeyMap, Object, Map<S
 
     @Override
     public Map<String, Object> getMap(String key, Map<String, Object> def) {
-        var o = get(key, def);
-        try {
-            //noinspection unchecked
-            return (Map<String, Object>) o;
-        } catch (Exception e){
-            return def;
-        }
+        return getMap(path(key), def);
     }
 
     @Override
@@ -240,6 +296,16 @@ public class NestedKeyMap extends AbstractDataHolder<NestedKeyMap, Object, Map<S
         return getMap(key, null);
     }
 
+    @Override
+    public Map<String, Object> getMap(DataPath key, Map<String, Object> def) {
+        var o = get(key, def);
+        if (o instanceof Map) {
+            //noinspection unchecked
+            return (Map<String, Object>) o;
+        }
+        return def;
+    }
+
     @Override
     public List<Map<String, Object>> getMapList(String key, List<Map<String, Object>> def) {
         var v = get(key, def);
@@ -256,6 +322,11 @@ public class NestedKeyMap extends AbstractDataHolder<NestedKeyMap, Object, Map<S
         return putValue(key, value);
     }
 
+    @Override
+    public Object putMap(DataPath key, Map<String, Object> value) {
+        return putValue(key, value);
+    }
+
     @Override
     public Object putMapList(String key, List<Map<String, Object>> value) {
         return putValue(key, value);
@@ -2,8 +2,10 @@ package xyz.bobkinn.indigodataio;
 
 import org.jetbrains.annotations.NotNull;
 
+import java.util.AbstractList;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.RandomAccess;
 import java.util.stream.Stream;
 
 @SuppressWarnings("unused")
@@ -142,4 +144,163 @@ public class NumberUtil {
         return ret;
     }
 
+    /* Fixed-size list views backed by primitive arrays. Writes go to the array */
+
+    public static List<Boolean> boolAsList(boolean[] v){
+        if (v == null) return null;
+        return new PrimitiveList<>() {
+            @Override
+            public Boolean get(int index) {
+                return v[index];
+            }
+
+            @Override
+            public Boolean set(int index, Boolean element) {
+                var old = v[index];
+                v[index] = element;
+                return old;
+            }
+
+            @Override
+            public int size() {
+                return v.length;
+            }
+        };
+    }
+
+    public static List<Byte> byteAsList(byte[] v){
+        if (v == null) return null;
+        return new PrimitiveList<>() {
+            @Override
+            public Byte get(int index) {
+                return v[index];
+            }
+
+            @Override
+            public Byte set(int index, Byte element) {
+                var old = v[index];
+                v[index] = element;
+                return old;
+            }
+
+            @Override
+            public int size() {
+                return v.length;
+            }
+        };
+    }
+
+    public static List<Short> shortAsList(short[] v){
+        if (v == null) return null;
+        return new PrimitiveList<>() {
+            @Override
+            public Short get(int index) {
+                return v[index];
+            }
+
+            @Override
+            public Short set(int index, Short element) {
+                var old = v[index];
+                v[index] = element;
+                return old;
+            }
+
+            @Override
+            public int size() {
+                return v.length;
+            }
+        };
+    }
+
+    public static List<Integer> intAsList(int[] v){
+        if (v == null) return null;
+        return new PrimitiveList<>() {
+            @Override
+            public Integer get(int index) {
+                return v[index];
+            }
+
+            @Override
+            public Integer set(int index, Integer element) {
+                var old = v[index];
+                v[index] = element;
+                return old;
+            }
+
+            @Override
+            public int size() {
+                return v.length;
+            }
+        };
+    }
+
+    public static List<Long> longAsList(long[] v){
+        if (v == null) return null;
+        return new PrimitiveList<>() {
+            @Override
+            public Long get(int index) {
+                return v[index];
+            }
+
+            @Override
+            public Long set(int index, Long element) {
+                var old = v[index];
+                v[index] = element;
+                return old;
+            }
+
+            @Override
+            public int size() {
+                return v.length;
+            }
+        };
+    }
+
+    public static List<Float> floatAsList(float[] v){
+        if (v == null) return null;
+        return new PrimitiveList<>() {
+            @Override
+            public Float get(int index) {
+                return v[index];
+            }
+
+            @Override
+            public Float set(int index, Float element) {
+                var old = v[index];
+                v[index] = element;
+                return old;
+            }
+
+            @Override
+            public int size() {
+                return v.length;
+            }
+        };
+    }
+
+    public static List<Double> doubleAsList(double[] v){
+        if (v == null) return null;
+        return new PrimitiveList<>() {
+            @Override
+            public Double get(int index) {
+                return v[index];
+            }
+
+            @Override
+            public Double set(int index, Double element) {
+                var old = v[index];
+                v[index] = element;
+                return old;
+            }
+
+            @Override
+            public int size() {
+                return v.length;
+            }
+        };
+    }
+
+    private abstract static class PrimitiveList<E> extends AbstractList<E> implements RandomAccess {
+    }
+
 }
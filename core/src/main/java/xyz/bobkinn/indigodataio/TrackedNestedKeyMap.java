@@ -0,0 +1,75 @@
+package xyz.bobkinn.indigodataio;
+
+import lombok.NonNull;
+import org.jetbrains.annotations.NotNull;
+import xyz.bobkinn.indigodataio.ops.MapOps;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * NestedKeyMap that marks {@link DirtyTracker} on {@code put}, {@code remove} and {@link #clear()}.
+ * Sections returned by this map share tracker, so their modifications are tracked too.
+ * Changes made through raw maps, {@link #getRaw()} or key and entry views are not tracked
+ * @since 3.1.0
+ */
+public class TrackedNestedKeyMap extends NestedKeyMap {
+    private final @NotNull MapOps mapOps;
+    private final @NotNull DirtyTracker tracker;
+
+    public TrackedNestedKeyMap(@NonNull Map<String, Object> data, @NonNull MapOps ops, @NonNull DirtyTracker tracker) {
+        super(data, ops);
+        this.mapOps = ops;
+        this.tracker = tracker;
+    }
+
+    public TrackedNestedKeyMap() {
+        this(new HashMap<>(), MapOps.INSTANCE, new DirtyTracker());
+    }
+
+    /**
+     * @param map map which storage is used
+     * @return tracked map with same storage and ops and new tracker
+     */
+    public static TrackedNestedKeyMap of(NestedKeyMap map) {
+        return new TrackedNestedKeyMap(map.getRaw(), (MapOps) map.getOps(), new DirtyTracker());
+    }
+
+    public @NotNull DirtyTracker getTracker() {
+        return tracker;
+    }
+
+    @Override
+    public NestedKeyMap getNewRaw(Map<String, Object> data) {
+        return new TrackedNestedKeyMap(data, mapOps, tracker);
+    }
+
+    @Override
+    public Object putValue(DataPath key, Object value) {
+        var ret = super.putValue(key, value);
+        tracker.markDirty();
+        return ret;
+    }
+
+    @Override
+    public Object putRaw(@NotNull String key, Object value) {
+        var ret = super.putRaw(key, value);
+        tracker.markDirty();
+        return ret;
+    }
+
+    @Override
+    public Object remove(DataPath key) {
+        if (!contains(key)) return null;
+        var ret = super.remove(key);
+        tracker.markDirty();
+        return ret;
+    }
+
+    @Override
+    public void clear() {
+        if (isEmpty()) return;
+        super.clear();
+        tracker.markDirty();
+    }
+}
@@ -0,0 +1,218 @@
+package xyz.bobkinn.indigodataio.ops;
+
+import java.util.Arrays;
+
+/**
+ * Visitor that forwards events to delegate, but sends lists that contain only numbers
+ * as primitive array events. Integers are sent as int or long array, lists with decimals as double array,
+ * so integers mixed with decimals become doubles. Lists with integers that are not exact doubles,
+ * with values other than numbers or without elements are forwarded unchanged.
+ * Used to fill ops with {@link MapOps#isNativeArrays() native arrays} from list-only sources like JSON
+ * @since 3.1.0
+ */
+public class ArrayPackingVisitor implements DataVisitor {
+    private static final byte BYTE = 0, SHORT = 1, INT = 2, LONG = 3, FLOAT = 4, DOUBLE = 5;
+
+    private final DataVisitor delegate;
+    // buffer of innermost list while it has only numbers
+    private boolean buffering;
+    private byte[] kinds = new byte[16];
+    private long[] values = new long[16];
+    private int size;
+    private byte maxKind;
+
+    public ArrayPackingVisitor(DataVisitor delegate) {
+        this.delegate = delegate;
+    }
+
+    private void add(byte kind, long value) {
+        if (size == values.length) {
+            kinds = Arrays.copyOf(kinds, size * 2);
+            values = Arrays.copyOf(values, size * 2);
+        }
+        kinds[size] = kind;
+        values[size++] = value;
+        if (kind > maxKind) maxKind = kind;
+    }
+
+    /**
+     * Sends buffered elements as list events, list stays open
+     */
+    private void flush() {
+        if (!buffering) return;
+        buffering = false;
+        delegate.beginList(size);
+        for (int i = 0; i < size; i++) {
+            var v = values[i];
+            switch (kinds[i]) {
+                case BYTE -> delegate.visitByte((byte) v);
+                case SHORT -> delegate.visitShort((short) v);
+                case INT -> delegate.visitInt((int) v);
+                case LONG -> delegate.visitLong(v);
+                case FLOAT -> delegate.visitFloat((float) Double.longBitsToDouble(v));
+                default -> delegate.visitDouble(Double.longBitsToDouble(v));
+            }
+        }
+    }
+
+    private boolean exactDoubles() {
+        for (int i = 0; i < size; i++) {
+            if (kinds[i] <= LONG && (long) (double) values[i] != values[i]) return false;
+        }
+        return true;
+    }
+
+    @Override
+    public void visitNull() {
+        flush();
+        delegate.visitNull();
+    }
+
+    @Override
+    public void visitString(String value) {
+        flush();
+        delegate.visitString(value);
+    }
+
+    @Override
+    public void visitBoolean(boolean value) {
+        flush();
+        delegate.visitBoolean(value);
+    }
+
+    @Override
+    public void visitByte(byte value) {
+        if (buffering) add(BYTE, value);
+        else delegate.visitByte(value);
+    }
+
+    @Override
+    public void visitShort(short value) {
+        if (buffering) add(SHORT, value);
+        else delegate.visitShort(value);
+    }
+
+    @Override
+    public void visitInt(int value) {
+        if (buffering) add(INT, value);
+        else delegate.visitInt(value);
+    }
+
+    @Override
+    public void visitLong(long value) {
+        if (buffering) add(LONG, value);
+        else delegate.visitLong(value);
+    }
+
+    @Override
+    public void visitFloat(float value) {
+        if (buffering) add(FLOAT, Double.doubleToRawLongBits(value));
+        else delegate.visitFloat(value);
+    }
+
+    @Override
+    public void visitDouble(double value) {
+        if (buffering) add(DOUBLE, Double.doubleToRawLongBits(value));
+        else delegate.visitDouble(value);
+    }
+
+    @Override
+    public void visitNumber(Number value) {
+        flush();
+        delegate.visitNumber(value);
+    }
+
+    @Override
+    public void beginMap(int sizeHint) {
+        flush();
+        delegate.beginMap(sizeHint);
+    }
+
+    @Override
+    public void visitKey(String key) {
+        delegate.visitKey(key);
+    }
+
+    @Override
+    public void endMap() {
+        delegate.endMap();
+    }
+
+    @Override
+    public void beginList(int sizeHint) {
+        flush();
+        buffering = true;
+        size = 0;
+        maxKind = BYTE;
+    }
+
+    @Override
+    public void endList() {
+        if (!buffering) {
+            delegate.endList();
+            return;
+        }
+        if (size == 0 || maxKind >= FLOAT && !exactDoubles()) {
+            // empty list has no element type
+            flush();
+            delegate.endList();
+            return;
+        }
+        buffering = false;
+        if (maxKind >= FLOAT) {
+            var ret = new double[size];
+            for (int i = 0; i < size; i++) {
+                ret[i] = kinds[i] <= LONG ? values[i] : Double.longBitsToDouble(values[i]);
+            }
+            delegate.visitDoubleArray(ret);
+        } else if (maxKind == LONG) {
+            delegate.visitLongArray(Arrays.copyOf(values, size));
+        } else {
+            var ret = new int[size];
+            for (int i = 0; i < size; i++) ret[i] = (int) values[i];
+            delegate.visitIntArray(ret);
+        }
+    }
+
+    @Override
+    public void visitBoolArray(boolean[] value) {
+        flush();
+        delegate.visitBoolArray(value);
+    }
+
+    @Override
+    public void visitByteArray(byte[] value) {
+        flush();
+        delegate.visitByteArray(value);
+    }
+
+    @Override
+    public void visitShortArray(short[] value) {
+        flush();
+        delegate.visitShortArray(value);
+    }
+
+    @Override
+    public void visitIntArray(int[] value) {
+        flush();
+        delegate.visitIntArray(value);
+    }
+
+    @Override
+    public void visitLongArray(long[] value) {
+        flush();
+        delegate.visitLongArray(value);
+    }
+
+    @Override
+    public void visitFloatArray(float[] value) {
+        flush();
+        delegate.visitFloatArray(value);
+    }
+
+    @Override
+    public void visitDoubleArray(double[] value) {
+        flush();
+        delegate.visitDoubleArray(value);
+    }
+}
@@ -0,0 +1,96 @@
+package xyz.bobkinn.indigodataio.ops;
+
+/**
+ * Receiver of push-based value events produced by {@link TypeOps#visit(Object, DataVisitor)}.<br>
+ * Map is sent as {@link #beginMap(int)}, then pairs of {@link #visitKey(String)} and value, then {@link #endMap()}.
+ * List is sent as {@link #beginList(int)}, values and {@link #endList()}.
+ * Primitive arrays are sent as list events unless visitor overrides array methods
+ * @since 3.1.0
+ */
+@SuppressWarnings("unused")
+public interface DataVisitor {
+
+    void visitNull();
+
+    void visitString(String value);
+
+    void visitBoolean(boolean value);
+
+    void visitByte(byte value);
+
+    void visitShort(short value);
+
+    void visitInt(int value);
+
+    void visitLong(long value);
+
+    void visitFloat(float value);
+
+    void visitDouble(double value);
+
+    /**
+     * Number that is not one of boxed primitive types, like BigDecimal
+     * @param value number
+     */
+    void visitNumber(Number value);
+
+    /**
+     * @param sizeHint count of entries or -1 if unknown
+     */
+    void beginMap(int sizeHint);
+
+    void visitKey(String key);
+
+    void endMap();
+
+    /**
+     * @param sizeHint count of elements or -1 if unknown
+     */
+    void beginList(int sizeHint);
+
+    void endList();
+
+    // primitive arrays
+
+    default void visitBoolArray(boolean[] value) {
+        beginList(value.length);
+        for (var v : value) visitBoolean(v);
+        endList();
+    }
+
+    default void visitByteArray(byte[] value) {
+        beginList(value.length);
+        for (var v : value) visitByte(v);
+        endList();
+    }
+
+    default void visitShortArray(short[] value) {
+        beginList(value.length);
+        for (var v : value) visitShort(v);
+        endList();
+    }
+
+    default void visitIntArray(int[] value) {
+        beginList(value.length);
+        for (var v : value) visitInt(v);
+        endList();
+    }
+
+    default void visitLongArray(long[] value) {
+        beginList(value.length);
+        for (var v : value) visitLong(v);
+        endList();
+    }
+
+    default void visitFloatArray(float[] value) {
+        beginList(value.length);
+        for (var v : value) visitFloat(v);
+        endList();
+    }
+
+    default void visitDoubleArray(double[] value) {
+        beginList(value.length);
+        for (var v : value) visitDouble(v);
+        endList();
+    }
+}
@@ -0,0 +1,52 @@
+package xyz.bobkinn.indigodataio.ops;
+
+import xyz.bobkinn.indigodataio.Pair;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Sink used when ops does not provide own one. Builds containers using
+ * {@link TypeOps#createMap(java.util.stream.Stream)} and {@link TypeOps#createList(java.util.stream.Stream)}
+ * @param <T> data type
+ */
+final class DefaultSink<T> extends StackSink<T> {
+
+    DefaultSink(TypeOps<T> ops) {
+        super(ops);
+    }
+
+    @Override
+    protected Object newMap(int sizeHint) {
+        return new ArrayList<Pair<T, T>>(Math.max(sizeHint, 0));
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    protected void putEntry(Object map, String key, T value) {
+        ((List<Pair<T, T>>) map).add(Pair.of(ops.createString(key), value));
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    protected T finishMap(Object map) {
+        return ops.createMap(((List<Pair<T, T>>) map).stream());
+    }
+
+    @Override
+    protected Object newList(int sizeHint) {
+        return new ArrayList<T>(Math.max(sizeHint, 0));
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    protected void addElement(Object list, T value) {
+        ((List<T>) list).add(value);
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    protected T finishList(Object list) {
+        return ops.createList(((List<T>) list).stream());
+    }
+}
@@ -1,6 +1,7 @@
 package xyz.bobkinn.indigodataio.ops;
 
 import org.jetbrains.annotations.Nullable;
+import xyz.bobkinn.indigodataio.NumberUtil;
 import xyz.bobkinn.indigodataio.Pair;
 
 import java.nio.*;
@@ -14,46 +15,198 @@ import java.util.stream.Stream;
 
 /**
  * Type operations used in {@link xyz.bobkinn.indigodataio.NestedKeyMap}. Converts arrays to lists
+ * unless created with native arrays mode
  */
 public class MapOps implements TypeOps<Object> {
     public static final MapOps INSTANCE = new MapOps();
+    /**
+     * Ops that store primitive arrays as-is instead of boxed lists
+     * @since 3.1.0
+     */
+    public static final MapOps NATIVE_ARRAYS = new MapOps(true);
+
+    private final boolean nativeArrays;
+
+    public MapOps() {
+        this(false);
+    }
+
+    /**
+     * @param nativeArrays if true, primitive arrays are stored without copying and boxing
+     */
+    protected MapOps(boolean nativeArrays) {
+        this.nativeArrays = nativeArrays;
+    }
+
+    /**
+     * @return true if primitive arrays are stored as-is
+     */
+    public boolean isNativeArrays() {
+        return nativeArrays;
+    }
 
     @Override
     public Object empty() {
         return null;
     }
 
+    /**
+     * Visits custom value type, usually by sending its parts to visitor.
+     * Nested values can be sent using {@link MapOps#visit(Object, DataVisitor)}
+     * @param <V> value type
+     * @see #register(Class, ValueVisitor)
+     * @since 3.1.0
+     */
+    @FunctionalInterface
+    public interface ValueVisitor<V> {
+        void visit(MapOps ops, V value, DataVisitor visitor);
+    }
+
+    /**
+     * Registers value type that can be converted by all MapOps instances.
+     * Registered types are checked before built-in types except {@link String}, {@link Integer} and {@link Double}.
+     * Values of subclasses are handled too
+     * @param type value class
+     * @param visitor visitor that converts value to events
+     * @param <V> value type
+     * @since 3.1.0
+     */
+    public static <V> void register(Class<V> type, ValueVisitor<? super V> visitor) {
+        MapOpsHandlers.register(type, visitor);
+    }
+
+    /**
+     * Removes visitors registered for exactly this type
+     * @param type value class
+     * @return true if type was registered
+     * @see #register(Class, ValueVisitor)
+     * @since 3.1.0
+     */
+    public static boolean unregister(Class<?> type) {
+        return MapOpsHandlers.unregister(type);
+    }
+
+    private static MapOpsHandlers.Handler handler(Object input) {
+        var h = MapOpsHandlers.get(input.getClass());
+        if (h == null) throw new IllegalStateException("Don't know how to convert " + input);
+        return h;
+    }
+
     @Override
+    @SuppressWarnings("unchecked")
     public <U> U convertTo(final TypeOps<U> outOps, final Object input) {
         if (input == null) return outOps.empty();
-        if (input instanceof Map) return convertMap(outOps, input);
-        if (input instanceof final byte[] value) return outOps.createByteArray(value);
-        if (input instanceof final short[] value) return outOps.createShortArray(value);
-        if (input instanceof final int[] value) return outOps.createIntArray(value);
-        if (input instanceof final long[] value) return outOps.createLongArray(value);
-        if (input instanceof final float[] value) return outOps.createFloatArray(value);
-        if (input instanceof final double[] value) return outOps.createDoubleArray(value);
-        if (input instanceof final Object[] value)
-            return outOps.createList(Arrays.stream(value).map(v -> convertTo(outOps, v)));
-        if (input instanceof ByteBuffer value) return outOps.createByteBuffer(value);
-        if (input instanceof ShortBuffer value) return outOps.createShortBuffer(value);
-        if (input instanceof IntStream value) return outOps.createIntStream(value);
-        if (input instanceof IntBuffer value) return outOps.createIntArray(value.array());
-        if (input instanceof LongStream value) return outOps.createLongStream(value);
-        if (input instanceof LongBuffer value) return outOps.createLongArray(value.array());
-        if (input instanceof FloatBuffer value) return outOps.createFloatBuffer(value);
-        if (input instanceof DoubleBuffer value) return outOps.createDoubleBuffer(value);
-        if (input instanceof List) return convertList(outOps, input);
-        if (input instanceof final String value) return outOps.createString(value);
-        if (input instanceof final Boolean value) return outOps.createBoolean(value);
-        if (input instanceof final Byte value) return outOps.createByte(value);
-        if (input instanceof final Short value) return outOps.createShort(value);
-        if (input instanceof final Integer value) return outOps.createInt(value);
-        if (input instanceof final Long value) return outOps.createLong(value);
-        if (input instanceof final Float value) return outOps.createFloat(value);
-        if (input instanceof final Double value) return outOps.createDouble(value);
-        if (input instanceof final Number value) return outOps.createNumeric(value);
-        throw new IllegalStateException("Don't know how to convert " + input);
+        // most common values
+        final Class<?> cls = input.getClass();
+        if (cls == Double.class) return outOps.createDouble((Double) input);
+        if (cls == Integer.class) return outOps.createInt((Integer) input);
+        if (cls == String.class) return outOps.createString((String) input);
+        return (U) handler(input).converter().convert(this, (TypeOps<Object>) outOps, input);
+    }
+
+    @Override
+    public void visit(Object input, DataVisitor visitor) {
+        if (input == null) {
+            visitor.visitNull();
+            return;
+        }
+        final Class<?> cls = input.getClass();
+        if (cls == Double.class) visitor.visitDouble((Double) input);
+        else if (cls == Integer.class) visitor.visitInt((Integer) input);
+        else if (cls == String.class) visitor.visitString((String) input);
+        else handler(input).visitor().visit(this, input, visitor);
+    }
+
+    @Override
+    public TypeSink<Object> sink() {
+        return nativeArrays ? new NativeMapSink(this) : new MapSink(this);
+    }
+
+    /**
+     * Builds mutable {@link HashMap} and {@link ArrayList} containers
+     */
+    private static class MapSink extends StackSink<Object> {
+
+        private MapSink(MapOps ops) {
+            super(ops);
+        }
+
+        @Override
+        protected Object newMap(int sizeHint) {
+            return sizeHint < 0 ? new HashMap<>() : new HashMap<>((int) (sizeHint / 0.75f) + 1);
+        }
+
+        @Override
+        @SuppressWarnings("unchecked")
+        protected void putEntry(Object map, String key, Object value) {
+            ((Map<String, Object>) map).put(key, value);
+        }
+
+        @Override
+        protected Object finishMap(Object map) {
+            return map;
+        }
+
+        @Override
+        protected Object newList(int sizeHint) {
+            return sizeHint < 0 ? new ArrayList<>() : new ArrayList<>(sizeHint);
+        }
+
+        @Override
+        @SuppressWarnings("unchecked")
+        protected void addElement(Object list, Object value) {
+            ((List<Object>) list).add(value);
+        }
+
+        @Override
+        protected Object finishList(Object list) {
+            return list;
+        }
+    }
+
+    /**
+     * Native arrays are stored as-is, so converted value must not share them with source
+     */
+    private static final class NativeMapSink extends MapSink {
+
+        private NativeMapSink(MapOps ops) {
+            super(ops);
+        }
+
+        @Override
+        public void visitBoolArray(boolean[] value) {
+            super.visitBoolArray(value.clone());
+        }
+
+        @Override
+        public void visitByteArray(byte[] value) {
+            super.visitByteArray(value.clone());
+        }
+
+        @Override
+        public void visitShortArray(short[] value) {
+            super.visitShortArray(value.clone());
+        }
+
+        @Override
+        public void visitIntArray(int[] value) {
+            super.visitIntArray(value.clone());
+        }
+
+        @Override
+        public void visitLongArray(long[] value) {
+            super.visitLongArray(value.clone());
+        }
+
+        @Override
+        public void visitFloatArray(float[] value) {
+            super.visitFloatArray(value.clone());
+        }
+
+        @Override
+        public void visitDoubleArray(double[] value) {
+            super.visitDoubleArray(value.clone());
+        }
     }
 
     @Override
@@ -62,6 +215,41 @@ public class MapOps implements TypeOps<Object> {
         else return Optional.empty();
     }
 
+    @Override
+    public Number getNumberValue(Object input, Number defaultValue) {
+        return input instanceof Number n ? n : defaultValue;
+    }
+
+    @Override
+    public byte getByte(Object input, byte defaultValue) {
+        return input instanceof Number n ? n.byteValue() : defaultValue;
+    }
+
+    @Override
+    public short getShort(Object input, short defaultValue) {
+        return input instanceof Number n ? n.shortValue() : defaultValue;
+    }
+
+    @Override
+    public int getInt(Object input, int defaultValue) {
+        return input instanceof Number n ? n.intValue() : defaultValue;
+    }
+
+    @Override
+    public long getLong(Object input, long defaultValue) {
+        return input instanceof Number n ? n.longValue() : defaultValue;
+    }
+
+    @Override
+    public float getFloat(Object input, float defaultValue) {
+        return input instanceof Number n ? n.floatValue() : defaultValue;
+    }
+
+    @Override
+    public double getDouble(Object input, double defaultValue) {
+        return input instanceof Number n ? n.doubleValue() : defaultValue;
+    }
+
     @Override
     public Object createNumeric(Number i) {
         return i;
@@ -122,40 +310,53 @@ public class MapOps implements TypeOps<Object> {
         }
     }
 
+    @Override
+    public boolean getBoolean(Object input, boolean defaultValue) {
+        return input instanceof Boolean b ? b : defaultValue;
+    }
+
     @Override
     public Optional<Object> mergeToList(Object input, Object value) {
         if (input == empty()) {
-            return Optional.of(List.of(value));
+            return Optional.of(PersistentList.empty().plus(value));
         }
         if (input instanceof final List<?> list) {
-            if (list.isEmpty()) {
-                return Optional.of(List.of(value));
-            }
-            List<Object> ls = new ArrayList<>(list);
-            ls.add(value);
-            return Optional.of(List.of(ls));
+            return Optional.of(PersistentList.<Object>copyOf(list).plus(value));
         }
         return Optional.empty();
     }
 
+    @Override
+    public Optional<Object> mergeToList(Object input, List<Object> values) {
+        if (input != empty() && !(input instanceof List<?>)) return Optional.empty();
+        var ret = input == empty() ? PersistentList.empty() : PersistentList.<Object>copyOf((List<?>) input);
+        for (var v : values) ret = ret.plus(v);
+        return Optional.of(ret);
+    }
+
     @Override
     public Optional<Object> mergeToMap(Object input, Object key, Object value) {
         if (input == empty()) {
-            return Optional.of(Map.of(key, value));
+            return Optional.of(PersistentMap.empty().plus(key, value));
         }
         if (input instanceof final Map<?, ?> map) {
-            if (map.isEmpty()) {
-                return Optional.of(Map.of(key, value));
-            }
-
-            final Map<Object, Object> result = new HashMap<>(map.size() + 1);
-            result.putAll(map);
-            result.put(key, value);
-            return Optional.of(Collections.unmodifiableMap(result));
+            return Optional.of(PersistentMap.<Object, Object>copyOf(map).plus(key, value));
         }
         return Optional.empty();
     }
 
+    @Override
+    public Optional<Object> mergeToMap(Object input, BaseMap<Object> values) {
+        if (input != empty() && !(input instanceof Map<?, ?>)) return Optional.empty();
+        var ret = input == empty() ? PersistentMap.empty() : PersistentMap.<Object, Object>copyOf((Map<?, ?>) input);
+        var it = values.entries().iterator();
+        while (it.hasNext()) {
+            var e = it.next();
+            ret = ret.plus(e.getFirst(), e.getSecond());
+        }
+        return Optional.of(ret);
+    }
+
     @Override
     public Optional<Stream<Pair<Object, Object>>> getMapValues(Object input) {
         if (input instanceof final Map<?, ?> map) {
@@ -219,9 +420,22 @@ public class MapOps implements TypeOps<Object> {
         if (input instanceof Collection<?> ls) {
             return Optional.of(ls.stream().map(o -> o));
         }
+        var ls = primitiveAsList(input);
+        if (ls != null) return Optional.of(ls.stream().map(o -> o));
         return Optional.empty();
     }
 
+    private static List<?> primitiveAsList(Object input) {
+        if (input instanceof final byte[] value) return NumberUtil.byteAsList(value);
+        if (input instanceof final short[] value) return NumberUtil.shortAsList(value);
+        if (input instanceof final int[] value) return NumberUtil.intAsList(value);
+        if (input instanceof final long[] value) return NumberUtil.longAsList(value);
+        if (input instanceof final float[] value) return NumberUtil.floatAsList(value);
+        if (input instanceof final double[] value) return NumberUtil.doubleAsList(value);
+        if (input instanceof final boolean[] value) return NumberUtil.boolAsList(value);
+        return null;
+    }
+
     @Override
     public Object createList(Stream<?> input) {
         return input.toList();
@@ -232,12 +446,187 @@ public class MapOps implements TypeOps<Object> {
         return createList(Arrays.stream(input));
     }
 
+    @Override
+    public int getSize(Object input) {
+        if (input instanceof Map<?, ?> map) return map.size();
+        if (input instanceof Collection<?> c) return c.size();
+        var ls = primitiveAsList(input);
+        return ls != null ? ls.size() : -1;
+    }
+
+    // primitive arrays. Stored arrays are returned without copying, lists are views of them
+
+    @Override
+    public Optional<boolean[]> getBoolArray(Object input) {
+        if (input instanceof final boolean[] value) return Optional.of(value);
+        return TypeOps.super.getBoolArray(input);
+    }
+
+    @Override
+    public Optional<List<Boolean>> getBoolList(Object input) {
+        if (input instanceof final boolean[] value) return Optional.of(NumberUtil.boolAsList(value));
+        return TypeOps.super.getBoolList(input);
+    }
+
+    @Override
+    public Object createBoolArray(boolean[] input) {
+        if (nativeArrays) return input;
+        return TypeOps.super.createBoolArray(input);
+    }
+
+    @Override
+    public Optional<byte[]> getByteArray(Object input) {
+        if (input instanceof final byte[] value) return Optional.of(value);
+        return TypeOps.super.getByteArray(input);
+    }
+
+    @Override
+    public Optional<List<Byte>> getByteList(Object input) {
+        if (input instanceof final byte[] value) return Optional.of(NumberUtil.byteAsList(value));
+        return TypeOps.super.getByteList(input);
+    }
+
+    @Override
+    public Object createByteArray(byte[] input) {
+        if (nativeArrays) return input;
+        return TypeOps.super.createByteArray(input);
+    }
+
+    @Override
+    public Optional<short[]> getShortArray(Object input) {
+        if (input instanceof final short[] value) return Optional.of(value);
+        return TypeOps.super.getShortArray(input);
+    }
+
+    @Override
+    public Optional<List<Short>> getShortList(Object input) {
+        if (input instanceof final short[] value) return Optional.of(NumberUtil.shortAsList(value));
+        return TypeOps.super.getShortList(input);
+    }
+
+    @Override
+    public Object createShortArray(short[] input) {
+        if (nativeArrays) return input;
+        return TypeOps.super.createShortArray(input);
+    }
+
+    @Override
+    public Optional<int[]> getIntArray(Object input) {
+        if (input instanceof final int[] value) return Optional.of(value);
+        return TypeOps.super.getIntArray(input);
+    }
+
+    @Override
+    public Optional<List<Integer>> getIntList(Object input) {
+        if (input instanceof final int[] value) return Optional.of(NumberUtil.intAsList(value));
+        return TypeOps.super.getIntList(input);
+    }
+
+    @Override
+    public Object createIntArray(int[] input) {
+        if (nativeArrays) return input;
+        return TypeOps.super.createIntArray(input);
+    }
+
+    @Override
+    public Optional<long[]> getLongArray(Object input) {
+        if (input instanceof final long[] value) return Optional.of(value);
+        return TypeOps.super.getLongArray(input);
+    }
+
+    @Override
+    public Optional<List<Long>> getLongList(Object input) {
+        if (input instanceof final long[] value) return Optional.of(NumberUtil.longAsList(value));
+        return TypeOps.super.getLongList(input);
+    }
+
+    @Override
+    public Object createLongArray(long[] input) {
+        if (nativeArrays) return input;
+        return TypeOps.super.createLongArray(input);
+    }
+
+    @Override
+    public Optional<float[]> getFloatArray(Object input) {
+        if (input instanceof final float[] value) return Optional.of(value);
+        return TypeOps.super.getFloatArray(input);
+    }
+
+    @Override
+    public Optional<List<Float>> getFloatList(Object input) {
+        if (input instanceof final float[] value) return Optional.of(NumberUtil.floatAsList(value));
+        return TypeOps.super.getFloatList(input);
+    }
+
+    @Override
+    public Object createFloatArray(float[] input) {
+        if (nativeArrays) return input;
+        return TypeOps.super.createFloatArray(input);
+    }
+
+    @Override
+    public Optional<double[]> getDoubleArray(Object input) {
+        if (input instanceof final double[] value) return Optional.of(value);
+        return TypeOps.super.getDoubleArray(input);
+    }
+
+    @Override
+    public Optional<List<Double>> getDoubleList(Object input) {
+        if (input instanceof final double[] value) return Optional.of(NumberUtil.doubleAsList(value));
+        return TypeOps.super.getDoubleList(input);
+    }
+
+    @Override
+    public Object createDoubleArray(double[] input) {
+        if (nativeArrays) return input;
+        return TypeOps.super.createDoubleArray(input);
+    }
+
+    @Override
+    public Optional<FloatBuffer> getFloatBuffer(Object input) {
+        if (input instanceof final float[] value) return Optional.of(FloatBuffer.wrap(value));
+        return TypeOps.super.getFloatBuffer(input);
+    }
+
+    @Override
+    public Optional<DoubleBuffer> getDoubleBuffer(Object input) {
+        if (input instanceof final double[] value) return Optional.of(DoubleBuffer.wrap(value));
+        return TypeOps.super.getDoubleBuffer(input);
+    }
+
+    @Override
+    public Object createIntStream(IntStream input) {
+        if (nativeArrays) return input.toArray();
+        return TypeOps.super.createIntStream(input);
+    }
+
+    @Override
+    public Object createLongStream(LongStream input) {
+        if (nativeArrays) return input.toArray();
+        return TypeOps.super.createLongStream(input);
+    }
+
+    @Override
+    public Object createByteBuffer(ByteBuffer input) {
+        if (!nativeArrays) return TypeOps.super.createByteBuffer(input);
+        var ret = new byte[input.capacity()];
+        input.get(0, ret);
+        return ret;
+    }
+
+    @Override
+    public Object createShortBuffer(ShortBuffer input) {
+        if (!nativeArrays) return TypeOps.super.createShortBuffer(input);
+        var ret = new short[input.capacity()];
+        input.get(0, ret);
+        return ret;
+    }
+
     @Override
     public Object remove(Object input, String key) {
         if (input instanceof final Map<?, ?> map) {
-            final Map<Object, Object> result = new LinkedHashMap<>(map);
-            result.remove(key);
-            return Map.copyOf(result);
+            if (!map.containsKey(key)) return input;
+            return PersistentMap.<Object, Object>copyOf(map).minus(key);
         }
         return input;
     }
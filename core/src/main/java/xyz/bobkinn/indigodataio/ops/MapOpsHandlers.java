@@ -0,0 +1,147 @@
+package xyz.bobkinn.indigodataio.ops;
+
+import java.nio.*;
+import java.util.*;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.stream.IntStream;
+import java.util.stream.LongStream;
+
+/**
+ * Per-class dispatch table used by {@link MapOps#convertTo(TypeOps, Object)} and {@link MapOps#visit(Object, DataVisitor)}.
+ * Handler for class is resolved once and cached using {@link ClassValue}
+ */
+final class MapOpsHandlers {
+
+    @FunctionalInterface
+    interface Converter {
+        Object convert(MapOps ops, TypeOps<Object> outOps, Object input);
+    }
+
+    record Handler(Converter converter, MapOps.ValueVisitor<Object> visitor) {
+    }
+
+    private record Registered(Class<?> type, Handler handler) {
+    }
+
+    private static final Map<Class<?>, Handler> EXACT = new HashMap<>();
+    /**
+     * Checked in order when class has no exact handler
+     */
+    private static final Map<Class<?>, Handler> HIERARCHY = new LinkedHashMap<>();
+    private static final List<Registered> REGISTERED = new CopyOnWriteArrayList<>();
+    private static volatile ClassValue<Handler> handlers = newClassValue();
+
+    private MapOpsHandlers() {
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <V> void exact(Class<V> type, Converter converter, MapOps.ValueVisitor<V> visitor) {
+        EXACT.put(type, new Handler(converter, (MapOps.ValueVisitor<Object>) visitor));
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <V> void hierarchy(Class<V> type, Converter converter, MapOps.ValueVisitor<V> visitor) {
+        HIERARCHY.put(type, new Handler(converter, (MapOps.ValueVisitor<Object>) visitor));
+    }
+
+    static {
+        exact(String.class, (ops, out, in) -> out.createString((String) in), (ops, v, vis) -> vis.visitString(v));
+        exact(Boolean.class, (ops, out, in) -> out.createBoolean((Boolean) in), (ops, v, vis) -> vis.visitBoolean(v));
+        exact(Byte.class, (ops, out, in) -> out.createByte((Byte) in), (ops, v, vis) -> vis.visitByte(v));
+        exact(Short.class, (ops, out, in) -> out.createShort((Short) in), (ops, v, vis) -> vis.visitShort(v));
+        exact(Integer.class, (ops, out, in) -> out.createInt((Integer) in), (ops, v, vis) -> vis.visitInt(v));
+        exact(Long.class, (ops, out, in) -> out.createLong((Long) in), (ops, v, vis) -> vis.visitLong(v));
+        exact(Float.class, (ops, out, in) -> out.createFloat((Float) in), (ops, v, vis) -> vis.visitFloat(v));
+        exact(Double.class, (ops, out, in) -> out.createDouble((Double) in), (ops, v, vis) -> vis.visitDouble(v));
+        exact(byte[].class, (ops, out, in) -> out.createByteArray((byte[]) in), (ops, v, vis) -> vis.visitByteArray(v));
+        exact(short[].class, (ops, out, in) -> out.createShortArray((short[]) in), (ops, v, vis) -> vis.visitShortArray(v));
+        exact(int[].class, (ops, out, in) -> out.createIntArray((int[]) in), (ops, v, vis) -> vis.visitIntArray(v));
+        exact(long[].class, (ops, out, in) -> out.createLongArray((long[]) in), (ops, v, vis) -> vis.visitLongArray(v));
+        exact(float[].class, (ops, out, in) -> out.createFloatArray((float[]) in), (ops, v, vis) -> vis.visitFloatArray(v));
+        exact(double[].class, (ops, out, in) -> out.createDoubleArray((double[]) in), (ops, v, vis) -> vis.visitDoubleArray(v));
+        exact(boolean[].class, (ops, out, in) -> out.createBoolArray((boolean[]) in), (ops, v, vis) -> vis.visitBoolArray(v));
+
+        hierarchy(Map.class, MapOps::convertMap, (ops, v, vis) -> {
+            vis.beginMap(v.size());
+            for (var e : ((Map<?, ?>) v).entrySet()) {
+                vis.visitKey(String.valueOf(e.getKey()));
+                ops.visit(e.getValue(), vis);
+            }
+            vis.endMap();
+        });
+        hierarchy(Object[].class, (ops, out, in) -> out.createList(Arrays.stream((Object[]) in).map(v -> ops.convertTo(out, v))),
+                (ops, v, vis) -> {
+                    vis.beginList(v.length);
+                    for (var e : v) ops.visit(e, vis);
+                    vis.endList();
+                });
+        hierarchy(ByteBuffer.class, (ops, out, in) -> out.createByteBuffer((ByteBuffer) in), (ops, v, vis) -> {
+            var a = new byte[v.capacity()];
+            v.get(0, a);
+            vis.visitByteArray(a);
+        });
+        hierarchy(ShortBuffer.class, (ops, out, in) -> out.createShortBuffer((ShortBuffer) in), (ops, v, vis) -> {
+            var a = new short[v.capacity()];
+            v.get(0, a);
+            vis.visitShortArray(a);
+        });
+        hierarchy(IntStream.class, (ops, out, in) -> out.createIntStream((IntStream) in), (ops, v, vis) -> vis.visitIntArray(v.toArray()));
+        hierarchy(IntBuffer.class, (ops, out, in) -> out.createIntArray(((IntBuffer) in).array()), (ops, v, vis) -> vis.visitIntArray(v.array()));
+        hierarchy(LongStream.class, (ops, out, in) -> out.createLongStream((LongStream) in), (ops, v, vis) -> vis.visitLongArray(v.toArray()));
+        hierarchy(LongBuffer.class, (ops, out, in) -> out.createLongArray(((LongBuffer) in).array()), (ops, v, vis) -> vis.visitLongArray(v.array()));
+        hierarchy(FloatBuffer.class, (ops, out, in) -> out.createFloatBuffer((FloatBuffer) in), (ops, v, vis) -> vis.visitFloatArray(v.array()));
+        hierarchy(DoubleBuffer.class, (ops, out, in) -> out.createDoubleBuffer((DoubleBuffer) in), (ops, v, vis) -> vis.visitDoubleArray(v.array()));
+        hierarchy(List.class, MapOps::convertList, (ops, v, vis) -> {
+            vis.beginList(v.size());
+            for (var e : v) ops.visit(e, vis);
+            vis.endList();
+        });
+        hierarchy(Number.class, (ops, out, in) -> out.createNumeric((Number) in), (ops, v, vis) -> TypeOps.visitNumber(v, vis));
+    }
+
+    private static ClassValue<Handler> newClassValue() {
+        return new ClassValue<>() {
+            @Override
+            protected Handler computeValue(Class<?> type) {
+                return find(type);
+            }
+        };
+    }
+
+    private static Handler find(Class<?> type) {
+        for (var r : REGISTERED) {
+            if (r.type == type) return r.handler;
+        }
+        for (var r : REGISTERED) {
+            if (r.type.isAssignableFrom(type)) return r.handler;
+        }
+        var h = EXACT.get(type);
+        if (h != null) return h;
+        for (var e : HIERARCHY.entrySet()) {
+            if (e.getKey().isAssignableFrom(type)) return e.getValue();
+        }
+        return null;
+    }
+
+    /**
+     * @param type class of value
+     * @return handler or null if type is unknown
+     */
+    static Handler get(Class<?> type) {
+        return handlers.get(type);
+    }
+
+    @SuppressWarnings("unchecked")
+    static <V> void register(Class<V> type, MapOps.ValueVisitor<? super V> visitor) {
+        var v = (MapOps.ValueVisitor<Object>) visitor;
+        REGISTERED.add(new Registered(type, new Handler((ops, out, in) -> ops.transfer(out, in), v)));
+        // drop cached handlers so subclasses of type are resolved again
+        handlers = newClassValue();
+    }
+
+    static boolean unregister(Class<?> type) {
+        if (!REGISTERED.removeIf(r -> r.type == type)) return false;
+        handlers = newClassValue();
+        return true;
+    }
+}
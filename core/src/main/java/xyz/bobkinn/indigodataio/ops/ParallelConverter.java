@@ -0,0 +1,256 @@
+package xyz.bobkinn.indigodataio.ops;
+
+import xyz.bobkinn.indigodataio.DataHolder;
+import xyz.bobkinn.indigodataio.Pair;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.RecursiveTask;
+
+/**
+ * Opt-in parallel variant of {@link TypeOps#transfer(TypeOps, Object)} and {@link DataHolder#convertTo(DataHolder)}.<br>
+ * Maps and lists on first {@link #getMaxDepth() levels} that have at least {@link #getThreshold() threshold}
+ * entries are converted in {@link ForkJoinPool} tasks, big lists are split into chunks.
+ * Smaller values are converted sequentially, result is equal to sequential conversion.
+ * Input must not be modified while conversion is running
+ * @since 3.1.0
+ */
+@SuppressWarnings("unused")
+public final class ParallelConverter {
+    public static final int DEFAULT_THRESHOLD = 1024;
+    public static final int DEFAULT_MAX_DEPTH = 2;
+
+    private final ForkJoinPool pool;
+    private final int threshold;
+    private final int maxDepth;
+
+    /**
+     * @param pool pool used to run tasks
+     * @param threshold min count of entries or elements in value to convert it in separate task
+     * @param maxDepth count of levels from top where values can be split
+     */
+    public ParallelConverter(ForkJoinPool pool, int threshold, int maxDepth) {
+        if (threshold < 1) throw new IllegalArgumentException("Threshold must be positive");
+        this.pool = pool;
+        this.threshold = threshold;
+        this.maxDepth = maxDepth;
+    }
+
+    public ParallelConverter(ForkJoinPool pool, int threshold) {
+        this(pool, threshold, DEFAULT_MAX_DEPTH);
+    }
+
+    public ParallelConverter() {
+        this(ForkJoinPool.commonPool(), DEFAULT_THRESHOLD);
+    }
+
+    public ForkJoinPool getPool() {
+        return pool;
+    }
+
+    public int getThreshold() {
+        return threshold;
+    }
+
+    public int getMaxDepth() {
+        return maxDepth;
+    }
+
+    /**
+     * Converts value to other ops
+     * @param inOps ops of input
+     * @param outOps other ops
+     * @param input value
+     * @return converted value
+     */
+    public <T, U> U convert(TypeOps<T> inOps, TypeOps<U> outOps, T input) {
+        if (inOps.getSize(input) < threshold) return inOps.transfer(outOps, input);
+        return pool.invoke(new ValueTask<>(inOps, outOps, false, input, 0));
+    }
+
+    /**
+     * Parallel variant of {@link DataHolder#convertTo(DataHolder)}
+     * @param from source holder
+     * @param to other instance of DataHolder
+     * @return to with values of from
+     */
+    public <T extends DataHolder<T, P>, P, TO extends DataHolder<TO, TP>, TP> TO convertTo(T from, TO to) {
+        return convertTo(from, to, false);
+    }
+
+    /**
+     * @param copy if true, values are copied using {@link TypeOps#copy(Object)} of same ops
+     */
+    private <T extends DataHolder<T, P>, P, TO extends DataHolder<TO, TP>, TP> TO convertTo(T from, TO to, boolean copy) {
+        var inOps = from.getOps();
+        var outOps = to.getOps();
+        var keys = new ArrayList<>(from.keys());
+        var values = new ArrayList<P>(keys.size());
+        var tasks = new ArrayList<ValueTask<P, TP>>(keys.size());
+        var forked = new ArrayList<ValueTask<P, TP>>();
+        for (var key : keys) {
+            var v = from.get(key);
+            values.add(v);
+            var task = inOps.getSize(v) >= threshold ? new ValueTask<>(inOps, outOps, copy, v, 1) : null;
+            if (task != null) forked.add(task);
+            tasks.add(task);
+        }
+        if (!forked.isEmpty()) pool.invoke(new InvokeAll(forked));
+        for (int i = 0; i < keys.size(); i++) {
+            var task = tasks.get(i);
+            var ov = task != null ? task.join() : convertValue(inOps, outOps, copy, values.get(i));
+            to.putValue(keys.get(i), ov);
+        }
+        return to;
+    }
+
+    /**
+     * Parallel variant of {@link DataHolder#copy()}, values are copied by {@link TypeOps#copy(Object)} of holder ops.
+     * If new holder has other ops, values are converted
+     * @param holder holder to copy
+     * @return deep copy of holder
+     */
+    public <T extends DataHolder<T, P>, P> T copy(T holder) {
+        var to = holder.getNew();
+        return convertTo(holder, to, to.getOps() == holder.getOps());
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <T, U> U convertValue(TypeOps<T> inOps, TypeOps<U> outOps, boolean copy, T value) {
+        return copy ? (U) inOps.copy(value) : inOps.transfer(outOps, value);
+    }
+
+    /**
+     * Sends value to sink, copied values are sent as is
+     */
+    private static <T, U> void visit(TypeOps<T> inOps, TypeOps<U> outOps, boolean copy, T value, TypeSink<U> sink) {
+        if (copy) sink.visitValue(convertValue(inOps, outOps, true, value));
+        else inOps.visit(value, sink);
+    }
+
+    @SuppressWarnings("serial")
+    private static final class InvokeAll extends RecursiveTask<Void> {
+        private final List<? extends ForkJoinTask<?>> tasks;
+
+        private InvokeAll(List<? extends ForkJoinTask<?>> tasks) {
+            this.tasks = tasks;
+        }
+
+        @Override
+        protected Void compute() {
+            invokeAll(tasks);
+            return null;
+        }
+    }
+
+    @SuppressWarnings("serial")
+    private final class ValueTask<T, U> extends RecursiveTask<U> {
+        private final TypeOps<T> inOps;
+        private final TypeOps<U> outOps;
+        private final boolean copy;
+        private final T input;
+        private final int depth;
+
+        private ValueTask(TypeOps<T> inOps, TypeOps<U> outOps, boolean copy, T input, int depth) {
+            this.inOps = inOps;
+            this.outOps = outOps;
+            this.copy = copy;
+            this.input = input;
+            this.depth = depth;
+        }
+
+        @Override
+        protected U compute() {
+            if (depth >= maxDepth) return convertValue(inOps, outOps, copy, input);
+            var entries = inOps.getMapValues(input);
+            if (entries.isPresent()) return computeMap(entries.get().toList());
+            // primitive arrays are flat and visited as single array event
+            if (input != null && input.getClass().isArray() && input.getClass().getComponentType().isPrimitive()) {
+                return convertValue(inOps, outOps, copy, input);
+            }
+            var elements = inOps.getStream(input);
+            if (elements.isPresent()) return computeList(elements.get().toList());
+            return convertValue(inOps, outOps, copy, input);
+        }
+
+        private ValueTask<T, U> child(T value) {
+            return inOps.getSize(value) >= threshold ? new ValueTask<>(inOps, outOps, copy, value, depth + 1) : null;
+        }
+
+        private U computeMap(List<Pair<T, T>> entries) {
+            var tasks = new ArrayList<ValueTask<T, U>>(entries.size());
+            for (var e : entries) {
+                var task = child(e.getSecond());
+                if (task != null) task.fork();
+                tasks.add(task);
+            }
+            var sink = outOps.sink();
+            sink.beginMap(entries.size());
+            for (int i = 0; i < entries.size(); i++) {
+                var e = entries.get(i);
+                var key = e.getFirst();
+                sink.visitKey(inOps.getString(key).orElseThrow(() -> new IllegalStateException("Map key is not string: " + key)));
+                var task = tasks.get(i);
+                if (task != null) sink.visitValue(task.join());
+                else visit(inOps, outOps, copy, e.getSecond(), sink);
+            }
+            sink.endMap();
+            return sink.result();
+        }
+
+        private U computeList(List<T> elements) {
+            var sink = outOps.sink();
+            sink.beginList(elements.size());
+            if (elements.size() >= threshold * 2) {
+                // big list, convert chunks of elements
+                var chunks = new ArrayList<ChunkTask<T, U>>();
+                for (int from = 0; from < elements.size(); from += threshold) {
+                    var chunk = new ChunkTask<>(inOps, outOps, copy, elements.subList(from, Math.min(from + threshold, elements.size())));
+                    chunk.fork();
+                    chunks.add(chunk);
+                }
+                for (var chunk : chunks) {
+                    for (var v : chunk.join()) sink.visitValue(v);
+                }
+            } else {
+                var tasks = new ArrayList<ValueTask<T, U>>(elements.size());
+                for (var e : elements) {
+                    var task = child(e);
+                    if (task != null) task.fork();
+                    tasks.add(task);
+                }
+                for (int i = 0; i < elements.size(); i++) {
+                    var task = tasks.get(i);
+                    if (task != null) sink.visitValue(task.join());
+                    else visit(inOps, outOps, copy, elements.get(i), sink);
+                }
+            }
+            sink.endList();
+            return sink.result();
+        }
+    }
+
+    @SuppressWarnings("serial")
+    private static final class ChunkTask<T, U> extends RecursiveTask<List<U>> {
+        private final TypeOps<T> inOps;
+        private final TypeOps<U> outOps;
+        private final boolean copy;
+        private final List<T> elements;
+
+        private ChunkTask(TypeOps<T> inOps, TypeOps<U> outOps, boolean copy, List<T> elements) {
+            this.inOps = inOps;
+            this.outOps = outOps;
+            this.copy = copy;
+            this.elements = elements;
+        }
+
+        @Override
+        protected List<U> compute() {
+            var ret = new ArrayList<U>(elements.size());
+            for (var e : elements) ret.add(convertValue(inOps, outOps, copy, e));
+            return ret;
+        }
+    }
+}
@@ -0,0 +1,175 @@
+package xyz.bobkinn.indigodataio.ops;
+
+import java.util.*;
+
+/**
+ * Immutable bit-partitioned vector trie with 32-element nodes and separate tail.
+ * {@link #plus(Object)} and {@link #with(int, Object)} return new list sharing unchanged nodes with this one,
+ * so each update is O(log n). Used by {@link MapOps} functional operations
+ * @param <E> element type
+ * @since 3.1.0
+ */
+final class PersistentList<E> extends AbstractList<E> implements RandomAccess {
+    private static final int BITS = 5;
+    private static final int WIDTH = 1 << BITS;
+    private static final int MASK = WIDTH - 1;
+    private static final Object[] EMPTY_NODE = new Object[WIDTH];
+    private static final PersistentList<?> EMPTY = new PersistentList<>(0, BITS, EMPTY_NODE, new Object[0]);
+
+    private final int size;
+    private final int shift;
+    private final Object[] root;
+    /**
+     * Last 1..32 elements, empty only in empty list
+     */
+    private final Object[] tail;
+
+    private PersistentList(int size, int shift, Object[] root, Object[] tail) {
+        this.size = size;
+        this.shift = shift;
+        this.root = root;
+        this.tail = tail;
+    }
+
+    @SuppressWarnings("unchecked")
+    static <E> PersistentList<E> empty() {
+        return (PersistentList<E>) EMPTY;
+    }
+
+    @SuppressWarnings("unchecked")
+    static <E> PersistentList<E> copyOf(Collection<? extends E> list) {
+        if (list instanceof PersistentList<?> pl) return (PersistentList<E>) pl;
+        PersistentList<E> ret = empty();
+        var chunk = new Object[WIDTH];
+        int n = 0;
+        for (var e : list) {
+            if (n == WIDTH) {
+                ret = ret.plusChunk(chunk);
+                chunk = new Object[WIDTH];
+                n = 0;
+            }
+            chunk[n++] = e;
+        }
+        return n == 0 ? ret : ret.plusChunk(n == WIDTH ? chunk : Arrays.copyOf(chunk, n));
+    }
+
+    private int tailOffset() {
+        return size < WIDTH ? 0 : ((size - 1) >>> BITS) << BITS;
+    }
+
+    private Object[] leafFor(int index) {
+        if (index >= tailOffset()) return tail;
+        var node = root;
+        for (int level = shift; level > 0; level -= BITS) {
+            node = (Object[]) node[(index >>> level) & MASK];
+        }
+        return node;
+    }
+
+    @SuppressWarnings("unchecked")
+    @Override
+    public E get(int index) {
+        Objects.checkIndex(index, size);
+        return (E) leafFor(index)[index & MASK];
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    /**
+     * @return list with value appended
+     */
+    PersistentList<E> plus(E value) {
+        if (tail.length < WIDTH) {
+            var newTail = Arrays.copyOf(tail, tail.length + 1);
+            newTail[tail.length] = value;
+            return new PersistentList<>(size + 1, shift, root, newTail);
+        }
+        return plusChunk(new Object[]{value});
+    }
+
+    /**
+     * Moves full tail into trie and sets chunk as new tail
+     */
+    private PersistentList<E> plusChunk(Object[] chunk) {
+        if (size == 0) return new PersistentList<>(chunk.length, shift, root, chunk);
+        Object[] newRoot;
+        int newShift = shift;
+        if ((size >>> BITS) > (1 << shift)) {
+            // root is full, add level
+            newRoot = new Object[WIDTH];
+            newRoot[0] = root;
+            newRoot[1] = newPath(shift, tail);
+            newShift += BITS;
+        } else {
+            newRoot = pushTail(shift, root);
+        }
+        return new PersistentList<>(size + chunk.length, newShift, newRoot, chunk);
+    }
+
+    private Object[] pushTail(int level, Object[] parent) {
+        int i = ((size - 1) >>> level) & MASK;
+        var ret = parent.clone();
+        if (level == BITS) {
+            ret[i] = tail;
+        } else {
+            var child = (Object[]) parent[i];
+            ret[i] = child != null ? pushTail(level - BITS, child) : newPath(level - BITS, tail);
+        }
+        return ret;
+    }
+
+    private static Object[] newPath(int level, Object[] node) {
+        if (level == 0) return node;
+        var ret = new Object[WIDTH];
+        ret[0] = newPath(level - BITS, node);
+        return ret;
+    }
+
+    /**
+     * @return list with element at index replaced
+     */
+    PersistentList<E> with(int index, E value) {
+        Objects.checkIndex(index, size);
+        if (index >= tailOffset()) {
+            var newTail = tail.clone();
+            newTail[index & MASK] = value;
+            return new PersistentList<>(size, shift, root, newTail);
+        }
+        return new PersistentList<>(size, shift, with(shift, root, index, value), tail);
+    }
+
+    private static Object[] with(int level, Object[] node, int index, Object value) {
+        var ret = node.clone();
+        if (level == 0) {
+            ret[index & MASK] = value;
+        } else {
+            int i = (index >>> level) & MASK;
+            ret[i] = with(level - BITS, (Object[]) node[i], index, value);
+        }
+        return ret;
+    }
+
+    @Override
+    public Iterator<E> iterator() {
+        return new Iterator<>() {
+            private int index;
+            private Object[] leaf;
+
+            @Override
+            public boolean hasNext() {
+                return index < size;
+            }
+
+            @SuppressWarnings("unchecked")
+            @Override
+            public E next() {
+                if (index >= size) throw new NoSuchElementException();
+                if ((index & MASK) == 0 || leaf == null) leaf = leafFor(index);
+                return (E) leaf[index++ & MASK];
+            }
+        };
+    }
+}
@@ -0,0 +1,315 @@
+package xyz.bobkinn.indigodataio.ops;
+
+import java.util.*;
+import java.util.function.BiConsumer;
+
+/**
+ * Immutable hash array mapped trie. {@link #plus(Object, Object)} and {@link #minus(Object)}
+ * return new map sharing unchanged nodes with this one, so each update is O(log n).
+ * Used by {@link MapOps} functional operations
+ * @param <K> key type
+ * @param <V> value type
+ * @since 3.1.0
+ */
+final class PersistentMap<K, V> extends AbstractMap<K, V> {
+    private static final PersistentMap<?, ?> EMPTY = new PersistentMap<>(null, 0);
+    private static final Object NOT_FOUND = new Object();
+
+    private final Node root;
+    private final int size;
+
+    private PersistentMap(Node root, int size) {
+        this.root = root;
+        this.size = size;
+    }
+
+    @SuppressWarnings("unchecked")
+    static <K, V> PersistentMap<K, V> empty() {
+        return (PersistentMap<K, V>) EMPTY;
+    }
+
+    @SuppressWarnings("unchecked")
+    static <K, V> PersistentMap<K, V> copyOf(Map<? extends K, ? extends V> map) {
+        if (map instanceof PersistentMap<?, ?> pm) return (PersistentMap<K, V>) pm;
+        PersistentMap<K, V> ret = empty();
+        for (var e : map.entrySet()) ret = ret.plus(e.getKey(), e.getValue());
+        return ret;
+    }
+
+    private static int hash(Object key) {
+        int h = Objects.hashCode(key);
+        return h ^ (h >>> 16);
+    }
+
+    /**
+     * @return map with key set to value
+     */
+    PersistentMap<K, V> plus(K key, V value) {
+        var added = new boolean[1];
+        int h = hash(key);
+        Node ret = root == null ? BitmapNode.EMPTY.put(0, h, key, value, added) : root.put(0, h, key, value, added);
+        if (ret == root) return this;
+        return new PersistentMap<>(ret, added[0] ? size + 1 : size);
+    }
+
+    /**
+     * @return map without key
+     */
+    PersistentMap<K, V> minus(Object key) {
+        if (root == null) return this;
+        Node ret = root.remove(0, hash(key), key);
+        if (ret == root) return this;
+        return ret == null ? empty() : new PersistentMap<>(ret, size - 1);
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    @SuppressWarnings("unchecked")
+    @Override
+    public V get(Object key) {
+        if (root == null) return null;
+        var v = root.find(0, hash(key), key);
+        return v == NOT_FOUND ? null : (V) v;
+    }
+
+    @SuppressWarnings("unchecked")
+    @Override
+    public V getOrDefault(Object key, V defaultValue) {
+        if (root == null) return defaultValue;
+        var v = root.find(0, hash(key), key);
+        return v == NOT_FOUND ? defaultValue : (V) v;
+    }
+
+    @Override
+    public boolean containsKey(Object key) {
+        return root != null && root.find(0, hash(key), key) != NOT_FOUND;
+    }
+
+    @SuppressWarnings("unchecked")
+    @Override
+    public void forEach(BiConsumer<? super K, ? super V> action) {
+        if (root != null) forEach(root.array(), (BiConsumer<Object, Object>) action);
+    }
+
+    private static void forEach(Object[] array, BiConsumer<Object, Object> action) {
+        for (int i = 0; i < array.length; i += 2) {
+            if (array[i] instanceof Node n) forEach(n.array(), action);
+            else action.accept(array[i], array[i + 1]);
+        }
+    }
+
+    @Override
+    public Set<Entry<K, V>> entrySet() {
+        return new AbstractSet<>() {
+            @Override
+            public Iterator<Entry<K, V>> iterator() {
+                return new EntryIterator<>(root);
+            }
+
+            @Override
+            public int size() {
+                return size;
+            }
+        };
+    }
+
+    /**
+     * Node array holds pairs of key and value. Key slot holding {@link Node} is a sub-node,
+     * nodes are never used as keys so keys can be any objects including null
+     */
+    private interface Node {
+        Object[] array();
+
+        Object find(int shift, int hash, Object key);
+
+        Node put(int shift, int hash, Object key, Object value, boolean[] added);
+
+        /**
+         * @return this if key is not present, null if node became empty
+         */
+        Node remove(int shift, int hash, Object key);
+    }
+
+    private static Object[] cloneAndSet(Object[] array, int i, Object value) {
+        var ret = array.clone();
+        ret[i] = value;
+        return ret;
+    }
+
+    private static Object[] insertPair(Object[] array, int i, Object key, Object value) {
+        var ret = new Object[array.length + 2];
+        System.arraycopy(array, 0, ret, 0, i);
+        ret[i] = key;
+        ret[i + 1] = value;
+        System.arraycopy(array, i, ret, i + 2, array.length - i);
+        return ret;
+    }
+
+    private static Object[] removePair(Object[] array, int i) {
+        var ret = new Object[array.length - 2];
+        System.arraycopy(array, 0, ret, 0, i);
+        System.arraycopy(array, i + 2, ret, i, array.length - i - 2);
+        return ret;
+    }
+
+    private static int bit(int hash, int shift) {
+        return 1 << ((hash >>> shift) & 31);
+    }
+
+    private static Node pair(int shift, int h1, Object k1, Object v1, int h2, Object k2, Object v2) {
+        if (h1 == h2) return new CollisionNode(h1, new Object[]{k1, v1, k2, v2});
+        int b1 = bit(h1, shift);
+        int b2 = bit(h2, shift);
+        if (b1 == b2) return new BitmapNode(b1, new Object[]{pair(shift + 5, h1, k1, v1, h2, k2, v2), null});
+        // unsigned, bit 31 is negative
+        return Integer.compareUnsigned(b1, b2) < 0
+                ? new BitmapNode(b1 | b2, new Object[]{k1, v1, k2, v2})
+                : new BitmapNode(b1 | b2, new Object[]{k2, v2, k1, v1});
+    }
+
+    private record BitmapNode(int bitmap, Object[] array) implements Node {
+        static final BitmapNode EMPTY = new BitmapNode(0, new Object[0]);
+
+        private int index(int bit) {
+            return 2 * Integer.bitCount(bitmap & (bit - 1));
+        }
+
+        @Override
+        public Object find(int shift, int hash, Object key) {
+            int bit = bit(hash, shift);
+            if ((bitmap & bit) == 0) return NOT_FOUND;
+            int i = index(bit);
+            var k = array[i];
+            if (k instanceof Node n) return n.find(shift + 5, hash, key);
+            return Objects.equals(k, key) ? array[i + 1] : NOT_FOUND;
+        }
+
+        @Override
+        public Node put(int shift, int hash, Object key, Object value, boolean[] added) {
+            int bit = bit(hash, shift);
+            int i = index(bit);
+            if ((bitmap & bit) == 0) {
+                added[0] = true;
+                return new BitmapNode(bitmap | bit, insertPair(array, i, key, value));
+            }
+            var k = array[i];
+            if (k instanceof Node n) {
+                var ret = n.put(shift + 5, hash, key, value, added);
+                return ret == n ? this : new BitmapNode(bitmap, cloneAndSet(array, i, ret));
+            }
+            if (Objects.equals(k, key)) {
+                return array[i + 1] == value ? this : new BitmapNode(bitmap, cloneAndSet(array, i + 1, value));
+            }
+            added[0] = true;
+            var ret = array.clone();
+            ret[i] = pair(shift + 5, hash(k), k, array[i + 1], hash, key, value);
+            ret[i + 1] = null;
+            return new BitmapNode(bitmap, ret);
+        }
+
+        @Override
+        public Node remove(int shift, int hash, Object key) {
+            int bit = bit(hash, shift);
+            if ((bitmap & bit) == 0) return this;
+            int i = index(bit);
+            var k = array[i];
+            if (k instanceof Node n) {
+                var ret = n.remove(shift + 5, hash, key);
+                if (ret == n) return this;
+                if (ret != null) return new BitmapNode(bitmap, cloneAndSet(array, i, ret));
+            } else if (!Objects.equals(k, key)) {
+                return this;
+            }
+            if (bitmap == bit) return null;
+            return new BitmapNode(bitmap ^ bit, removePair(array, i));
+        }
+    }
+
+    private record CollisionNode(int hash, Object[] array) implements Node {
+
+        private int indexOf(Object key) {
+            for (int i = 0; i < array.length; i += 2) {
+                if (Objects.equals(array[i], key)) return i;
+            }
+            return -1;
+        }
+
+        @Override
+        public Object find(int shift, int hash, Object key) {
+            if (hash != this.hash) return NOT_FOUND;
+            int i = indexOf(key);
+            return i < 0 ? NOT_FOUND : array[i + 1];
+        }
+
+        @Override
+        public Node put(int shift, int hash, Object key, Object value, boolean[] added) {
+            if (hash != this.hash) {
+                // nest this node under bitmap node of current level
+                return new BitmapNode(bit(this.hash, shift), new Object[]{this, null})
+                        .put(shift, hash, key, value, added);
+            }
+            int i = indexOf(key);
+            if (i >= 0) {
+                return array[i + 1] == value ? this : new CollisionNode(hash, cloneAndSet(array, i + 1, value));
+            }
+            added[0] = true;
+            return new CollisionNode(hash, insertPair(array, array.length, key, value));
+        }
+
+        @Override
+        public Node remove(int shift, int hash, Object key) {
+            if (hash != this.hash) return this;
+            int i = indexOf(key);
+            if (i < 0) return this;
+            if (array.length == 2) return null;
+            return new CollisionNode(hash, removePair(array, i));
+        }
+    }
+
+    private static final class EntryIterator<K, V> implements Iterator<Entry<K, V>> {
+        // 7 bitmap levels for 32-bit hash and collision node
+        private final Object[][] arrays = new Object[9][];
+        private final int[] indexes = new int[9];
+        private int depth = -1;
+
+        private EntryIterator(Node root) {
+            if (root != null) push(root.array());
+        }
+
+        private void push(Object[] array) {
+            depth++;
+            arrays[depth] = array;
+            indexes[depth] = 0;
+        }
+
+        @Override
+        public boolean hasNext() {
+            while (depth >= 0) {
+                var array = arrays[depth];
+                int i = indexes[depth];
+                if (i >= array.length) {
+                    arrays[depth--] = null;
+                } else if (array[i] instanceof Node n) {
+                    indexes[depth] = i + 2;
+                    push(n.array());
+                } else {
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        @SuppressWarnings("unchecked")
+        @Override
+        public Entry<K, V> next() {
+            if (!hasNext()) throw new NoSuchElementException();
+            var array = arrays[depth];
+            int i = indexes[depth];
+            indexes[depth] = i + 2;
+            return new SimpleImmutableEntry<>((K) array[i], (V) array[i + 1]);
+        }
+    }
+}
@@ -0,0 +1,213 @@
+package xyz.bobkinn.indigodataio.ops;
+
+import java.util.Arrays;
+
+/**
+ * Base for sinks that build nested containers on a stack.
+ * Scalars and primitive arrays are created using ops, containers are created by subclass
+ * @param <T> data type
+ * @since 3.1.0
+ */
+public abstract class StackSink<T> implements TypeSink<T> {
+    protected final TypeOps<T> ops;
+    // allocated on first container, so sinks of single values stay cheap
+    private Object[] containers;
+    private boolean[] maps;
+    private String[] keys;
+    private int depth;
+    private T result;
+    private boolean done;
+
+    protected StackSink(TypeOps<T> ops) {
+        this.ops = ops;
+    }
+
+    /**
+     * @param sizeHint count of entries or -1
+     * @return new mutable map container
+     */
+    protected abstract Object newMap(int sizeHint);
+
+    protected abstract void putEntry(Object map, String key, T value);
+
+    protected abstract T finishMap(Object map);
+
+    /**
+     * @param sizeHint count of elements or -1
+     * @return new mutable list container
+     */
+    protected abstract Object newList(int sizeHint);
+
+    protected abstract void addElement(Object list, T value);
+
+    protected abstract T finishList(Object list);
+
+    /**
+     * Adds completed value to current container or sets it as result
+     * @param value value
+     */
+    protected void value(T value) {
+        if (depth == 0) {
+            if (done) throw new IllegalStateException("Sink already has value");
+            result = value;
+            done = true;
+            return;
+        }
+        int i = depth - 1;
+        if (maps[i]) {
+            var key = keys[i];
+            if (key == null) throw new IllegalStateException("Value without key in map");
+            keys[i] = null;
+            putEntry(containers[i], key, value);
+        } else {
+            addElement(containers[i], value);
+        }
+    }
+
+    private void push(Object container, boolean map) {
+        if (containers == null) {
+            containers = new Object[8];
+            maps = new boolean[8];
+            keys = new String[8];
+        } else if (depth == containers.length) {
+            containers = Arrays.copyOf(containers, depth * 2);
+            maps = Arrays.copyOf(maps, depth * 2);
+            keys = Arrays.copyOf(keys, depth * 2);
+        }
+        containers[depth] = container;
+        maps[depth] = map;
+        depth++;
+    }
+
+    private Object pop(boolean map) {
+        if (depth == 0 || maps[depth - 1] != map) {
+            throw new IllegalStateException("Unexpected end of " + (map ? "map" : "list"));
+        }
+        depth--;
+        var c = containers[depth];
+        containers[depth] = null;
+        return c;
+    }
+
+    @Override
+    public T result() {
+        if (!done || depth != 0) throw new IllegalStateException("Value is not complete");
+        return result;
+    }
+
+    @Override
+    public void visitValue(T value) {
+        value(value);
+    }
+
+    @Override
+    public void visitNull() {
+        value(ops.empty());
+    }
+
+    @Override
+    public void visitString(String value) {
+        value(ops.createString(value));
+    }
+
+    @Override
+    public void visitBoolean(boolean value) {
+        value(ops.createBoolean(value));
+    }
+
+    @Override
+    public void visitByte(byte value) {
+        value(ops.createByte(value));
+    }
+
+    @Override
+    public void visitShort(short value) {
+        value(ops.createShort(value));
+    }
+
+    @Override
+    public void visitInt(int value) {
+        value(ops.createInt(value));
+    }
+
+    @Override
+    public void visitLong(long value) {
+        value(ops.createLong(value));
+    }
+
+    @Override
+    public void visitFloat(float value) {
+        value(ops.createFloat(value));
+    }
+
+    @Override
+    public void visitDouble(double value) {
+        value(ops.createDouble(value));
+    }
+
+    @Override
+    public void visitNumber(Number value) {
+        value(ops.createNumeric(value));
+    }
+
+    @Override
+    public void beginMap(int sizeHint) {
+        push(newMap(sizeHint), true);
+    }
+
+    @Override
+    public void visitKey(String key) {
+        if (depth == 0 || !maps[depth - 1]) throw new IllegalStateException("Key outside of map");
+        keys[depth - 1] = key;
+    }
+
+    @Override
+    public void endMap() {
+        value(finishMap(pop(true)));
+    }
+
+    @Override
+    public void beginList(int sizeHint) {
+        push(newList(sizeHint), false);
+    }
+
+    @Override
+    public void endList() {
+        value(finishList(pop(false)));
+    }
+
+    @Override
+    public void visitBoolArray(boolean[] value) {
+        value(ops.createBoolArray(value));
+    }
+
+    @Override
+    public void visitByteArray(byte[] value) {
+        value(ops.createByteArray(value));
+    }
+
+    @Override
+    public void visitShortArray(short[] value) {
+        value(ops.createShortArray(value));
+    }
+
+    @Override
+    public void visitIntArray(int[] value) {
+        value(ops.createIntArray(value));
+    }
+
+    @Override
+    public void visitLongArray(long[] value) {
+        value(ops.createLongArray(value));
+    }
+
+    @Override
+    public void visitFloatArray(float[] value) {
+        value(ops.createFloatArray(value));
+    }
+
+    @Override
+    public void visitDoubleArray(double[] value) {
+        value(ops.createDoubleArray(value));
+    }
+}
@@ -50,6 +50,17 @@ public interface TypeOps<T> {
         return getNumberValue(input).map(Number::byteValue);
     }
 
+    /**
+     * Primitive variant of {@link #getByte(Object)} that does not allocate {@link Optional}
+     * @param input value
+     * @param defaultValue value returned when input is not a number
+     * @return number value or default
+     */
+    default byte getByte(T input, byte defaultValue) {
+        final Number n = getNumberValue(input, null);
+        return n != null ? n.byteValue() : defaultValue;
+    }
+
     // short
 
     default T createShort(final short value) {
@@ -60,6 +71,17 @@ public interface TypeOps<T> {
         return getNumberValue(input).map(Number::shortValue);
     }
 
+    /**
+     * Primitive variant of {@link #getShort(Object)} that does not allocate {@link Optional}
+     * @param input value
+     * @param defaultValue value returned when input is not a number
+     * @return number value or default
+     */
+    default short getShort(T input, short defaultValue) {
+        final Number n = getNumberValue(input, null);
+        return n != null ? n.shortValue() : defaultValue;
+    }
+
     // int
 
     default T createInt(final int value) {
@@ -70,6 +92,17 @@ public interface TypeOps<T> {
         return getNumberValue(input).map(Number::intValue);
     }
 
+    /**
+     * Primitive variant of {@link #getInt(Object)} that does not allocate {@link Optional}
+     * @param input value
+     * @param defaultValue value returned when input is not a number
+     * @return number value or default
+     */
+    default int getInt(T input, int defaultValue) {
+        final Number n = getNumberValue(input, null);
+        return n != null ? n.intValue() : defaultValue;
+    }
+
     // long
 
     default T createLong(final long value) {
@@ -80,6 +113,17 @@ public interface TypeOps<T> {
         return getNumberValue(input).map(Number::longValue);
     }
 
+    /**
+     * Primitive variant of {@link #getLong(Object)} that does not allocate {@link Optional}
+     * @param input value
+     * @param defaultValue value returned when input is not a number
+     * @return number value or default
+     */
+    default long getLong(T input, long defaultValue) {
+        final Number n = getNumberValue(input, null);
+        return n != null ? n.longValue() : defaultValue;
+    }
+
     // float
 
     default T createFloat(final float value) {
@@ -90,6 +134,17 @@ public interface TypeOps<T> {
         return getNumberValue(input).map(Number::floatValue);
     }
 
+    /**
+     * Primitive variant of {@link #getFloat(Object)} that does not allocate {@link Optional}
+     * @param input value
+     * @param defaultValue value returned when input is not a number
+     * @return number value or default
+     */
+    default float getFloat(T input, float defaultValue) {
+        final Number n = getNumberValue(input, null);
+        return n != null ? n.floatValue() : defaultValue;
+    }
+
     // double
 
     default T createDouble(final double value) {
@@ -100,6 +155,17 @@ public interface TypeOps<T> {
         return getNumberValue(input).map(Number::doubleValue);
     }
 
+    /**
+     * Primitive variant of {@link #getDouble(Object)} that does not allocate {@link Optional}
+     * @param input value
+     * @param defaultValue value returned when input is not a number
+     * @return number value or default
+     */
+    default double getDouble(T input, double defaultValue) {
+        final Number n = getNumberValue(input, null);
+        return n != null ? n.doubleValue() : defaultValue;
+    }
+
     // boolean
 
     default T createBoolean(final boolean value) {
@@ -110,6 +176,17 @@ public interface TypeOps<T> {
         return getNumberValue(input).map(number -> number.byteValue() != 0);
     }
 
+    /**
+     * Primitive variant of {@link #getBoolean(Object)} that does not allocate {@link Optional}
+     * @param input value
+     * @param defaultValue value returned when input is not a boolean
+     * @return boolean value or default
+     */
+    default boolean getBoolean(final T input, final boolean defaultValue) {
+        final Number n = getNumberValue(input, null);
+        return n != null ? n.byteValue() != 0 : defaultValue;
+    }
+
     // end
 
     Optional<String> getString(T input);
@@ -180,6 +257,17 @@ public interface TypeOps<T> {
 
     T createArray(T[] input);
 
+    /**
+     * @param input value
+     * @return count of entries in map or elements in list, -1 if input is not a map or list
+     * @since 3.1.0
+     */
+    default int getSize(final T input) {
+        final Optional<Stream<Pair<T, T>>> entries = getMapValues(input);
+        if (entries.isPresent()) return (int) entries.get().count();
+        return getStream(input).map(s -> (int) s.count()).orElse(-1);
+    }
+
     static <A> Collector<A, ?, ArrayList<A>> toArrayList(){
         return Collectors.toCollection(ArrayList::new);
     }
@@ -479,12 +567,114 @@ public interface TypeOps<T> {
     }
 
     default <U> U convertList(final TypeOps<U> outOps, final T input) {
-        return outOps.createList(getStream(input).orElse(Stream.empty()).map(e -> convertTo(outOps, e)));
+        if (getStream(input).isEmpty()) return outOps.emptyList();
+        return transfer(outOps, input);
     }
 
     default <U> U convertMap(final TypeOps<U> outOps, final T input) {
-        return outOps.createMap(getMapValues(input).orElse(Stream.empty()).map(e ->
-                Pair.of(convertTo(outOps, e.getFirst()), convertTo(outOps, e.getSecond()))
-        ));
+        if (getMapValues(input).isEmpty()) return outOps.emptyMap();
+        return transfer(outOps, input);
+    }
+
+    // push-based conversion
+
+    /**
+     * Converts value to other ops in single traversal by pushing events of input to sink of other ops
+     * @param outOps other ops
+     * @param input value
+     * @return converted value
+     * @param <U> other data type
+     * @since 3.1.0
+     */
+    default <U> U transfer(final TypeOps<U> outOps, final T input) {
+        final TypeSink<U> sink = outOps.sink();
+        visit(input, sink);
+        return sink.result();
+    }
+
+    /**
+     * Creates deep copy of value, by default transfers it to this ops.
+     * Ops that change values on conversion, like narrowing numbers, should copy them as is
+     * @param input value
+     * @return copy of value
+     * @since 3.1.0
+     */
+    default T copy(final T input) {
+        return transfer(this, input);
+    }
+
+    /**
+     * Creates sink that builds value of this ops from events
+     * @return new sink
+     * @since 3.1.0
+     */
+    default TypeSink<T> sink() {
+        return new DefaultSink<>(this);
+    }
+
+    /**
+     * Pushes input as events to visitor
+     * @param input value
+     * @param visitor visitor
+     * @throws IllegalStateException if input type is unknown
+     * @since 3.1.0
+     */
+    default void visit(final T input, final DataVisitor visitor) {
+        if (input == null || Objects.equals(input, empty())) {
+            visitor.visitNull();
+            return;
+        }
+        final Optional<Stream<Pair<T, T>>> entries = getMapValues(input);
+        if (entries.isPresent()) {
+            final List<Pair<T, T>> list = entries.get().toList();
+            visitor.beginMap(list.size());
+            for (final Pair<T, T> p : list) {
+                visitor.visitKey(getString(p.getFirst()).orElseThrow(() ->
+                        new IllegalStateException("Map key is not string: " + p.getFirst())));
+                visit(p.getSecond(), visitor);
+            }
+            visitor.endMap();
+            return;
+        }
+        final Optional<Stream<T>> elements = getStream(input);
+        if (elements.isPresent()) {
+            final List<T> list = elements.get().toList();
+            visitor.beginList(list.size());
+            for (final T e : list) visit(e, visitor);
+            visitor.endList();
+            return;
+        }
+        final Optional<String> str = getString(input);
+        if (str.isPresent()) {
+            visitor.visitString(str.get());
+            return;
+        }
+        final Number number = getNumberValue(input, null);
+        if (number != null) {
+            visitNumber(number, visitor);
+            return;
+        }
+        final Optional<Boolean> bool = getBoolean(input);
+        if (bool.isPresent()) {
+            visitor.visitBoolean(bool.get());
+            return;
+        }
+        throw new IllegalStateException("Don't know how to visit " + input);
+    }
+
+    /**
+     * Sends number to visitor using method of its boxed type
+     * @param value number
+     * @param visitor visitor
+     * @since 3.1.0
+     */
+    static void visitNumber(final Number value, final DataVisitor visitor) {
+        if (value instanceof final Integer v) visitor.visitInt(v);
+        else if (value instanceof final Double v) visitor.visitDouble(v);
+        else if (value instanceof final Long v) visitor.visitLong(v);
+        else if (value instanceof final Float v) visitor.visitFloat(v);
+        else if (value instanceof final Byte v) visitor.visitByte(v);
+        else if (value instanceof final Short v) visitor.visitShort(v);
+        else visitor.visitNumber(value);
     }
 }
@@ -0,0 +1,22 @@
+package xyz.bobkinn.indigodataio.ops;
+
+/**
+ * Visitor that builds one value from received events
+ * @param <T> data type
+ * @see TypeOps#sink()
+ * @since 3.1.0
+ */
+public interface TypeSink<T> extends DataVisitor {
+
+    /**
+     * Adds already built value, like value converted in other thread
+     * @param value value of this sink type
+     */
+    void visitValue(T value);
+
+    /**
+     * @return built value
+     * @throws IllegalStateException if value is not complete yet
+     */
+    T result();
+}
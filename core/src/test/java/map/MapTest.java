@@ -1,12 +1,22 @@
 package map;
 
 import org.junit.Test;
+import xyz.bobkinn.indigodataio.AbstractDataHolder;
+import xyz.bobkinn.indigodataio.ConcurrentNestedKeyMap;
+import xyz.bobkinn.indigodataio.DataPath;
+import xyz.bobkinn.indigodataio.DataPathCache;
 import xyz.bobkinn.indigodataio.NestedKeyMap;
+import xyz.bobkinn.indigodataio.TrackedNestedKeyMap;
+import xyz.bobkinn.indigodataio.ops.MapOps;
 
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
 
 public class MapTest {
 
@@ -90,4 +100,182 @@ public class MapTest {
         assert d == 4.0d;
         System.out.println("map = " + map);
     }
+
+    @Test
+    public void testDataPath(){
+        var map = new NestedKeyMap();
+        var path = DataPath.of("server.net.port");
+        map.putInt(path, 25565);
+        assert map.getInt("server.net.port") == 25565;
+        assert map.getInt(path) == 25565;
+        assert map.containsSection(DataPath.of("server.net"));
+        assert path.parent().equals(DataPath.of("server", "net"));
+        assert map.remove(path).equals(25565);
+        assert !map.contains(path);
+    }
+
+    @Test
+    public void testPathCache(){
+        var old = AbstractDataHolder.getPathCache();
+        var cache = new DataPathCache(16);
+        AbstractDataHolder.setPathCache(cache);
+        try {
+            var map = new NestedKeyMap();
+            map.putInt("server.net.port", 1);
+            for (int i = 0; i < 10; i++) map.getInt("server.net.port");
+            assert cache.getMisses() == 1;
+            assert cache.getHits() == 10;
+            assert cache.get("server.net.port") == cache.get("server.net.port");
+        } finally {
+            AbstractDataHolder.setPathCache(old);
+        }
+    }
+
+    @Test
+    public void testPrimitiveDefaults(){
+        var map = new NestedKeyMap();
+        map.putValue("i", 2);
+        map.putValue("s", "str");
+        map.putValue("b", true);
+        assert map.getInt("i", 5) == 2;
+        assert map.getInt("s", 5) == 5;
+        assert map.getLong("missing", 7L) == 7L;
+        assert map.getDouble("i", 0) == 2d;
+        assert map.getBoolean("b", false);
+        assert !map.getBoolean("i", false);
+    }
+
+    @Test
+    public void testNativeArrays(){
+        var map = NestedKeyMap.withNativeArrays();
+        var samples = new double[]{1.5, 2.5, 3.5};
+        map.putDoubleArray("t.samples", samples);
+        map.put("t.ids", new int[]{1, 2, 3});
+        assert map.getDoubleArray("t.samples") == samples;
+        assert map.getSection("t").getOps() == MapOps.NATIVE_ARRAYS;
+        var ids = map.getIntList("t.ids");
+        assert ids.get(2) == 3;
+        ids.set(2, 4);
+        assert map.getIntArray("t.ids")[2] == 4;
+        assert Arrays.equals(map.getLongArray("t.ids"), new long[]{1, 2, 4});
+        var converted = map.convertTo(new NestedKeyMap());
+        assert converted.getIntList("t.ids").equals(List.of(1, 2, 4));
+        var copy = map.copy();
+        assert copy.getDoubleArray("t.samples") != samples;
+        assert Arrays.equals(copy.getDoubleArray("t.samples"), samples);
+    }
+
+    private record Point(int x, int y) {}
+
+    @Test
+    public void testRegisteredType(){
+        MapOps.register(Point.class, (ops, p, v) -> {
+            v.beginMap(2);
+            v.visitKey("x");
+            v.visitInt(p.x());
+            v.visitKey("y");
+            v.visitInt(p.y());
+            v.endMap();
+        });
+        try {
+            var map = new NestedKeyMap();
+            map.put("p", new Point(1, 2));
+            assert map.getInt("p.y") == 2;
+            assert MapOps.INSTANCE.convertTo(MapOps.INSTANCE, List.of(new Point(3, 4))).equals(List.of(Map.of("x", 3, "y", 4)));
+        } finally {
+            MapOps.unregister(Point.class);
+        }
+        assert !MapOps.unregister(Point.class);
+        try {
+            MapOps.INSTANCE.convertTo(MapOps.INSTANCE, new Point(5, 6));
+            assert false;
+        } catch (IllegalStateException ignored) {
+        }
+    }
+
+    @Test
+    public void testPersistentMerge(){
+        var ops = MapOps.INSTANCE;
+        Object map = ops.emptyMap();
+        Object list = ops.empty();
+        var expectedList = new ArrayList<Object>();
+        for (int i = 0; i < 5000; i++) {
+            map = ops.mergeToMap(map, "k" + i, i).orElseThrow();
+            list = ops.mergeToList(list, i).orElseThrow();
+            expectedList.add(i);
+        }
+        assert ((Map<?, ?>) map).size() == 5000;
+        assert ops.get(map, "k4321").orElseThrow().equals(4321);
+        assert list.equals(expectedList);
+
+        var changed = ops.update(ops.set(map, "k0", -1), "k1", v -> ops.createInt(-2));
+        var removed = ops.remove(changed, "k2");
+        assert ((Map<?, ?>) map).get("k0").equals(0);
+        assert ((Map<?, ?>) changed).get("k0").equals(-1) && ((Map<?, ?>) changed).get("k1").equals(-2);
+        assert ((Map<?, ?>) removed).size() == 4999 && !((Map<?, ?>) removed).containsKey("k2");
+        assert ((Map<?, ?>) changed).containsKey("k2");
+        var copy = new HashMap<>((Map<?, ?>) removed);
+        assert copy.equals(removed) && removed.equals(copy);
+
+        assert ops.mergeToList(List.of(1), 2).orElseThrow().equals(List.of(1, 2));
+        // "Aa" and "BB" have same hash
+        var collided = ops.mergeToMap(Map.of("Aa", 1), "BB", 2).orElseThrow();
+        assert collided.equals(Map.of("Aa", 1, "BB", 2));
+        assert ops.remove(collided, "Aa").equals(Map.of("BB", 2));
+    }
+
+    @Test
+    public void testDirtyTracking(){
+        var map = new TrackedNestedKeyMap();
+        var tracker = map.getTracker();
+        assert !tracker.isDirty();
+        map.putInt("a.b", 1);
+        assert tracker.isDirty();
+        tracker.markSaved(tracker.getVersion());
+        map.remove("missing");
+        map.getInt("a.b");
+        assert !tracker.isDirty();
+        map.getSection("a").putInt("c", 2);
+        assert tracker.isDirty() && map.getInt("a.c") == 2;
+    }
+
+    @Test
+    public void testConcurrentMap() throws Exception {
+        var map = new ConcurrentNestedKeyMap();
+        int threads = 8, iterations = 2000;
+        var pool = Executors.newFixedThreadPool(threads);
+        var tasks = new ArrayList<Callable<Void>>();
+        for (int t = 0; t < threads; t++) {
+            int id = t;
+            tasks.add(() -> {
+                for (int i = 0; i < iterations; i++) {
+                    // all threads create same intermediate sections
+                    map.putInt("shared.s" + (i % 10) + ".t" + id + "_" + i, i);
+                    map.computeValue("counter.value", v -> v == null ? 1 : (int) v + 1);
+                    map.putInt("tmp" + id + ".a.b", i);
+                    map.remove("tmp" + id + ".a");
+                }
+                return null;
+            });
+        }
+        for (var f : pool.invokeAll(tasks)) f.get();
+        pool.shutdown();
+        assert map.getInt("counter.value") == threads * iterations;
+        int count = 0;
+        var shared = map.getSection("shared");
+        for (var k : shared.keys()) count += shared.getSection(k).size();
+        assert count == threads * iterations;
+        assert map.getSection("tmp0").keys().isEmpty();
+
+        map.putMap("m", new HashMap<>(Map.of("k", 1)));
+        assert map.getMap("m") instanceof ConcurrentHashMap;
+        map.putValue("m.k", null);
+        assert !map.contains("m.k");
+        var section = map.getSection("m");
+        assert map.putValueIfAbsent("m", 5) == map.getMap("m") && map.getSection("m").getRaw() == section.getRaw();
+        section.putInt("x", 3);
+        assert map.getInt("m.x") == 3;
+        map.clear();
+        assert map.isEmpty();
+    }
 }
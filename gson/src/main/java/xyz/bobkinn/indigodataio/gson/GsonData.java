@@ -6,6 +6,7 @@ import lombok.RequiredArgsConstructor;
 import org.jetbrains.annotations.Contract;
 import org.jetbrains.annotations.NotNull;
 import xyz.bobkinn.indigodataio.AbstractDataHolder;
+import xyz.bobkinn.indigodataio.DataPath;
 import xyz.bobkinn.indigodataio.MapBuilder;
 import xyz.bobkinn.indigodataio.ops.TypeOps;
 
@@ -30,6 +31,15 @@ public class GsonData extends AbstractDataHolder<GsonData, JsonElement, JsonObje
         return new GsonData();
     }
 
+    /**
+     * Copies json tree, so number values are kept as is
+     * @since 3.1.0
+     */
+    @Override
+    public GsonData copy() {
+        return new GsonData(getRaw().deepCopy());
+    }
+
     @Override
     public JsonObject getNewRaw() {
         return new JsonObject();
@@ -80,26 +90,20 @@ public class GsonData extends AbstractDataHolder<GsonData, JsonElement, JsonObje
         return data;
     }
 
-    @Contract("_, true -> !null")
-    protected JsonObject resolveMap(@NotNull String key, boolean create) {
+    @Contract("_, _, true -> !null")
+    protected JsonObject resolveMap(@NotNull DataPath path, int length, boolean create) {
         var ret = data;
-        for (String k : key.split("\\.")) {
+        for (int i = 0; i < length; i++) {
+            var k = path.get(i);
             if (k.isEmpty()) return ret;
-            if (ret == null) return null;
-            JsonElement o;
-            if (ret.has(k)) {
-                o = ret.get(k);
-            } else if (create) {
+            var o = ret.get(k);
+            if (o == null) {
+                if (!create) return null;
                 o = getNewRaw();
                 ret.add(k, o);
-            } else {
-                return null;
-            }
-            try {
-                ret = o.getAsJsonObject();
-            } catch (IllegalStateException e) {
-                return null;
             }
+            if (!(o instanceof JsonObject obj)) return null;
+            ret = obj;
         }
         return ret;
     }
@@ -108,22 +112,36 @@ public class GsonData extends AbstractDataHolder<GsonData, JsonElement, JsonObje
         if (key.isEmpty()) throw new IllegalArgumentException("Empty key '"+key+"'");
     }
 
+    private static void checkEmptyKey(DataPath key){
+        if (key.isEmpty()) throw new IllegalArgumentException("Empty key '"+key+"'");
+    }
+
     @Override
     public JsonElement remove(String key) {
         checkEmptyKey(key);
-        var p = extractMapKey(key);
-        var map = resolveMap(p.getLeft(), false);
+        return remove(path(key));
+    }
+
+    @Override
+    public JsonElement remove(DataPath key) {
+        checkEmptyKey(key);
+        var map = resolveParent(key, false);
         if (map == null) return null;
-        return map.remove(p.getRight());
+        return map.remove(key.last());
     }
 
     @Override
     public boolean contains(String key) {
         checkEmptyKey(key);
-        var p = extractMapKey(key);
-        var map = resolveMap(p.getLeft(), false);
+        return contains(path(key));
+    }
+
+    @Override
+    public boolean contains(DataPath key) {
+        checkEmptyKey(key);
+        var map = resolveParent(key, false);
         if (map == null) return false;
-        return map.has(p.getRight());
+        return map.has(key.last());
     }
 
     @Override
@@ -144,8 +162,12 @@ public class GsonData extends AbstractDataHolder<GsonData, JsonElement, JsonObje
 
     @Override
     public Set<String> keys(String key) {
-        var p = extractMapKey(key);
-        var map = resolveMap(p.getLeft(), false);
+        return keys(path(key));
+    }
+
+    @Override
+    public Set<String> keys(DataPath key) {
+        var map = resolveParent(key, false);
         if (map == null) return Set.of();
         return map.keySet();
     }
@@ -162,20 +184,24 @@ public class GsonData extends AbstractDataHolder<GsonData, JsonElement, JsonObje
 
     @Override
     public JsonElement get(String key, JsonElement def) {
-        var p = extractMapKey(key);
-        var map = resolveMap(p.getLeft(), false);
+        return get(path(key), def);
+    }
+
+    @Override
+    public JsonElement get(DataPath key, JsonElement def) {
+        var map = resolveParent(key, false);
         if (map == null) return null;
-        var v = map.get(p.getRight());
+        var v = map.get(key.last());
         if (v instanceof JsonNull || v == null) return null;
         else return v;
     }
 
     public <A extends JsonElement> A getType(String key, Class<A> cls) {
-        var p = extractMapKey(key);
-        var map = resolveMap(p.getLeft(), false);
-        if (map == null) return null;
-        var v = map.get(p.getRight());
-        if (v instanceof JsonNull || v == null) return null;
+        return getType(path(key), cls);
+    }
+
+    public <A extends JsonElement> A getType(DataPath key, Class<A> cls) {
+        var v = get(key, null);
         if (cls.isInstance(v)) return cls.cast(v);
         else return null;
     }
@@ -229,10 +255,21 @@ public class GsonData extends AbstractDataHolder<GsonData, JsonElement, JsonObje
 
     @Override
     public JsonElement putValue(String key, JsonElement value) {
-        var p = extractMapKey(key);
-        var map = resolveMap(p.getLeft(), true);
-        var old = map.remove(p.getRight());
-        map.add(p.getRight(), value != null ? value : JsonNull.INSTANCE);
+        return putValue(path(key), value);
+    }
+
+    @Override
+    public JsonElement putValue(DataPath key, JsonElement value) {
+        var map = resolveParent(key, true);
+        var old = map.remove(key.last());
+        map.add(key.last(), value != null ? value : JsonNull.INSTANCE);
+        return old instanceof JsonNull || old == null ? null : old;
+    }
+
+    @Override
+    public JsonElement putRaw(@NotNull String key, JsonElement value) {
+        var old = data.remove(key);
+        data.add(key, value != null ? value : JsonNull.INSTANCE);
         return old instanceof JsonNull || old == null ? null : old;
     }
 
@@ -245,6 +282,10 @@ public class GsonData extends AbstractDataHolder<GsonData, JsonElement, JsonObje
     }
 
     public JsonObject getObject(String key, JsonObject def){
+        return getObject(path(key), def);
+    }
+
+    public JsonObject getObject(DataPath key, JsonObject def){
         var v = get(key);
         if (v == null) return def;
         return v.isJsonObject() ? v.getAsJsonObject() : def;
@@ -252,6 +293,11 @@ public class GsonData extends AbstractDataHolder<GsonData, JsonElement, JsonObje
 
     @Override
     public GsonData getSection(String key, GsonData def) {
+        return getSection(path(key), def);
+    }
+
+    @Override
+    public GsonData getSection(DataPath key, GsonData def) {
         var d = getObject(key, null);
         if (d == null) return def;
         return new GsonData(d);
@@ -276,6 +322,11 @@ public class GsonData extends AbstractDataHolder<GsonData, JsonElement, JsonObje
         return putValue(key, value.data);
     }
 
+    @Override
+    public JsonElement putSection(DataPath key, GsonData value) {
+        return putValue(key, value.data);
+    }
+
     @Override
     public JsonElement putSectionList(String key, List<GsonData> value) {
         return putValue(key, mapArray(value, GsonData::getRaw));
@@ -283,6 +334,11 @@ public class GsonData extends AbstractDataHolder<GsonData, JsonElement, JsonObje
 
     @Override
     public Map<String, JsonElement> getMap(String key, Map<String, JsonElement> def) {
+        return getMap(path(key), def);
+    }
+
+    @Override
+    public Map<String, JsonElement> getMap(DataPath key, Map<String, JsonElement> def) {
         var o = getObject(key, null);
         if (o == null) return def;
         return o.asMap();
@@ -309,6 +365,11 @@ public class GsonData extends AbstractDataHolder<GsonData, JsonElement, JsonObje
         return putValue(key, mapAsObject(value));
     }
 
+    @Override
+    public JsonElement putMap(DataPath key, Map<String, JsonElement> value) {
+        return putValue(key, mapAsObject(value));
+    }
+
     @Override
     public JsonElement putMapList(String key, List<Map<String, JsonElement>> value) {
         return putValue(key, mapArray(value, GsonData::mapAsObject));
@@ -2,52 +2,272 @@ package xyz.bobkinn.indigodataio.gson;
 
 import com.google.gson.*;
 import org.jetbrains.annotations.Nullable;
+import xyz.bobkinn.indigodataio.NumberUtil;
 import xyz.bobkinn.indigodataio.Pair;
 import xyz.bobkinn.indigodataio.ops.BaseMap;
+import xyz.bobkinn.indigodataio.ops.DataVisitor;
+import xyz.bobkinn.indigodataio.ops.StackSink;
 import xyz.bobkinn.indigodataio.ops.TypeOps;
+import xyz.bobkinn.indigodataio.ops.TypeSink;
 
 import java.math.BigDecimal;
-import java.util.Arrays;
-import java.util.Objects;
-import java.util.Optional;
+import java.math.BigInteger;
+import java.nio.ByteBuffer;
+import java.nio.DoubleBuffer;
+import java.nio.FloatBuffer;
+import java.nio.ShortBuffer;
+import java.util.*;
+import java.util.stream.IntStream;
+import java.util.stream.LongStream;
 import java.util.stream.Stream;
 import java.util.stream.StreamSupport;
 
 public class GsonOps implements TypeOps<JsonElement> {
     public static final GsonOps INSTANCE = new GsonOps();
+    /**
+     * Ops that keep number kind on conversion instead of narrowing it to the smallest type.
+     * Parsed integers become long and decimals become double
+     * @since 3.1.0
+     */
+    public static final GsonOps PRESERVING = new GsonOps(true);
+
+    private final boolean preserveNumbers;
+
+    public GsonOps() {
+        this(false);
+    }
+
+    /**
+     * @param preserveNumbers if true, converted numbers keep their kind,
+     *                        else they are narrowed to the smallest type that holds value
+     */
+    protected GsonOps(boolean preserveNumbers) {
+        this.preserveNumbers = preserveNumbers;
+    }
+
+    public boolean isPreserveNumbers() {
+        return preserveNumbers;
+    }
 
     @Override
     public JsonElement empty() {
         return JsonNull.INSTANCE;
     }
 
+    /**
+     * Copies json tree, numbers are not narrowed
+     */
+    @Override
+    public JsonElement copy(JsonElement input) {
+        return input == null ? null : input.deepCopy();
+    }
+
     @Override
     public <U> U convertTo(TypeOps<U> outOps, JsonElement input) {
-        if (input instanceof JsonObject) return convertMap(outOps, input);
-        if (input instanceof JsonArray) return convertList(outOps, input);
-        if (input instanceof JsonNull) return outOps.empty();
-        final JsonPrimitive primitive = input.getAsJsonPrimitive();
-        if (primitive.isString()) return outOps.createString(primitive.getAsString());
-        if (primitive.isBoolean()) return outOps.createBoolean(primitive.getAsBoolean());
-        final BigDecimal value = primitive.getAsBigDecimal();
-        try {
-            final long l = value.longValueExact();
-            if ((byte) l == l) {
-                return outOps.createByte((byte) l);
-            }
-            if ((short) l == l) {
-                return outOps.createShort((short) l);
+        return transfer(outOps, input);
+    }
+
+    @Override
+    public void visit(JsonElement input, DataVisitor visitor) {
+        if (input instanceof JsonPrimitive p) visitPrimitive(p, visitor);
+        else if (input instanceof JsonObject o) {
+            visitor.beginMap(o.size());
+            for (var e : o.entrySet()) {
+                visitor.visitKey(e.getKey());
+                visit(e.getValue(), visitor);
             }
-            if ((int) l == l) {
-                return outOps.createInt((int) l);
+            visitor.endMap();
+        } else if (input instanceof JsonArray a) {
+            visitor.beginList(a.size());
+            for (var e : a) visit(e, visitor);
+            visitor.endList();
+        } else visitor.visitNull();
+    }
+
+    private void visitPrimitive(JsonPrimitive primitive, DataVisitor visitor) {
+        if (primitive.isString()) {
+            visitor.visitString(primitive.getAsString());
+            return;
+        }
+        if (primitive.isBoolean()) {
+            visitor.visitBoolean(primitive.getAsBoolean());
+            return;
+        }
+        visitNumber(primitive.getAsNumber(), visitor);
+    }
+
+    /**
+     * Sends number same way as it is sent when visiting {@link JsonPrimitive} with this number
+     * @param n number, usually parsed by Gson
+     * @param visitor visitor
+     * @since 3.1.0
+     */
+    public void visitNumber(Number n, DataVisitor visitor) {
+        if (preserveNumbers) visitPreserved(n, visitor);
+        else visitNarrowed(n, visitor);
+    }
+
+    private static void visitPreserved(Number n, DataVisitor visitor) {
+        if (n instanceof Integer || n instanceof Long || n instanceof Double || n instanceof Float
+                || n instanceof Short || n instanceof Byte || n instanceof BigDecimal || n instanceof BigInteger) {
+            TypeOps.visitNumber(n, visitor);
+            return;
+        }
+        // parsed number, kind is defined by text
+        final String text = n.toString();
+        if (isIntegerText(text)) {
+            if (text.length() <= 18) visitor.visitLong(Long.parseLong(text));
+            else visitor.visitNumber(new BigInteger(text));
+        } else {
+            final double d = Double.parseDouble(text);
+            if (Double.isInfinite(d)) visitor.visitNumber(new BigDecimal(text));
+            else visitor.visitDouble(d);
+        }
+    }
+
+    /**
+     * Sends number as the smallest type that holds its value.
+     * Text of parsed numbers is inspected directly, {@link BigDecimal} is used only
+     * for values that may lose precision in long or double
+     */
+    private static void visitNarrowed(Number n, DataVisitor visitor) {
+        if (n instanceof Integer || n instanceof Long || n instanceof Short || n instanceof Byte) {
+            visitLong(n.longValue(), visitor);
+            return;
+        }
+        if (n instanceof Double || n instanceof Float) {
+            visitDouble(n.doubleValue(), visitor);
+            return;
+        }
+        if (!(n instanceof BigDecimal || n instanceof BigInteger)) {
+            final String text = n.toString();
+            final int digits = countDigits(text);
+            if (digits > 0 && isIntegerText(text)) {
+                if (digits <= 18) {
+                    visitLong(Long.parseLong(text), visitor);
+                    return;
+                }
+            } else if (digits > 0 && digits <= 15) {
+                // up to 15 significant digits double is exact enough to check integral value
+                final double d = Double.parseDouble(text);
+                if (!Double.isInfinite(d) && (d != 0 || !hasNonZeroDigit(text))) {
+                    visitDouble(d, visitor);
+                    return;
+                }
             }
-            return outOps.createLong(l);
+        }
+        visitBigDecimal(n instanceof BigDecimal bd ? bd : new BigDecimal(n.toString()), visitor);
+    }
+
+    private static void visitBigDecimal(BigDecimal value, DataVisitor visitor) {
+        try {
+            visitLong(value.longValueExact(), visitor);
         } catch (final ArithmeticException e) {
             final double d = value.doubleValue();
             if ((float) d == d) {
-                return outOps.createFloat((float) d);
+                visitor.visitFloat((float) d);
+            } else {
+                visitor.visitDouble(d);
             }
-            return outOps.createDouble(d);
+        }
+    }
+
+    private static void visitDouble(double d, DataVisitor visitor) {
+        if (d == Math.rint(d) && d >= -0x1p63 && d < 0x1p63) {
+            visitLong((long) d, visitor);
+        } else if ((float) d == d) {
+            visitor.visitFloat((float) d);
+        } else {
+            visitor.visitDouble(d);
+        }
+    }
+
+    private static void visitLong(long l, DataVisitor visitor) {
+        if ((byte) l == l) {
+            visitor.visitByte((byte) l);
+        } else if ((short) l == l) {
+            visitor.visitShort((short) l);
+        } else if ((int) l == l) {
+            visitor.visitInt((int) l);
+        } else {
+            visitor.visitLong(l);
+        }
+    }
+
+    private static boolean isIntegerText(String text) {
+        int i = text.startsWith("-") ? 1 : 0;
+        if (i == text.length()) return false;
+        for (; i < text.length(); i++) {
+            final char c = text.charAt(i);
+            if (c < '0' || c > '9') return false;
+        }
+        return true;
+    }
+
+    /**
+     * @return count of digits before exponent
+     */
+    private static int countDigits(String text) {
+        int count = 0;
+        for (int i = 0; i < text.length(); i++) {
+            final char c = text.charAt(i);
+            if (c == 'e' || c == 'E') break;
+            if (c >= '0' && c <= '9') count++;
+        }
+        return count;
+    }
+
+    private static boolean hasNonZeroDigit(String text) {
+        for (int i = 0; i < text.length(); i++) {
+            final char c = text.charAt(i);
+            if (c == 'e' || c == 'E') break;
+            if (c >= '1' && c <= '9') return true;
+        }
+        return false;
+    }
+
+    @Override
+    public TypeSink<JsonElement> sink() {
+        return new GsonSink(this);
+    }
+
+    /**
+     * Builds {@link JsonObject} and {@link JsonArray} directly
+     */
+    private static final class GsonSink extends StackSink<JsonElement> {
+
+        private GsonSink(GsonOps ops) {
+            super(ops);
+        }
+
+        @Override
+        protected Object newMap(int sizeHint) {
+            return new JsonObject();
+        }
+
+        @Override
+        protected void putEntry(Object map, String key, JsonElement value) {
+            ((JsonObject) map).add(key, value);
+        }
+
+        @Override
+        protected JsonElement finishMap(Object map) {
+            return (JsonObject) map;
+        }
+
+        @Override
+        protected Object newList(int sizeHint) {
+            return sizeHint < 0 ? new JsonArray() : new JsonArray(sizeHint);
+        }
+
+        @Override
+        protected void addElement(Object list, JsonElement value) {
+            ((JsonArray) list).add(value);
+        }
+
+        @Override
+        protected JsonElement finishList(Object list) {
+            return (JsonArray) list;
         }
     }
 
@@ -59,6 +279,44 @@ public class GsonOps implements TypeOps<JsonElement> {
         return Optional.empty();
     }
 
+    @Override
+    public Number getNumberValue(JsonElement input, Number defaultValue) {
+        if (input instanceof JsonPrimitive p && p.isNumber()) {
+            return p.getAsNumber();
+        }
+        return defaultValue;
+    }
+
+    @Override
+    public byte getByte(JsonElement input, byte defaultValue) {
+        return input instanceof JsonPrimitive p && p.isNumber() ? p.getAsByte() : defaultValue;
+    }
+
+    @Override
+    public short getShort(JsonElement input, short defaultValue) {
+        return input instanceof JsonPrimitive p && p.isNumber() ? p.getAsShort() : defaultValue;
+    }
+
+    @Override
+    public int getInt(JsonElement input, int defaultValue) {
+        return input instanceof JsonPrimitive p && p.isNumber() ? p.getAsInt() : defaultValue;
+    }
+
+    @Override
+    public long getLong(JsonElement input, long defaultValue) {
+        return input instanceof JsonPrimitive p && p.isNumber() ? p.getAsLong() : defaultValue;
+    }
+
+    @Override
+    public float getFloat(JsonElement input, float defaultValue) {
+        return input instanceof JsonPrimitive p && p.isNumber() ? p.getAsFloat() : defaultValue;
+    }
+
+    @Override
+    public double getDouble(JsonElement input, double defaultValue) {
+        return input instanceof JsonPrimitive p && p.isNumber() ? p.getAsDouble() : defaultValue;
+    }
+
     @Override
     public JsonElement createNumeric(Number i) {
         return new JsonPrimitive(i);
@@ -76,6 +334,11 @@ public class GsonOps implements TypeOps<JsonElement> {
         } else return Optional.empty();
     }
 
+    @Override
+    public boolean getBoolean(JsonElement input, boolean defaultValue) {
+        return input instanceof JsonPrimitive p && p.isBoolean() ? p.getAsBoolean() : defaultValue;
+    }
+
     @Override
     public Optional<String> getString(JsonElement input) {
         if (input instanceof JsonPrimitive p && p.isString()) {
@@ -89,35 +352,68 @@ public class GsonOps implements TypeOps<JsonElement> {
         return new JsonPrimitive(value);
     }
 
+    /**
+     * @param list list or empty
+     * @return new array with elements of list or null if list is not array
+     */
+    protected @Nullable JsonArray copyList(JsonElement list) {
+        if (list == empty()) return new JsonArray();
+        if (!(list instanceof JsonArray a)) return null;
+        final JsonArray result = new JsonArray(a.size() + 1);
+        result.addAll(a);
+        return result;
+    }
+
+    /**
+     * @param map map or empty
+     * @return new object with entries of map or null if map is not object
+     */
+    protected @Nullable JsonObject copyMap(JsonElement map) {
+        if (map == empty()) return new JsonObject();
+        if (!(map instanceof JsonObject o)) return null;
+        final JsonObject output = new JsonObject();
+        for (var entry : o.entrySet()) output.add(entry.getKey(), entry.getValue());
+        return output;
+    }
+
     @Override
     public Optional<JsonElement> mergeToList(JsonElement list, JsonElement value) {
-        if (!(list instanceof JsonArray) && list != empty()) {
-            return Optional.empty();
-        }
-
-        final JsonArray result = new JsonArray();
-        if (list != empty()) {
-            result.addAll(list.getAsJsonArray());
-        }
+        final JsonArray result = copyList(list);
+        if (result == null) return Optional.empty();
         result.add(value);
         return Optional.of(result);
     }
 
+    @Override
+    public Optional<JsonElement> mergeToList(JsonElement list, List<JsonElement> values) {
+        final JsonArray result = copyList(list);
+        if (result == null) return Optional.empty();
+        for (var v : values) result.add(v);
+        return Optional.of(result);
+    }
+
     @Override
     public Optional<JsonElement> mergeToMap(JsonElement map, JsonElement key, JsonElement value) {
-        if (!(map instanceof JsonObject) && map != empty()) {
-            return Optional.empty();
-        }
         if (!(key instanceof JsonPrimitive p) || !p.isString()) {
             return Optional.empty();
         }
-
-        final JsonObject output = new JsonObject();
-        if (map != empty()) {
-            map.getAsJsonObject().entrySet().forEach(entry -> output.add(entry.getKey(), entry.getValue()));
-        }
+        final JsonObject output = copyMap(map);
+        if (output == null) return Optional.empty();
         output.add(key.getAsString(), value);
+        return Optional.of(output);
+    }
 
+    @Override
+    public Optional<JsonElement> mergeToMap(JsonElement map, BaseMap<JsonElement> values) {
+        final JsonObject output = copyMap(map);
+        if (output == null) return Optional.empty();
+        var it = values.entries().iterator();
+        while (it.hasNext()) {
+            var e = it.next();
+            // same result as merging entries one by one, failing on first non-string key
+            if (!(e.getFirst() instanceof JsonPrimitive p) || !p.isString()) return Optional.empty();
+            output.add(p.getAsString(), e.getSecond());
+        }
         return Optional.of(output);
     }
 
@@ -185,26 +481,370 @@ public class GsonOps implements TypeOps<JsonElement> {
 
     @Override
     public JsonElement createList(Stream<? extends JsonElement> input) {
-        var list = input.map(v -> v == null ? empty() : v).toList();
-        final JsonArray ret = new JsonArray(list.size());
-        list.forEach(ret::add);
+        final JsonArray ret = new JsonArray();
+        input.forEachOrdered(v -> ret.add(v == null ? empty() : v));
         return ret;
     }
 
+    @Override
+    public int getSize(JsonElement input) {
+        if (input instanceof JsonObject o) return o.size();
+        if (input instanceof JsonArray a) return a.size();
+        return -1;
+    }
+
     @Override
     public JsonElement createArray(JsonElement[] input) {
-        return createList(Arrays.stream(input));
+        final JsonArray ret = new JsonArray(input.length);
+        for (var v : input) ret.add(v == null ? empty() : v);
+        return ret;
+    }
+
+    // primitive arrays and lists. Filled in single indexed loop without streams
+
+    private static Number numberAt(JsonArray arr, int i) {
+        return arr.get(i) instanceof JsonPrimitive p && p.isNumber() ? p.getAsNumber() : null;
+    }
+
+    private static <A> JsonArray listToArray(List<A> input) {
+        final JsonArray ret = new JsonArray(input.size());
+        for (var v : input) {
+            if (v == null) ret.add(JsonNull.INSTANCE);
+            else if (v instanceof Number n) ret.add(new JsonPrimitive(n));
+            else if (v instanceof Boolean b) ret.add(new JsonPrimitive(b));
+            else ret.add(new JsonPrimitive((String) v));
+        }
+        return ret;
+    }
+
+    @Override
+    public Optional<List<String>> getStringList(JsonElement input) {
+        if (!(input instanceof JsonArray arr)) return Optional.empty();
+        final List<String> ret = new ArrayList<>(arr.size());
+        for (var e : arr) {
+            if (!(e instanceof JsonPrimitive p && p.isString())) return Optional.empty();
+            ret.add(p.getAsString());
+        }
+        return Optional.of(ret);
+    }
+
+    @Override
+    public JsonElement createStringList(List<String> value) {
+        return listToArray(value);
+    }
+
+    @Override
+    public JsonElement createStringArray(String[] value) {
+        final JsonArray ret = new JsonArray(value.length);
+        for (var v : value) ret.add(v == null ? JsonNull.INSTANCE : new JsonPrimitive(v));
+        return ret;
+    }
+
+    @Override
+    public Optional<boolean[]> getBoolArray(JsonElement input) {
+        if (!(input instanceof JsonArray arr)) return Optional.empty();
+        final boolean[] ret = new boolean[arr.size()];
+        for (int i = 0; i < ret.length; i++) {
+            if (!(arr.get(i) instanceof JsonPrimitive p && p.isBoolean())) return Optional.empty();
+            ret[i] = p.getAsBoolean();
+        }
+        return Optional.of(ret);
+    }
+
+    @Override
+    public Optional<List<Boolean>> getBoolList(JsonElement input) {
+        return getBoolArray(input).map(NumberUtil::boolAsList).map(ArrayList::new);
+    }
+
+    @Override
+    public JsonElement createBoolList(List<Boolean> value) {
+        return listToArray(value);
+    }
+
+    @Override
+    public JsonElement createBoolArray(boolean[] value) {
+        final JsonArray ret = new JsonArray(value.length);
+        for (var v : value) ret.add(new JsonPrimitive(v));
+        return ret;
+    }
+
+    @Override
+    public Optional<byte[]> getByteArray(JsonElement input) {
+        if (!(input instanceof JsonArray arr)) return Optional.empty();
+        final byte[] ret = new byte[arr.size()];
+        for (int i = 0; i < ret.length; i++) {
+            final Number n = numberAt(arr, i);
+            if (n == null) return Optional.empty();
+            ret[i] = n.byteValue();
+        }
+        return Optional.of(ret);
+    }
+
+    @Override
+    public Optional<List<Byte>> getByteList(JsonElement input) {
+        return getByteArray(input).map(NumberUtil::byteToList);
+    }
+
+    @Override
+    public JsonElement createByteList(List<Byte> input) {
+        return listToArray(input);
+    }
+
+    @Override
+    public JsonElement createByteArray(byte[] input) {
+        final JsonArray ret = new JsonArray(input.length);
+        for (var v : input) ret.add(new JsonPrimitive(v));
+        return ret;
+    }
+
+    @Override
+    public Optional<short[]> getShortArray(JsonElement input) {
+        if (!(input instanceof JsonArray arr)) return Optional.empty();
+        final short[] ret = new short[arr.size()];
+        for (int i = 0; i < ret.length; i++) {
+            final Number n = numberAt(arr, i);
+            if (n == null) return Optional.empty();
+            ret[i] = n.shortValue();
+        }
+        return Optional.of(ret);
+    }
+
+    @Override
+    public Optional<List<Short>> getShortList(JsonElement input) {
+        return getShortArray(input).map(NumberUtil::shortToList);
+    }
+
+    @Override
+    public JsonElement createShortList(List<Short> input) {
+        return listToArray(input);
+    }
+
+    @Override
+    public JsonElement createShortArray(short[] input) {
+        final JsonArray ret = new JsonArray(input.length);
+        for (var v : input) ret.add(new JsonPrimitive(v));
+        return ret;
+    }
+
+    @Override
+    public Optional<int[]> getIntArray(JsonElement input) {
+        if (!(input instanceof JsonArray arr)) return Optional.empty();
+        final int[] ret = new int[arr.size()];
+        for (int i = 0; i < ret.length; i++) {
+            final Number n = numberAt(arr, i);
+            if (n == null) return Optional.empty();
+            ret[i] = n.intValue();
+        }
+        return Optional.of(ret);
+    }
+
+    @Override
+    public Optional<List<Integer>> getIntList(JsonElement input) {
+        return getIntArray(input).map(NumberUtil::intToList);
+    }
+
+    @Override
+    public JsonElement createIntList(List<Integer> input) {
+        return listToArray(input);
+    }
+
+    @Override
+    public JsonElement createIntArray(int[] input) {
+        final JsonArray ret = new JsonArray(input.length);
+        for (var v : input) ret.add(new JsonPrimitive(v));
+        return ret;
+    }
+
+    @Override
+    public Optional<long[]> getLongArray(JsonElement input) {
+        if (!(input instanceof JsonArray arr)) return Optional.empty();
+        final long[] ret = new long[arr.size()];
+        for (int i = 0; i < ret.length; i++) {
+            final Number n = numberAt(arr, i);
+            if (n == null) return Optional.empty();
+            ret[i] = n.longValue();
+        }
+        return Optional.of(ret);
+    }
+
+    @Override
+    public Optional<List<Long>> getLongList(JsonElement input) {
+        return getLongArray(input).map(NumberUtil::longToList);
+    }
+
+    @Override
+    public JsonElement createLongList(List<Long> input) {
+        return listToArray(input);
+    }
+
+    @Override
+    public JsonElement createLongArray(long[] input) {
+        final JsonArray ret = new JsonArray(input.length);
+        for (var v : input) ret.add(new JsonPrimitive(v));
+        return ret;
+    }
+
+    @Override
+    public Optional<float[]> getFloatArray(JsonElement input) {
+        if (!(input instanceof JsonArray arr)) return Optional.empty();
+        final float[] ret = new float[arr.size()];
+        for (int i = 0; i < ret.length; i++) {
+            final Number n = numberAt(arr, i);
+            if (n == null) return Optional.empty();
+            ret[i] = n.floatValue();
+        }
+        return Optional.of(ret);
+    }
+
+    @Override
+    public Optional<List<Float>> getFloatList(JsonElement input) {
+        return getFloatArray(input).map(NumberUtil::floatToList);
+    }
+
+    @Override
+    public JsonElement createFloatList(List<Float> input) {
+        return listToArray(input);
+    }
+
+    @Override
+    public JsonElement createFloatArray(float[] input) {
+        final JsonArray ret = new JsonArray(input.length);
+        for (var v : input) ret.add(new JsonPrimitive(v));
+        return ret;
+    }
+
+    @Override
+    public Optional<double[]> getDoubleArray(JsonElement input) {
+        if (!(input instanceof JsonArray arr)) return Optional.empty();
+        final double[] ret = new double[arr.size()];
+        for (int i = 0; i < ret.length; i++) {
+            final Number n = numberAt(arr, i);
+            if (n == null) return Optional.empty();
+            ret[i] = n.doubleValue();
+        }
+        return Optional.of(ret);
+    }
+
+    @Override
+    public Optional<List<Double>> getDoubleList(JsonElement input) {
+        return getDoubleArray(input).map(NumberUtil::doubleToList);
+    }
+
+    @Override
+    public JsonElement createDoubleList(List<Double> input) {
+        return listToArray(input);
+    }
+
+    @Override
+    public JsonElement createDoubleArray(double[] input) {
+        final JsonArray ret = new JsonArray(input.length);
+        for (var v : input) ret.add(new JsonPrimitive(v));
+        return ret;
+    }
+
+    @Override
+    public Optional<FloatBuffer> getFloatBuffer(JsonElement input) {
+        return getFloatArray(input).map(FloatBuffer::wrap);
+    }
+
+    @Override
+    public Optional<DoubleBuffer> getDoubleBuffer(JsonElement input) {
+        return getDoubleArray(input).map(DoubleBuffer::wrap);
+    }
+
+    @Override
+    public JsonElement createIntStream(IntStream input) {
+        return createIntArray(input.toArray());
+    }
+
+    @Override
+    public JsonElement createLongStream(LongStream input) {
+        return createLongArray(input.toArray());
+    }
+
+    @Override
+    public JsonElement createByteBuffer(ByteBuffer input) {
+        final JsonArray ret = new JsonArray(input.capacity());
+        for (int i = 0; i < input.capacity(); i++) ret.add(new JsonPrimitive(input.get(i)));
+        return ret;
+    }
+
+    @Override
+    public JsonElement createShortBuffer(ShortBuffer input) {
+        final JsonArray ret = new JsonArray(input.capacity());
+        for (int i = 0; i < input.capacity(); i++) ret.add(new JsonPrimitive(input.get(i)));
+        return ret;
     }
 
     @Override
     public JsonElement remove(JsonElement input, String key) {
-        if (input instanceof JsonObject) {
+        if (input instanceof JsonObject o) {
             final JsonObject result = new JsonObject();
-            input.getAsJsonObject().entrySet().stream()
-                    .filter(entry -> !Objects.equals(entry.getKey(), key))
-                    .forEach(entry -> result.add(entry.getKey(), entry.getValue()));
+            for (var entry : o.entrySet()) {
+                if (!Objects.equals(entry.getKey(), key)) result.add(entry.getKey(), entry.getValue());
+            }
             return result;
         }
         return input;
     }
+
+    /**
+     * Creates ops that merge into the same mutable object or array while building many entries.
+     * @return new batch ops with same number mode as this
+     * @see Batch
+     * @since 3.1.0
+     */
+    public Batch batch() {
+        return new Batch(preserveNumbers);
+    }
+
+    /**
+     * Ops where {@link #mergeToMap}, {@link #mergeToList}, {@link #set} and {@link #remove} modify
+     * objects and arrays created by this batch in place instead of copying them.
+     * Input that was not created by this batch is copied once, then further merges reuse the copy.
+     * Call {@link #freeze()} when building is done, after that built values are copied again on merge.
+     * Not thread-safe
+     * @since 3.1.0
+     */
+    public static class Batch extends GsonOps {
+        private final Set<JsonElement> owned = Collections.newSetFromMap(new IdentityHashMap<>());
+
+        protected Batch(boolean preserveNumbers) {
+            super(preserveNumbers);
+        }
+
+        @Override
+        protected @Nullable JsonArray copyList(JsonElement list) {
+            if (list instanceof JsonArray a && owned.contains(a)) return a;
+            var ret = super.copyList(list);
+            if (ret != null) owned.add(ret);
+            return ret;
+        }
+
+        @Override
+        protected @Nullable JsonObject copyMap(JsonElement map) {
+            if (map instanceof JsonObject o && owned.contains(o)) return o;
+            var ret = super.copyMap(map);
+            if (ret != null) owned.add(ret);
+            return ret;
+        }
+
+        @Override
+        public JsonElement remove(JsonElement input, String key) {
+            if (input instanceof JsonObject o && owned.contains(o)) {
+                o.remove(key);
+                return o;
+            }
+            var ret = super.remove(input, key);
+            if (ret != input) owned.add(ret);
+            return ret;
+        }
+
+        /**
+         * Ends building, values returned so far will not be modified by this ops anymore
+         */
+        public void freeze() {
+            owned.clear();
+        }
+    }
 }
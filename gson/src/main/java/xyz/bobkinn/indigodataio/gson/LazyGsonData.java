@@ -0,0 +1,151 @@
+package xyz.bobkinn.indigodataio.gson;
+
+import com.google.gson.JsonElement;
+import com.google.gson.JsonNull;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonSyntaxException;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.MalformedJsonException;
+import org.jetbrains.annotations.NotNull;
+import xyz.bobkinn.indigodataio.DataHolder;
+import xyz.bobkinn.indigodataio.DataPath;
+import xyz.bobkinn.indigodataio.gson.io.JsonIo;
+import xyz.bobkinn.indigodataio.gson.io.JsonTreeReader;
+import xyz.bobkinn.indigodataio.gson.io.ReaderOptions;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.*;
+
+/**
+ * GsonData read from file where top-level values are parsed on first access.
+ * Keys are known after creation, values are read from file when key or its children are accessed.
+ * Each load scans file again skipping other values, so file must not change while this data is used.
+ * {@link #getRaw()}, {@link #entrySet()}, {@link #toString()} and conversions load all remaining values
+ * @see JsonIo#readLazy(File, ReaderOptions)
+ * @since 3.1.0
+ */
+public class LazyGsonData extends GsonData {
+    private final File file;
+    private final JsonTreeReader reader;
+    private final Set<String> pending;
+
+    /**
+     * Scans top-level keys of file
+     * @param file json file with object
+     * @param options reader options
+     * @throws IOException if file can't be read or has no top-level object
+     */
+    public LazyGsonData(File file, ReaderOptions options) throws IOException {
+        this.file = file;
+        this.reader = new JsonTreeReader(options);
+        this.pending = new HashSet<>();
+        try (var in = open()) {
+            in.beginObject();
+            while (in.hasNext()) {
+                var name = in.nextName();
+                in.skipValue();
+                // placeholder keeps order and size of keys
+                super.getRaw().add(name, JsonNull.INSTANCE);
+                pending.add(name);
+            }
+            in.endObject();
+        }
+    }
+
+    private JsonReader open() throws IOException {
+        var in = new JsonReader(reader.getOptions().open(file));
+        in.setLenient(reader.getOptions().isLenient());
+        return in;
+    }
+
+    /**
+     * @return keys of top-level values that are not loaded yet
+     */
+    public Set<String> getPending() {
+        return Collections.unmodifiableSet(pending);
+    }
+
+    /**
+     * Loads top-level values of keys in one scan of file
+     * @param keys keys to load, not pending keys are ignored
+     * @throws com.google.gson.JsonSyntaxException if file is not valid json
+     */
+    public void load(Collection<String> keys) {
+        var wanted = new HashSet<String>();
+        for (var k : keys) if (pending.contains(k)) wanted.add(k);
+        if (wanted.isEmpty()) return;
+        var raw = super.getRaw();
+        try (var in = open()) {
+            in.beginObject();
+            while (in.hasNext() && !wanted.isEmpty()) {
+                var name = in.nextName();
+                if (!wanted.remove(name)) {
+                    in.skipValue();
+                    continue;
+                }
+                // placeholder removed through keys() means value was removed
+                if (raw.has(name)) raw.add(name, reader.read(in));
+                else in.skipValue();
+                pending.remove(name);
+            }
+        } catch (MalformedJsonException | IllegalStateException | NumberFormatException e) {
+            throw new JsonSyntaxException(e);
+        } catch (IOException e) {
+            throw new RuntimeException("Failed to load " + keys + " from " + file, e);
+        }
+        // keys missing in changed file stay as null
+        pending.removeAll(wanted);
+    }
+
+    public void load(String key) {
+        load(List.of(key));
+    }
+
+    public void loadAll() {
+        load(new ArrayList<>(pending));
+    }
+
+    @Override
+    protected JsonObject resolveMap(@NotNull DataPath path, int length, boolean create) {
+        if (!pending.isEmpty() && !path.isEmpty()) load(path.get(0));
+        return super.resolveMap(path, length, create);
+    }
+
+    @Override
+    public JsonElement putRaw(@NotNull String key, JsonElement value) {
+        if (!pending.isEmpty()) load(key);
+        return super.putRaw(key, value);
+    }
+
+    @Override
+    public JsonObject getRaw() {
+        loadAll();
+        return super.getRaw();
+    }
+
+    @NotNull
+    @Override
+    public Set<Map.Entry<String, JsonElement>> entrySet() {
+        loadAll();
+        return super.entrySet();
+    }
+
+    @Override
+    public String toString() {
+        loadAll();
+        return super.toString();
+    }
+
+    @Override
+    public void clear() {
+        pending.clear();
+        super.clear();
+    }
+
+    @Override
+    public <TO extends DataHolder<TO, TP>, TP> TO convertTo(TO to) {
+        loadAll();
+        return super.convertTo(to);
+    }
+}
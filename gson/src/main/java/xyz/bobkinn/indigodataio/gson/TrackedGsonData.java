@@ -0,0 +1,76 @@
+package xyz.bobkinn.indigodataio.gson;
+
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+import lombok.NonNull;
+import org.jetbrains.annotations.NotNull;
+import xyz.bobkinn.indigodataio.DataPath;
+import xyz.bobkinn.indigodataio.DirtyTracker;
+
+/**
+ * GsonData that marks {@link DirtyTracker} on {@code put}, {@code remove} and {@link #clear()}.
+ * Sections returned by this data share tracker, so their modifications are tracked too.
+ * Changes made through {@link #getRaw()}, json elements or key and entry views are not tracked
+ * @since 3.1.0
+ */
+public class TrackedGsonData extends GsonData {
+    private final @NotNull DirtyTracker tracker;
+
+    public TrackedGsonData(@NonNull JsonObject data, @NonNull DirtyTracker tracker) {
+        super(data);
+        this.tracker = tracker;
+    }
+
+    public TrackedGsonData(@NonNull JsonObject data) {
+        this(data, new DirtyTracker());
+    }
+
+    public TrackedGsonData() {
+        this(new JsonObject());
+    }
+
+    public @NotNull DirtyTracker getTracker() {
+        return tracker;
+    }
+
+    @Override
+    public GsonData getNewRaw(JsonObject data) {
+        return new TrackedGsonData(data, tracker);
+    }
+
+    @Override
+    public GsonData getSection(DataPath key, GsonData def) {
+        var d = getObject(key, null);
+        if (d == null) return def;
+        return getNewRaw(d);
+    }
+
+    @Override
+    public JsonElement putValue(DataPath key, JsonElement value) {
+        var ret = super.putValue(key, value);
+        tracker.markDirty();
+        return ret;
+    }
+
+    @Override
+    public JsonElement putRaw(@NotNull String key, JsonElement value) {
+        var ret = super.putRaw(key, value);
+        tracker.markDirty();
+        return ret;
+    }
+
+    @Override
+    public JsonElement remove(DataPath key) {
+        if (!contains(key)) return null;
+        var ret = super.remove(key);
+        tracker.markDirty();
+        return ret;
+    }
+
+    @Override
+    public void clear() {
+        if (isEmpty()) return;
+        super.clear();
+        tracker.markDirty();
+    }
+}
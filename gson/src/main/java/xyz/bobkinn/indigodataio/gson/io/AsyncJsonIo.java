@@ -0,0 +1,212 @@
+package xyz.bobkinn.indigodataio.gson.io;
+
+import xyz.bobkinn.indigodataio.gson.GsonData;
+
+import java.io.File;
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+
+/**
+ * Asynchronous variant of {@link JsonIo} file methods with bounded count of running operations.
+ * By default operations run on virtual threads when they are available (Java 21+),
+ * otherwise on cached pool of daemon threads. Queued operations don't block caller
+ * @since 3.1.0
+ */
+public class AsyncJsonIo implements AutoCloseable {
+    public static final int DEFAULT_CONCURRENCY = 64;
+
+    private static final class DefaultHolder {
+        private static final AsyncJsonIo INSTANCE = new AsyncJsonIo();
+    }
+
+    private final Executor executor;
+    private final boolean ownsExecutor;
+    private final int maxConcurrency;
+    private final Queue<Job<?>> queue = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger running = new AtomicInteger();
+
+    /**
+     * @param executor executor that runs operations, not closed by {@link #close()}
+     * @param maxConcurrency max count of operations running at same time
+     */
+    public AsyncJsonIo(Executor executor, int maxConcurrency) {
+        this(executor, maxConcurrency, false);
+    }
+
+    public AsyncJsonIo(int maxConcurrency) {
+        this(newDefaultExecutor(), maxConcurrency, true);
+    }
+
+    public AsyncJsonIo() {
+        this(DEFAULT_CONCURRENCY);
+    }
+
+    private AsyncJsonIo(Executor executor, int maxConcurrency, boolean ownsExecutor) {
+        if (maxConcurrency < 1) throw new IllegalArgumentException("Concurrency must be positive");
+        this.executor = executor;
+        this.maxConcurrency = maxConcurrency;
+        this.ownsExecutor = ownsExecutor;
+    }
+
+    /**
+     * @return shared instance with default executor
+     */
+    public static AsyncJsonIo getDefault() {
+        return DefaultHolder.INSTANCE;
+    }
+
+    /**
+     * @return virtual thread per task executor if it is available, else cached pool of daemon threads
+     */
+    public static ExecutorService newDefaultExecutor() {
+        try {
+            var m = Executors.class.getMethod("newVirtualThreadPerTaskExecutor");
+            return (ExecutorService) m.invoke(null);
+        } catch (ReflectiveOperationException e) {
+            // virtual threads are not available before Java 21
+            var counter = new AtomicInteger();
+            return Executors.newCachedThreadPool(r -> {
+                var t = new Thread(r, "JsonIo-async-" + counter.incrementAndGet());
+                t.setDaemon(true);
+                return t;
+            });
+        }
+    }
+
+    public int getMaxConcurrency() {
+        return maxConcurrency;
+    }
+
+    private record Job<T>(Callable<T> task, CompletableFuture<T> future) {
+        void run() {
+            try {
+                future.complete(task.call());
+            } catch (Throwable e) {
+                future.completeExceptionally(e);
+            }
+        }
+    }
+
+    /**
+     * Runs task when count of running tasks is below limit
+     * @param task task
+     * @return future of task result
+     */
+    public <T> CompletableFuture<T> submit(Callable<T> task) {
+        var job = new Job<>(task, new CompletableFuture<>());
+        queue.add(job);
+        drain();
+        return job.future;
+    }
+
+    private void drain() {
+        while (!queue.isEmpty()) {
+            int r = running.get();
+            if (r >= maxConcurrency) return;
+            if (!running.compareAndSet(r, r + 1)) continue;
+            var job = queue.poll();
+            if (job == null) {
+                // other thread took last job, check queue again
+                running.decrementAndGet();
+                continue;
+            }
+            try {
+                executor.execute(() -> {
+                    try {
+                        job.run();
+                    } finally {
+                        running.decrementAndGet();
+                        drain();
+                    }
+                });
+            } catch (RejectedExecutionException e) {
+                running.decrementAndGet();
+                job.future.completeExceptionally(e);
+            }
+        }
+    }
+
+    public CompletableFuture<GsonData> read(File from, ReaderOptions options) {
+        return submit(() -> JsonIo.read(from, options));
+    }
+
+    public CompletableFuture<GsonData> read(File from) {
+        return read(from, ReaderOptions.DEFAULT);
+    }
+
+    public CompletableFuture<Void> write(GsonData data, File to, WriterOptions options) {
+        return submit(() -> {
+            JsonIo.write(data, to, options);
+            return null;
+        });
+    }
+
+    public CompletableFuture<Void> write(GsonData data, File to) {
+        return write(data, to, JsonIo.DEFAULT_OPTIONS);
+    }
+
+    private static <T> CompletableFuture<BulkResult<T>> collect(Collection<File> files,
+                                                                  Function<File, CompletableFuture<T>> op) {
+        var futures = new LinkedHashMap<File, CompletableFuture<T>>();
+        for (var f : files) futures.put(f, op.apply(f));
+        return CompletableFuture.allOf(futures.values().toArray(CompletableFuture[]::new))
+                .handle((v, e) -> {
+                    var results = new LinkedHashMap<File, T>();
+                    var failures = new LinkedHashMap<File, Throwable>();
+                    futures.forEach((f, future) -> {
+                        try {
+                            results.put(f, future.join());
+                        } catch (CompletionException ex) {
+                            failures.put(f, ex.getCause() != null ? ex.getCause() : ex);
+                        } catch (CancellationException ex) {
+                            failures.put(f, ex);
+                        }
+                    });
+                    return new BulkResult<>(results, failures);
+                });
+    }
+
+    /**
+     * Reads all files, failed files are reported in result
+     * @param files files
+     * @param options reader options
+     * @return future of result, completes when all files are processed
+     */
+    public CompletableFuture<BulkResult<GsonData>> readAll(Collection<File> files, ReaderOptions options) {
+        return collect(files, f -> read(f, options));
+    }
+
+    /**
+     * Reads all {@code .json} files in directory, subdirectories are not read
+     * @param directory directory
+     * @param options reader options
+     * @return future of result, completes when all files are processed
+     * @throws IllegalArgumentException if directory is not directory
+     */
+    public CompletableFuture<BulkResult<GsonData>> readAll(File directory, ReaderOptions options) {
+        var files = directory.listFiles(f -> f.isFile() && f.getName().endsWith(".json"));
+        if (files == null) throw new IllegalArgumentException("File " + directory + " is not directory");
+        Arrays.sort(files);
+        return readAll(Arrays.asList(files), options);
+    }
+
+    /**
+     * Writes all data to their files, failed files are reported in result
+     * @param data map of file to data
+     * @param options writer options
+     * @return future of result, completes when all files are processed
+     */
+    public CompletableFuture<BulkResult<Void>> writeAll(Map<File, GsonData> data, WriterOptions options) {
+        return collect(data.keySet(), f -> write(data.get(f), f, options));
+    }
+
+    /**
+     * Shuts down executor if it was created by this instance
+     */
+    @Override
+    public void close() {
+        if (ownsExecutor && executor instanceof ExecutorService s) s.shutdown();
+    }
+}
@@ -0,0 +1,27 @@
+package xyz.bobkinn.indigodataio.gson.io;
+
+import java.io.File;
+import java.util.Collections;
+import java.util.Map;
+
+/**
+ * Result of bulk operation of {@link AsyncJsonIo}. Failure of one file does not abort other files
+ * @param results values of successful files in order of input
+ * @param failures errors of failed files in order of input
+ * @param <T> result type
+ * @since 3.1.0
+ */
+public record BulkResult<T>(Map<File, T> results, Map<File, Throwable> failures) {
+
+    public BulkResult(Map<File, T> results, Map<File, Throwable> failures) {
+        this.results = Collections.unmodifiableMap(results);
+        this.failures = Collections.unmodifiableMap(failures);
+    }
+
+    /**
+     * @return true if no file failed
+     */
+    public boolean isSuccess() {
+        return failures.isEmpty();
+    }
+}
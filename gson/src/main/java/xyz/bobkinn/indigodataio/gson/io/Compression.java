@@ -0,0 +1,88 @@
+package xyz.bobkinn.indigodataio.gson.io;
+
+import java.io.BufferedInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.zip.*;
+
+/**
+ * Compression of json files. Compressed input is detected by magic bytes, so readers don't need to know it
+ * @since 3.1.0
+ */
+public enum Compression {
+    NONE,
+    GZIP,
+    /**
+     * Deflate with zlib header
+     */
+    DEFLATE;
+
+    /**
+     * Wraps output to compress written bytes
+     * @param out output
+     * @param level compression level from 0 to 9 or {@link Deflater#DEFAULT_COMPRESSION}
+     * @param bufferSize size of compression buffer
+     * @return wrapped output, closing it finishes compression and closes out.
+     * Flushing it flushes all pending compressed data, so frequent flushes reduce compression ratio
+     */
+    public OutputStream wrap(OutputStream out, int level, int bufferSize) throws IOException {
+        return switch (this) {
+            case NONE -> out;
+            case GZIP -> new GZIPOutputStream(out, bufferSize, true) {
+                {
+                    def.setLevel(level);
+                }
+            };
+            case DEFLATE -> new DeflaterOutputStream(out, new Deflater(level), bufferSize, true) {
+                @Override
+                public void close() throws IOException {
+                    try {
+                        super.close();
+                    } finally {
+                        // deflater passed to constructor is not released by stream
+                        def.end();
+                    }
+                }
+            };
+        };
+    }
+
+    /**
+     * @param in input
+     * @param bufferSize size of decompression buffer
+     * @return input that decompresses bytes of in
+     */
+    public InputStream wrap(InputStream in, int bufferSize) throws IOException {
+        return switch (this) {
+            case NONE -> in;
+            case GZIP -> new GZIPInputStream(in, bufferSize);
+            case DEFLATE -> new InflaterInputStream(in, new Inflater(), bufferSize) {
+                @Override
+                public void close() throws IOException {
+                    try {
+                        super.close();
+                    } finally {
+                        inf.end();
+                    }
+                }
+            };
+        };
+    }
+
+    /**
+     * Detects compression by first two bytes, position of input is not changed
+     * @param in input that supports mark
+     * @return compression of input, {@link #NONE} if it is not compressed
+     */
+    public static Compression detect(BufferedInputStream in) throws IOException {
+        in.mark(2);
+        int b1 = in.read();
+        int b2 = in.read();
+        in.reset();
+        if (b1 == 0x1f && b2 == 0x8b) return GZIP;
+        // zlib header: deflate method, 32K window and valid check bits. Json text can't start with 'x'
+        if (b1 == 0x78 && b2 >= 0 && ((b1 << 8) | b2) % 31 == 0) return DEFLATE;
+        return NONE;
+    }
+}
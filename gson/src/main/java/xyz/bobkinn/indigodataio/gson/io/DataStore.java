@@ -0,0 +1,346 @@
+package xyz.bobkinn.indigodataio.gson.io;
+
+import xyz.bobkinn.indigodataio.gson.GsonData;
+import xyz.bobkinn.indigodataio.gson.TrackedGsonData;
+
+import java.io.File;
+import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.ToLongFunction;
+
+/**
+ * Store of holders kept in {@code <id>.json} files of one folder.<br>
+ * Loaded holders are cached in LRU order until total weight exceeds limit.
+ * Concurrent loads of same id share one read. Modified holders are written when they are evicted,
+ * by {@link #flush()} and by {@link #close()}; files are replaced atomically using {@link FileBinding}.<br>
+ * Weight of holder is computed once when it is loaded or created
+ * @since 3.1.0
+ */
+public class DataStore implements AutoCloseable {
+    public static final String EXTENSION = ".json";
+
+    private final File folder;
+    private final ReaderOptions readerOptions;
+    private final WriterOptions writerOptions;
+    private final long maxWeight;
+    private final ToLongFunction<GsonData> weigher;
+
+    // access ordered, guarded by itself
+    private final LinkedHashMap<String, Entry> cache = new LinkedHashMap<>(16, 0.75f, true);
+    private long weight;
+    private final Map<String, CompletableFuture<Entry>> loading = new ConcurrentHashMap<>();
+    // evicted entries that are being written or failed to write, returned to cache if requested
+    private final Map<String, Entry> writing = new ConcurrentHashMap<>();
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder loads = new LongAdder();
+    private final LongAdder loadFailures = new LongAdder();
+    private final LongAdder loadNanos = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+    private final LongAdder writes = new LongAdder();
+    private final LongAdder writeFailures = new LongAdder();
+
+    private record Entry(FileBinding<TrackedGsonData> binding, long weight) {
+    }
+
+    /**
+     * Counters since store creation
+     * @param hits count of requests served from cache
+     * @param misses count of requests that waited for file read
+     * @param loads count of file reads
+     * @param loadFailures count of failed file reads
+     * @param loadNanos total time of file reads
+     * @param evictions count of evicted holders
+     * @param writes count of written files
+     * @param writeFailures count of failed writes of evicted holders, they are retried by {@link #flush()}
+     */
+    public record Stats(long hits, long misses, long loads, long loadFailures, long loadNanos,
+                        long evictions, long writes, long writeFailures) {
+
+        public double hitRate() {
+            var requests = hits + misses;
+            return requests == 0 ? 1 : (double) hits / requests;
+        }
+
+        public double averageLoadNanos() {
+            return loads == 0 ? 0 : (double) loadNanos / loads;
+        }
+    }
+
+    /**
+     * @param folder folder of files
+     * @param readerOptions options of file reading
+     * @param writerOptions options of file writing
+     * @param maxWeight max total weight of cached holders
+     * @param weigher weight of holder, must not be negative
+     */
+    public DataStore(File folder, ReaderOptions readerOptions, WriterOptions writerOptions,
+                     long maxWeight, ToLongFunction<GsonData> weigher) {
+        if (maxWeight < 0) throw new IllegalArgumentException("Max weight must not be negative");
+        this.folder = folder;
+        this.readerOptions = readerOptions;
+        this.writerOptions = writerOptions;
+        this.maxWeight = maxWeight;
+        this.weigher = weigher;
+    }
+
+    /**
+     * Store that caches at most {@code maxEntries} holders
+     */
+    public DataStore(File folder, int maxEntries) {
+        this(folder, ReaderOptions.DEFAULT, JsonIo.DEFAULT_OPTIONS, maxEntries, d -> 1);
+    }
+
+    public File getFolder() {
+        return folder;
+    }
+
+    /**
+     * @param id id of holder
+     * @return file of holder
+     * @throws IllegalArgumentException if id is empty or is not plain file name
+     */
+    public File getFile(String id) {
+        if (id.isEmpty() || id.equals(".") || id.equals("..") || id.indexOf('/') >= 0 || id.indexOf('\\') >= 0) {
+            throw new IllegalArgumentException("Invalid id '" + id + "'");
+        }
+        return new File(folder, id + EXTENSION);
+    }
+
+    /**
+     * @param id id of holder
+     * @return cached or loaded holder, null if file does not exist
+     * @throws RuntimeException if reading failed
+     */
+    public TrackedGsonData get(String id) {
+        var e = getEntry(id, false);
+        return e != null ? e.binding().getHolder() : null;
+    }
+
+    /**
+     * @param id id of holder
+     * @return cached or loaded holder, new empty holder if file does not exist
+     * @throws RuntimeException if reading failed
+     */
+    public TrackedGsonData getOrCreate(String id) {
+        return getEntry(id, true).binding().getHolder();
+    }
+
+    /**
+     * @param id id of holder
+     * @return true if holder is cached or its file exists
+     */
+    public boolean contains(String id) {
+        synchronized (cache) {
+            if (cache.containsKey(id)) return true;
+        }
+        return writing.containsKey(id) || getFile(id).isFile();
+    }
+
+    private Entry getEntry(String id, boolean create) {
+        var file = getFile(id);
+        synchronized (cache) {
+            var e = cache.get(id);
+            if (e != null) {
+                hits.increment();
+                return e;
+            }
+        }
+        var pending = writing.get(id);
+        if (pending != null) {
+            hits.increment();
+            return cache(id, pending);
+        }
+        misses.increment();
+        var future = new CompletableFuture<Entry>();
+        var existing = loading.putIfAbsent(id, future);
+        if (existing != null) {
+            var e = join(existing);
+            return e != null || !create ? e : getEntry(id, true);
+        }
+        Entry e;
+        try {
+            e = loadEntry(id, file, create);
+        } catch (RuntimeException | Error ex) {
+            // waiting and later requests must not be left with unfinished future
+            loading.remove(id);
+            future.completeExceptionally(ex);
+            throw ex;
+        }
+        loading.remove(id);
+        future.complete(e);
+        return e;
+    }
+
+    /**
+     * Loads entry and adds it to cache, called by thread which registered loading future
+     */
+    private Entry loadEntry(String id, File file, boolean create) {
+        Entry e;
+        Entry pending = null;
+        synchronized (cache) {
+            // loaded by other thread after first check
+            e = cache.get(id);
+            // or evicted after first check, then file may be stale until it is written
+            if (e == null) pending = writing.get(id);
+        }
+        if (e != null) return e;
+        if (pending != null) return cache(id, pending);
+        e = load(id, file);
+        if (e == null && create) {
+            var data = new TrackedGsonData();
+            e = new Entry(FileBinding.of(data, file, writerOptions), weigher.applyAsLong(data));
+        }
+        return e != null ? cache(id, e) : null;
+    }
+
+    private static Entry join(CompletableFuture<Entry> future) {
+        try {
+            return future.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException r) throw r;
+            throw e;
+        }
+    }
+
+    private Entry load(String id, File file) {
+        if (!file.isFile()) return null;
+        loads.increment();
+        var start = System.nanoTime();
+        try {
+            var read = JsonIo.read(file, readerOptions);
+            var data = read != null ? new TrackedGsonData(read.getRaw()) : new TrackedGsonData();
+            return new Entry(FileBinding.of(data, file, writerOptions), weigher.applyAsLong(data));
+        } catch (RuntimeException e) {
+            loadFailures.increment();
+            throw e;
+        } finally {
+            loadNanos.add(System.nanoTime() - start);
+        }
+    }
+
+    /**
+     * Adds entry to cache and evicts eldest entries over weight limit
+     * @return entry in cache, existing entry wins
+     */
+    private Entry cache(String id, Entry e) {
+        List<Map.Entry<String, Entry>> evicted = null;
+        synchronized (cache) {
+            var existing = cache.putIfAbsent(id, e);
+            if (existing != null) return existing;
+            weight += e.weight();
+            var it = cache.entrySet().iterator();
+            while (weight > maxWeight && it.hasNext()) {
+                var eldest = it.next();
+                // newly added entry is kept even if it is over limit alone
+                if (eldest.getValue() == e) continue;
+                it.remove();
+                weight -= eldest.getValue().weight();
+                evictions.increment();
+                if (eldest.getValue().binding().isDirty()) {
+                    if (evicted == null) evicted = new ArrayList<>();
+                    evicted.add(eldest);
+                    writing.put(eldest.getKey(), eldest.getValue());
+                }
+            }
+        }
+        if (evicted != null) {
+            // failed entries stay pending until flush or next request
+            for (var ev : evicted) {
+                try {
+                    save(ev.getValue());
+                } catch (RuntimeException ex) {
+                    // not thrown to request of other holder
+                    writeFailures.increment();
+                    continue;
+                }
+                writing.remove(ev.getKey(), ev.getValue());
+            }
+        }
+        return e;
+    }
+
+    private void save(Entry e) {
+        if (e.binding().save()) writes.increment();
+    }
+
+    /**
+     * Removes holder from cache without writing it
+     * @param id id of holder
+     */
+    public void invalidate(String id) {
+        synchronized (cache) {
+            var e = cache.remove(id);
+            if (e != null) weight -= e.weight();
+        }
+    }
+
+    /**
+     * Writes modified cached holders and evicted holders which were not written yet
+     * @throws RuntimeException if writing of some holder failed, other holders are still written
+     */
+    public void flush() {
+        List<Entry> entries;
+        synchronized (cache) {
+            entries = new ArrayList<>(cache.values());
+        }
+        RuntimeException error = null;
+        for (var e : entries) {
+            try {
+                save(e);
+            } catch (RuntimeException ex) {
+                if (error == null) error = ex;
+                else error.addSuppressed(ex);
+            }
+        }
+        for (var e : writing.entrySet()) {
+            try {
+                save(e.getValue());
+                writing.remove(e.getKey(), e.getValue());
+            } catch (RuntimeException ex) {
+                if (error == null) error = ex;
+                else error.addSuppressed(ex);
+            }
+        }
+        if (error != null) throw error;
+    }
+
+    /**
+     * @return count of cached holders
+     */
+    public int size() {
+        synchronized (cache) {
+            return cache.size();
+        }
+    }
+
+    /**
+     * @return total weight of cached holders
+     */
+    public long getWeight() {
+        synchronized (cache) {
+            return weight;
+        }
+    }
+
+    public Stats getStats() {
+        return new Stats(hits.sum(), misses.sum(), loads.sum(), loadFailures.sum(), loadNanos.sum(),
+                evictions.sum(), writes.sum(), writeFailures.sum());
+    }
+
+    /**
+     * Writes modified holders and clears cache
+     */
+    @Override
+    public void close() {
+        flush();
+        synchronized (cache) {
+            cache.clear();
+            weight = 0;
+        }
+    }
+}
@@ -0,0 +1,115 @@
+package xyz.bobkinn.indigodataio.gson.io;
+
+import xyz.bobkinn.indigodataio.DataHolder;
+import xyz.bobkinn.indigodataio.DirtyTracker;
+import xyz.bobkinn.indigodataio.TrackedNestedKeyMap;
+import xyz.bobkinn.indigodataio.gson.TrackedGsonData;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+
+/**
+ * Holder bound to file that is written only when holder was modified.
+ * File is replaced atomically by writing temporary file in same folder and renaming it.
+ * Writing is synchronized on holder, so code that modifies holder from other threads should synchronize on it too
+ * @param <T> holder type
+ * @see WriteBehindScheduler
+ * @since 3.1.0
+ */
+public final class FileBinding<T extends DataHolder<?, ?>> {
+
+    @FunctionalInterface
+    public interface Writer<T> {
+        void write(T holder, File to) throws IOException;
+    }
+
+    private final T holder;
+    private final DirtyTracker tracker;
+    private final File file;
+    private final Writer<T> writer;
+
+    /**
+     * @param holder holder
+     * @param tracker tracker of holder modifications
+     * @param file target file
+     * @param writer writes holder to given file
+     */
+    public FileBinding(T holder, DirtyTracker tracker, File file, Writer<T> writer) {
+        this.holder = holder;
+        this.tracker = tracker;
+        this.file = file;
+        this.writer = writer;
+    }
+
+    public static FileBinding<TrackedGsonData> of(TrackedGsonData data, File file, WriterOptions options) {
+        return new FileBinding<>(data, data.getTracker(), file, (h, f) -> JsonIo.write(h, f, options));
+    }
+
+    public static FileBinding<TrackedNestedKeyMap> of(TrackedNestedKeyMap map, File file, WriterOptions options) {
+        return new FileBinding<>(map, map.getTracker(), file, (h, f) -> JsonIo.write(h, f, options));
+    }
+
+    public T getHolder() {
+        return holder;
+    }
+
+    public DirtyTracker getTracker() {
+        return tracker;
+    }
+
+    public File getFile() {
+        return file;
+    }
+
+    public boolean isDirty() {
+        return tracker.isDirty();
+    }
+
+    /**
+     * Writes holder if it was modified since last save
+     * @return true if file was written
+     * @throws RuntimeException if writing failed, holder stays dirty
+     */
+    public boolean save() {
+        if (!tracker.isDirty()) return false;
+        saveNow();
+        return true;
+    }
+
+    /**
+     * Writes holder even if it was not modified
+     * @throws RuntimeException if writing failed, holder stays dirty
+     */
+    public void saveNow() {
+        synchronized (holder) {
+            var version = tracker.getVersion();
+            try {
+                writeAtomic();
+            } catch (IOException e) {
+                throw new RuntimeException("Failed to write file " + file, e);
+            }
+            tracker.markSaved(version);
+        }
+    }
+
+    private void writeAtomic() throws IOException {
+        var folder = file.getAbsoluteFile().getParentFile();
+        if (folder != null && !folder.isDirectory() && !folder.mkdirs()) {
+            throw new IOException("Failed to create folder " + folder);
+        }
+        var tmp = File.createTempFile(file.getName(), ".tmp", folder);
+        try {
+            writer.write(holder, tmp);
+            try {
+                Files.move(tmp.toPath(), file.toPath(), StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+            } catch (AtomicMoveNotSupportedException e) {
+                Files.move(tmp.toPath(), file.toPath(), StandardCopyOption.REPLACE_EXISTING);
+            }
+        } finally {
+            Files.deleteIfExists(tmp.toPath());
+        }
+    }
+}
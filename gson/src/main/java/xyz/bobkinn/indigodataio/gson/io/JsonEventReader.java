@@ -0,0 +1,96 @@
+package xyz.bobkinn.indigodataio.gson.io;
+
+import com.google.gson.JsonSyntaxException;
+import com.google.gson.ToNumberStrategy;
+import com.google.gson.stream.JsonReader;
+import lombok.Getter;
+import xyz.bobkinn.indigodataio.gson.GsonOps;
+import xyz.bobkinn.indigodataio.ops.DataVisitor;
+
+import java.io.IOException;
+import java.util.HashMap;
+
+/**
+ * Sends {@link JsonReader} tokens to {@link DataVisitor} without building {@link com.google.gson.JsonElement} tree.
+ * Events are same as visiting tree read by {@link JsonTreeReader} using {@link #getOps() ops},
+ * so value can be built directly by sink of other ops, like {@link xyz.bobkinn.indigodataio.ops.MapOps}.
+ * Instance is stateless and can be shared between threads
+ * @since 3.1.0
+ */
+@Getter
+public final class JsonEventReader {
+    public static final JsonEventReader DEFAULT = new JsonEventReader(ReaderOptions.DEFAULT, GsonOps.INSTANCE);
+
+    private final ReaderOptions options;
+    /**
+     * Ops that define how numbers are sent
+     */
+    private final GsonOps ops;
+
+    public JsonEventReader(ReaderOptions options, GsonOps ops) {
+        this.options = options;
+        this.ops = ops;
+    }
+
+    /**
+     * Reads next value from reader and sends it to visitor
+     * @param in reader, its lenient flag is set from options while reading
+     * @param visitor receiver of events
+     * @throws IOException if reading failed or json is malformed
+     */
+    public void read(JsonReader in, DataVisitor visitor) throws IOException {
+        var lenient = in.isLenient();
+        in.setLenient(options.isLenient());
+        try {
+            read0(in, visitor);
+        } finally {
+            in.setLenient(lenient);
+        }
+    }
+
+    private void read0(JsonReader in, DataVisitor visitor) throws IOException {
+        final ToNumberStrategy numbers = options.getNumberStrategy();
+        final var keys = options.isDeduplicateKeys() ? new HashMap<String, String>() : null;
+        int depth = 0;
+        do {
+            switch (in.peek()) {
+                case BEGIN_OBJECT -> {
+                    in.beginObject();
+                    visitor.beginMap(-1);
+                    depth++;
+                }
+                case END_OBJECT -> {
+                    in.endObject();
+                    visitor.endMap();
+                    depth--;
+                }
+                case BEGIN_ARRAY -> {
+                    in.beginArray();
+                    visitor.beginList(-1);
+                    depth++;
+                }
+                case END_ARRAY -> {
+                    in.endArray();
+                    visitor.endList();
+                    depth--;
+                }
+                case NAME -> {
+                    var name = in.nextName();
+                    if (keys != null) {
+                        var prev = keys.putIfAbsent(name, name);
+                        if (prev != null) name = prev;
+                    }
+                    visitor.visitKey(name);
+                }
+                case STRING -> visitor.visitString(in.nextString());
+                case NUMBER -> ops.visitNumber(numbers.readNumber(in), visitor);
+                case BOOLEAN -> visitor.visitBoolean(in.nextBoolean());
+                case NULL -> {
+                    in.nextNull();
+                    visitor.visitNull();
+                }
+                default -> throw new JsonSyntaxException("Unexpected token " + in.peek() + " at " + in.getPath());
+            }
+        } while (depth > 0);
+    }
+}
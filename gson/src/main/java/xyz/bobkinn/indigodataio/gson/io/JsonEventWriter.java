@@ -0,0 +1,150 @@
+package xyz.bobkinn.indigodataio.gson.io;
+
+import com.google.gson.JsonIOException;
+import com.google.gson.stream.JsonWriter;
+import xyz.bobkinn.indigodataio.ops.DataVisitor;
+
+import java.io.IOException;
+
+/**
+ * Visitor that writes received events to {@link JsonWriter}, so values of any ops can be written
+ * without building {@link com.google.gson.JsonElement} tree first.
+ * Output is same as writing converted tree with {@link JsonTreeWriter}.
+ * Errors of writer are rethrown as {@link JsonIOException}
+ * @since 3.1.0
+ */
+public class JsonEventWriter implements DataVisitor {
+    private final JsonWriter out;
+
+    public JsonEventWriter(JsonWriter out) {
+        this.out = out;
+    }
+
+    public JsonWriter getWriter() {
+        return out;
+    }
+
+    private static JsonIOException wrap(IOException e) {
+        return new JsonIOException(e);
+    }
+
+    @Override
+    public void visitNull() {
+        try {
+            out.nullValue();
+        } catch (IOException e) {
+            throw wrap(e);
+        }
+    }
+
+    @Override
+    public void visitString(String value) {
+        try {
+            out.value(value);
+        } catch (IOException e) {
+            throw wrap(e);
+        }
+    }
+
+    @Override
+    public void visitBoolean(boolean value) {
+        try {
+            out.value(value);
+        } catch (IOException e) {
+            throw wrap(e);
+        }
+    }
+
+    @Override
+    public void visitByte(byte value) {
+        visitLong(value);
+    }
+
+    @Override
+    public void visitShort(short value) {
+        visitLong(value);
+    }
+
+    @Override
+    public void visitInt(int value) {
+        visitLong(value);
+    }
+
+    @Override
+    public void visitLong(long value) {
+        try {
+            out.value(value);
+        } catch (IOException e) {
+            throw wrap(e);
+        }
+    }
+
+    @Override
+    public void visitFloat(float value) {
+        // Float.toString, same as JsonPrimitive with float
+        visitNumber(value);
+    }
+
+    @Override
+    public void visitDouble(double value) {
+        try {
+            out.value(value);
+        } catch (IOException e) {
+            throw wrap(e);
+        }
+    }
+
+    @Override
+    public void visitNumber(Number value) {
+        try {
+            out.value(value);
+        } catch (IOException e) {
+            throw wrap(e);
+        }
+    }
+
+    @Override
+    public void beginMap(int sizeHint) {
+        try {
+            out.beginObject();
+        } catch (IOException e) {
+            throw wrap(e);
+        }
+    }
+
+    @Override
+    public void visitKey(String key) {
+        try {
+            out.name(key);
+        } catch (IOException e) {
+            throw wrap(e);
+        }
+    }
+
+    @Override
+    public void endMap() {
+        try {
+            out.endObject();
+        } catch (IOException e) {
+            throw wrap(e);
+        }
+    }
+
+    @Override
+    public void beginList(int sizeHint) {
+        try {
+            out.beginArray();
+        } catch (IOException e) {
+            throw wrap(e);
+        }
+    }
+
+    @Override
+    public void endList() {
+        try {
+            out.endArray();
+        } catch (IOException e) {
+            throw wrap(e);
+        }
+    }
+}
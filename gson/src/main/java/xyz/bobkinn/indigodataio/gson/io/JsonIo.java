@@ -2,11 +2,24 @@ package xyz.bobkinn.indigodataio.gson.io;
 
 import com.google.gson.*;
 import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
 import com.google.gson.stream.JsonWriter;
+import com.google.gson.stream.MalformedJsonException;
+import xyz.bobkinn.indigodataio.DataPath;
+import xyz.bobkinn.indigodataio.NestedKeyMap;
 import xyz.bobkinn.indigodataio.gson.GsonData;
+import xyz.bobkinn.indigodataio.gson.GsonOps;
+import xyz.bobkinn.indigodataio.gson.LazyGsonData;
+import xyz.bobkinn.indigodataio.ops.ArrayPackingVisitor;
+import xyz.bobkinn.indigodataio.ops.MapOps;
 
 import java.io.*;
 import java.lang.reflect.Type;
+import java.nio.charset.StandardCharsets;
+import java.util.Collection;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.stream.Stream;
 
 @SuppressWarnings("unused")
 public class JsonIo {
@@ -33,16 +46,32 @@ public class JsonIo {
             .registerTypeAdapter(GsonData.class, ADAPTER)
             .create();
 
-    private static void createParentFolder(File folder){
+    private static final ThreadLocal<Utf8JsonWriter> UTF8_WRITER = ThreadLocal.withInitial(Utf8JsonWriter::new);
+
+    static void createParentFolder(File folder){
         if (folder == null) return;
         if (!folder.isDirectory()) if (!folder.mkdirs()) throw new IllegalStateException("Failed to create folder "+folder);
     }
 
+    /**
+     * Writes data to file. UTF-8 output is encoded directly to bytes using {@link Utf8JsonWriter}
+     * @param data data
+     * @param to file
+     * @param options writer options
+     */
     public static void write(GsonData data, File to, WriterOptions options){
         createParentFolder(to.getParentFile());
-        try (var wr = new JsonWriter(new BufferedWriter(new FileWriter(to, options.getCharset())))) {
+        if (options.getCharset().equals(StandardCharsets.UTF_8)) {
+            try (var ch = options.openChannel(to, false)) {
+                UTF8_WRITER.get().write(data.getRaw(), options, ch);
+            } catch (IOException e){
+                throw new RuntimeException("Failed to write file "+to, e);
+            }
+            return;
+        }
+        try (var wr = new JsonWriter(options.open(to))) {
             options.apply(wr);
-            GSON.toJson(data, GsonData.class, wr);
+            JsonTreeWriter.write(JsonTreeWriter.configure(wr), data.getRaw());
         } catch (JsonIOException e){
             throw new RuntimeException("Failed to write json to "+to, e);
         } catch (IOException e){
@@ -54,19 +83,235 @@ public class JsonIo {
         write(data, to, DEFAULT_OPTIONS);
     }
 
-    public static GsonData read(File from, WriterOptions options){
+    /**
+     * Reads file using {@link JsonTreeReader}
+     * @param from file
+     * @param options reader options
+     * @return read data or null if file is empty
+     * @throws JsonParseException if file is not valid json or top-level value is not object
+     * @see ReaderOptions#setSnapshotCache(SnapshotCache)
+     * @since 3.1.0
+     */
+    public static GsonData read(File from, ReaderOptions options){
         if (!from.isFile()) throw new IllegalArgumentException("File "+from+" does not exists or is directory");
-        try (var r = new JsonReader(new BufferedReader(new FileReader(from, options.getCharset())))) {
-            return GSON.fromJson(r, GsonData.class);
-        } catch (JsonIOException e){
-            throw new RuntimeException("Failed to read json to "+from, e);
+        var cache = options.getSnapshotCache();
+        return cache != null ? cache.read(from, options) : parse(from, options);
+    }
+
+    static GsonData parse(File from, ReaderOptions options){
+        try (var r = new JsonReader(options.open(from))) {
+            return read(r, new JsonTreeReader(options));
+        } catch (IOException e){
+            throw new RuntimeException("Failed to read file "+from, e);
+        }
+    }
+
+    /**
+     * Reads object from reader, errors are reported same as {@link Gson#fromJson(JsonReader, Type)}
+     */
+    private static GsonData read(JsonReader r, JsonTreeReader reader) {
+        try {
+            r.peek();
+        } catch (EOFException e){
+            // empty document
+            return null;
+        } catch (IOException e){
+            throw new JsonSyntaxException(e);
+        }
+        try {
+            return new GsonData(reader.readObject(r));
+        } catch (IOException | IllegalStateException | NumberFormatException e){
+            throw new JsonSyntaxException(e);
+        }
+    }
+
+    /**
+     * Reads only values at paths and their parent objects, other values are skipped without parsing
+     * @param from file
+     * @param options reader options
+     * @param paths wanted paths, empty path reads whole file
+     * @return read data or null if file is empty
+     * @throws JsonParseException if file is not valid json or top-level value is not object
+     * @since 3.1.0
+     */
+    public static GsonData read(File from, ReaderOptions options, Collection<DataPath> paths){
+        if (!from.isFile()) throw new IllegalArgumentException("File "+from+" does not exists or is directory");
+        var filter = PathFilter.of(paths);
+        var reader = new JsonTreeReader(options);
+        try (var r = new JsonReader(options.open(from))) {
+            r.setLenient(options.isLenient());
+            try {
+                if (r.peek() != JsonToken.BEGIN_OBJECT) {
+                    throw new JsonParseException("JsonElement must be JsonObject to construct GsonData");
+                }
+            } catch (EOFException e){
+                // empty document
+                return null;
+            }
+            return new GsonData(filter.read(r, reader));
+        } catch (MalformedJsonException | IllegalStateException | NumberFormatException e){
+            throw new JsonSyntaxException(e);
         } catch (IOException e){
             throw new RuntimeException("Failed to read file "+from, e);
         }
     }
 
+    /**
+     * Reads only top-level keys, values are parsed on first access
+     * @param from file
+     * @param options reader options
+     * @return lazy data
+     * @see LazyGsonData
+     * @since 3.1.0
+     */
+    public static LazyGsonData readLazy(File from, ReaderOptions options){
+        if (!from.isFile()) throw new IllegalArgumentException("File "+from+" does not exists or is directory");
+        try {
+            return new LazyGsonData(from, options);
+        } catch (MalformedJsonException | IllegalStateException e){
+            throw new JsonSyntaxException(e);
+        } catch (IOException e){
+            throw new RuntimeException("Failed to read file "+from, e);
+        }
+    }
+
+    public static LazyGsonData readLazy(File from){
+        return readLazy(from, ReaderOptions.DEFAULT);
+    }
+
+    public static GsonData read(File from, WriterOptions options){
+        if (options.getCharset().equals(ReaderOptions.DEFAULT.getCharset())) return read(from, ReaderOptions.DEFAULT);
+        var ro = ReaderOptions.DEFAULT.copy();
+        ro.setCharset(options.getCharset());
+        return read(from, ro);
+    }
+
     public static GsonData read(File from){
-        return read(from, DEFAULT_OPTIONS);
+        return read(from, ReaderOptions.DEFAULT);
+    }
+
+    /**
+     * Reads file on {@link AsyncJsonIo#getDefault() default} async executor
+     * @since 3.1.0
+     */
+    public static CompletableFuture<GsonData> readAsync(File from){
+        return AsyncJsonIo.getDefault().read(from);
+    }
+
+    /**
+     * Writes file on {@link AsyncJsonIo#getDefault() default} async executor
+     * @since 3.1.0
+     */
+    public static CompletableFuture<Void> writeAsync(GsonData data, File to){
+        return AsyncJsonIo.getDefault().write(data, to);
+    }
+
+    /**
+     * Streams records of NDJSON file or file with top-level array. Stream must be closed
+     * @see RecordReader
+     * @since 3.1.0
+     */
+    public static Stream<GsonData> readRecords(File from){
+        return RecordReader.gson(from, ReaderOptions.DEFAULT, false).stream();
+    }
+
+    /**
+     * Writes map directly without building {@link JsonElement} tree.
+     * Output is same as writing map converted to {@link GsonData}
+     * @param data map
+     * @param to writer, not closed by this method
+     * @param options writer options, charset is ignored
+     * @throws JsonIOException if writing failed
+     * @since 3.1.0
+     */
+    public static void write(NestedKeyMap data, Writer to, WriterOptions options){
+        var wr = new JsonWriter(to);
+        options.apply(wr);
+        data.getOps().visit(data.getRaw(), new JsonEventWriter(JsonTreeWriter.configure(wr)));
+        try {
+            wr.flush();
+        } catch (IOException e){
+            throw new JsonIOException(e);
+        }
+    }
+
+    /**
+     * @param to stream, not closed by this method
+     * @see #write(NestedKeyMap, Writer, WriterOptions)
+     * @since 3.1.0
+     */
+    public static void write(NestedKeyMap data, OutputStream to, WriterOptions options){
+        write(data, new BufferedWriter(new OutputStreamWriter(to, options.getCharset())), options);
+    }
+
+    /**
+     * @see #write(NestedKeyMap, Writer, WriterOptions)
+     * @since 3.1.0
+     */
+    public static void write(NestedKeyMap data, File to, WriterOptions options){
+        createParentFolder(to.getParentFile());
+        try (var wr = options.open(to)) {
+            write(data, wr, options);
+        } catch (JsonIOException e){
+            throw new RuntimeException("Failed to write json to "+to, e);
+        } catch (IOException e){
+            throw new RuntimeException("Failed to write file "+to, e);
+        }
+    }
+
+    public static void write(NestedKeyMap data, File to){
+        write(data, to, DEFAULT_OPTIONS);
+    }
+
+    /**
+     * Reads json object directly into map without building {@link JsonElement} tree.
+     * Result is same as reading {@link GsonData} and converting it to map.
+     * If ops use {@link MapOps#isNativeArrays() native arrays}, lists of numbers are read as primitive arrays
+     * @param from reader, not closed by this method
+     * @param options reader options, charset is ignored
+     * @param ops ops of created map
+     * @return read map or null if document is empty
+     * @throws JsonParseException if json is not valid or top-level value is not object
+     * @since 3.1.0
+     */
+    public static NestedKeyMap readMap(Reader from, ReaderOptions options, MapOps ops){
+        var r = new JsonReader(from);
+        try {
+            if (r.peek() != JsonToken.BEGIN_OBJECT) {
+                throw new JsonParseException("Top-level value must be object to construct NestedKeyMap");
+            }
+        } catch (EOFException e){
+            // empty document
+            return null;
+        } catch (IOException e){
+            throw new JsonSyntaxException(e);
+        }
+        var sink = ops.sink();
+        try {
+            new JsonEventReader(options, GsonOps.INSTANCE).read(r, ops.isNativeArrays() ? new ArrayPackingVisitor(sink) : sink);
+        } catch (IOException | IllegalStateException | NumberFormatException e){
+            throw new JsonSyntaxException(e);
+        }
+        @SuppressWarnings("unchecked")
+        var map = (Map<String, Object>) sink.result();
+        return new NestedKeyMap(map, ops);
+    }
+
+    /**
+     * @see #readMap(Reader, ReaderOptions, MapOps)
+     * @since 3.1.0
+     */
+    public static NestedKeyMap readMap(File from, ReaderOptions options, MapOps ops){
+        if (!from.isFile()) throw new IllegalArgumentException("File "+from+" does not exists or is directory");
+        try (var r = options.open(from)) {
+            return readMap(r, options, ops);
+        } catch (IOException e){
+            throw new RuntimeException("Failed to read file "+from, e);
+        }
+    }
+
+    public static NestedKeyMap readMap(File from){
+        return readMap(from, ReaderOptions.DEFAULT, MapOps.INSTANCE);
     }
 
 }
@@ -0,0 +1,150 @@
+package xyz.bobkinn.indigodataio.gson.io;
+
+import com.google.gson.*;
+import com.google.gson.stream.JsonReader;
+import lombok.Getter;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Reads {@link JsonElement} tree directly from {@link JsonReader} tokens without {@link Gson} adapters.
+ * Arrays are created with exact capacity, object keys can be deduplicated and numbers are parsed
+ * using {@link ReaderOptions#getNumberStrategy()}. Instance is stateless and can be shared between threads
+ * @since 3.1.0
+ */
+@Getter
+public final class JsonTreeReader {
+    public static final JsonTreeReader DEFAULT = new JsonTreeReader(ReaderOptions.DEFAULT);
+
+    // primitives are immutable, so booleans can be shared
+    private static final JsonPrimitive TRUE = new JsonPrimitive(true);
+    private static final JsonPrimitive FALSE = new JsonPrimitive(false);
+
+    private final ReaderOptions options;
+
+    public JsonTreeReader(ReaderOptions options) {
+        this.options = options;
+    }
+
+    /**
+     * Reads next value from reader
+     * @param in reader, its lenient flag is set from options while reading
+     * @return read value
+     * @throws IOException if reading failed or json is malformed
+     */
+    public JsonElement read(JsonReader in) throws IOException {
+        var lenient = in.isLenient();
+        in.setLenient(options.isLenient());
+        try {
+            return new State(options).read(in);
+        } finally {
+            in.setLenient(lenient);
+        }
+    }
+
+    /**
+     * Reads next value that must be object
+     * @param in reader
+     * @return read object
+     * @throws JsonParseException if value is not object
+     * @throws IOException if reading failed or json is malformed
+     */
+    public JsonObject readObject(JsonReader in) throws IOException {
+        if (read(in) instanceof JsonObject o) return o;
+        throw new JsonParseException("JsonElement must be JsonObject to construct GsonData");
+    }
+
+    /**
+     * Stack of containers for one read
+     */
+    private static final class State {
+        private final ToNumberStrategy numbers;
+        private final Map<String, String> keys;
+        // JsonObject or Integer index of array element list
+        private Object[] containers = new Object[16];
+        private String[] names = new String[16];
+        // array elements are collected here and copied to exactly sized JsonArray on end
+        private final ArrayList<ArrayList<JsonElement>> lists = new ArrayList<>();
+        private int depth;
+
+        private State(ReaderOptions options) {
+            this.numbers = options.getNumberStrategy();
+            this.keys = options.isDeduplicateKeys() ? new HashMap<>() : null;
+        }
+
+        private void push(Object container) {
+            if (depth == containers.length) {
+                containers = Arrays.copyOf(containers, depth * 2);
+                names = Arrays.copyOf(names, depth * 2);
+            }
+            containers[depth++] = container;
+        }
+
+        private ArrayList<JsonElement> list(int index) {
+            while (lists.size() <= index) lists.add(new ArrayList<>());
+            return lists.get(index);
+        }
+
+        private JsonElement read(JsonReader in) throws IOException {
+            // count of open arrays, used as index of their element lists
+            int arrays = 0;
+            while (true) {
+                JsonElement value;
+                switch (in.peek()) {
+                    case BEGIN_OBJECT -> {
+                        in.beginObject();
+                        push(new JsonObject());
+                        continue;
+                    }
+                    case BEGIN_ARRAY -> {
+                        in.beginArray();
+                        push(arrays++);
+                        continue;
+                    }
+                    case NAME -> {
+                        var name = in.nextName();
+                        if (keys != null) {
+                            var prev = keys.putIfAbsent(name, name);
+                            if (prev != null) name = prev;
+                        }
+                        names[depth - 1] = name;
+                        continue;
+                    }
+                    case END_OBJECT -> {
+                        in.endObject();
+                        value = (JsonObject) containers[--depth];
+                        containers[depth] = null;
+                    }
+                    case END_ARRAY -> {
+                        in.endArray();
+                        containers[--depth] = null;
+                        var elements = list(--arrays);
+                        var array = new JsonArray(elements.size());
+                        for (var e : elements) array.add(e);
+                        elements.clear();
+                        value = array;
+                    }
+                    case STRING -> value = new JsonPrimitive(in.nextString());
+                    case NUMBER -> value = new JsonPrimitive(numbers.readNumber(in));
+                    case BOOLEAN -> value = in.nextBoolean() ? TRUE : FALSE;
+                    case NULL -> {
+                        in.nextNull();
+                        value = JsonNull.INSTANCE;
+                    }
+                    default -> throw new JsonSyntaxException("Unexpected token " + in.peek() + " at " + in.getPath());
+                }
+                if (depth == 0) return value;
+                var container = containers[depth - 1];
+                if (container instanceof JsonObject o) {
+                    o.add(names[depth - 1], value);
+                } else {
+                    list((Integer) container).add(value);
+                }
+            }
+        }
+    }
+}
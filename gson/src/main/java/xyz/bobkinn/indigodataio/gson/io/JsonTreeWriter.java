@@ -0,0 +1,59 @@
+package xyz.bobkinn.indigodataio.gson.io;
+
+import com.google.gson.*;
+import com.google.gson.stream.JsonWriter;
+
+import java.io.IOException;
+import java.util.Map;
+
+/**
+ * Writes {@link JsonElement} tree directly to {@link JsonWriter} without {@link Gson} adapters
+ * @since 3.1.0
+ */
+public final class JsonTreeWriter {
+
+    private JsonTreeWriter() {
+    }
+
+    /**
+     * Sets writer flags to same values that {@link JsonIo#GSON} uses
+     * @param out writer
+     * @return out
+     */
+    public static JsonWriter configure(JsonWriter out) {
+        out.setLenient(true);
+        out.setHtmlSafe(true);
+        // null object members are skipped
+        out.setSerializeNulls(false);
+        return out;
+    }
+
+    /**
+     * Writes value, output is equal to {@link Gson#toJson(JsonElement, JsonWriter)} with same writer settings
+     * @param out writer
+     * @param value value to write
+     * @throws IOException if writing failed
+     */
+    public static void write(JsonWriter out, JsonElement value) throws IOException {
+        if (value == null || value.isJsonNull()) {
+            out.nullValue();
+        } else if (value instanceof JsonPrimitive p) {
+            if (p.isNumber()) out.value(p.getAsNumber());
+            else if (p.isBoolean()) out.value(p.getAsBoolean());
+            else out.value(p.getAsString());
+        } else if (value instanceof JsonArray a) {
+            out.beginArray();
+            for (var e : a) write(out, e);
+            out.endArray();
+        } else if (value instanceof JsonObject o) {
+            out.beginObject();
+            for (Map.Entry<String, JsonElement> e : o.entrySet()) {
+                out.name(e.getKey());
+                write(out, e.getValue());
+            }
+            out.endObject();
+        } else {
+            throw new IllegalArgumentException("Couldn't write " + value.getClass());
+        }
+    }
+}
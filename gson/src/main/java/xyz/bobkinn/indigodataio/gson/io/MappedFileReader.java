@@ -0,0 +1,111 @@
+package xyz.bobkinn.indigodataio.gson.io;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.nio.CharBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.Charset;
+import java.nio.charset.CharsetDecoder;
+import java.nio.charset.CoderResult;
+import java.nio.charset.CodingErrorAction;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Reader that decodes memory-mapped file directly into buffer of caller, like {@link com.google.gson.stream.JsonReader},
+ * without intermediate byte and char buffers. File is mapped in windows, ASCII part of UTF-8 is copied without decoder.
+ * Mapped memory is released by garbage collector after reader is closed
+ * @since 3.1.0
+ */
+public class MappedFileReader extends Reader {
+    public static final int DEFAULT_WINDOW = 64 * 1024 * 1024;
+
+    private final FileChannel channel;
+    private final long fileSize;
+    private final int windowSize;
+    private final CharsetDecoder decoder;
+    private final boolean utf8;
+    private MappedByteBuffer window;
+    private long windowStart;
+    private boolean flushed;
+
+    /**
+     * @param file file to read
+     * @param charset charset of file
+     * @param windowSize max size of mapped part of file, must be at least 4 bytes
+     * @throws IOException if file can't be opened
+     */
+    public MappedFileReader(Path file, Charset charset, int windowSize) throws IOException {
+        if (windowSize < 4) throw new IllegalArgumentException("Window size must be at least 4 bytes");
+        this.channel = FileChannel.open(file, StandardOpenOption.READ);
+        this.fileSize = channel.size();
+        this.windowSize = windowSize;
+        this.decoder = charset.newDecoder()
+                .onMalformedInput(CodingErrorAction.REPLACE)
+                .onUnmappableCharacter(CodingErrorAction.REPLACE);
+        this.utf8 = charset.equals(StandardCharsets.UTF_8);
+        map(0);
+    }
+
+    public MappedFileReader(Path file, Charset charset) throws IOException {
+        this(file, charset, DEFAULT_WINDOW);
+    }
+
+    private void map(long start) throws IOException {
+        windowStart = start;
+        window = channel.map(FileChannel.MapMode.READ_ONLY, start, Math.min(windowSize, fileSize - start));
+    }
+
+    private boolean lastWindow() {
+        return windowStart + window.limit() >= fileSize;
+    }
+
+    @Override
+    public int read(char[] cbuf, int off, int len) throws IOException {
+        if (window == null) throw new IOException("Reader is closed");
+        if (len == 0) return 0;
+        if (flushed) return -1;
+        int end = off + len;
+        int i = off;
+        if (utf8) {
+            // ASCII fast path
+            var w = window;
+            int p = w.position();
+            int limit = Math.min(w.limit(), p + len);
+            while (p < limit) {
+                byte b = w.get(p);
+                if (b < 0) break;
+                cbuf[i++] = (char) b;
+                p++;
+            }
+            w.position(p);
+            if (i == end) return len;
+        }
+        var out = CharBuffer.wrap(cbuf, i, end - i);
+        while (out.hasRemaining()) {
+            var last = lastWindow();
+            CoderResult r = decoder.decode(window, out, last);
+            if (r.isOverflow()) break;
+            if (!last) {
+                // rest of window is partial char, map next window from it
+                map(windowStart + window.position());
+                continue;
+            }
+            if (!flushed) {
+                if (decoder.flush(out).isOverflow()) break;
+                flushed = true;
+            }
+            break;
+        }
+        int read = out.position() - off;
+        return read == 0 ? -1 : read;
+    }
+
+    @Override
+    public void close() throws IOException {
+        window = null;
+        channel.close();
+    }
+}
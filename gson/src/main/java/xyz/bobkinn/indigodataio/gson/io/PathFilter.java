@@ -0,0 +1,64 @@
+package xyz.bobkinn.indigodataio.gson.io;
+
+import com.google.gson.JsonObject;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
+import xyz.bobkinn.indigodataio.DataPath;
+
+import java.io.IOException;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Tree of wanted paths used to read only selected values, other values are skipped by tokenizer
+ */
+final class PathFilter {
+    private final Map<String, PathFilter> children = new HashMap<>();
+    /**
+     * True if whole value at this path is wanted
+     */
+    private boolean all;
+
+    static PathFilter of(Collection<DataPath> paths) {
+        var root = new PathFilter();
+        for (var path : paths) {
+            var node = root;
+            for (int i = 0; i < path.size() && !node.all; i++) {
+                // empty segment ends path same as in holders, so empty path is whole object
+                if (path.get(i).isEmpty()) break;
+                node = node.children.computeIfAbsent(path.get(i), k -> new PathFilter());
+            }
+            node.all = true;
+        }
+        return root;
+    }
+
+    /**
+     * Reads object at current position keeping only wanted values
+     * @param in reader at begin of object
+     * @param reader reader of wanted values
+     * @return read object
+     */
+    JsonObject read(JsonReader in, JsonTreeReader reader) throws IOException {
+        if (all) return reader.read(in).getAsJsonObject();
+        var ret = new JsonObject();
+        in.beginObject();
+        while (in.hasNext()) {
+            var name = in.nextName();
+            var child = children.get(name);
+            if (child == null) {
+                in.skipValue();
+            } else if (child.all) {
+                ret.add(name, reader.read(in));
+            } else if (in.peek() == JsonToken.BEGIN_OBJECT) {
+                ret.add(name, child.read(in, reader));
+            } else {
+                // value can't contain wanted path
+                in.skipValue();
+            }
+        }
+        in.endObject();
+        return ret;
+    }
+}
@@ -0,0 +1,93 @@
+package xyz.bobkinn.indigodataio.gson.io;
+
+import com.google.gson.ToNumberPolicy;
+import com.google.gson.ToNumberStrategy;
+import lombok.Getter;
+import lombok.NonNull;
+import lombok.Setter;
+
+import java.io.*;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Options of {@link JsonTreeReader}
+ * @since 3.1.0
+ */
+@Getter
+@Setter
+public class ReaderOptions {
+    /**
+     * Reads same tree as {@link JsonIo#GSON}
+     */
+    public static final ReaderOptions DEFAULT = new ReaderOptions();
+
+    @NonNull
+    private Charset charset = StandardCharsets.UTF_8;
+    /**
+     * Strategy used to parse numbers. Default keeps number text and parses it on access
+     */
+    @NonNull
+    private ToNumberStrategy numberStrategy = ToNumberPolicy.LAZILY_PARSED_NUMBER;
+    /**
+     * If true, equal object keys in one document share the same string instance
+     */
+    private boolean deduplicateKeys = true;
+    private boolean lenient = true;
+    /**
+     * If true, files are read using {@link MappedFileReader}
+     */
+    private boolean memoryMapped = false;
+    /**
+     * If true, gzip and deflate compressed files are detected by magic bytes and decompressed
+     */
+    private boolean decompress = true;
+    /**
+     * Size of input buffers
+     */
+    private int bufferSize = 8192;
+    /**
+     * Cache used by {@link JsonIo#read(File, ReaderOptions)}, null to always parse files
+     */
+    private SnapshotCache snapshotCache = null;
+
+    public void setBufferSize(int bufferSize) {
+        if (bufferSize <= 0) throw new IllegalArgumentException("Buffer size must be positive");
+        this.bufferSize = bufferSize;
+    }
+
+    /**
+     * Opens reader of file using charset and input mode of this options.
+     * Compressed files are decompressed while reading and are never memory mapped
+     * @param file file
+     * @return new reader
+     * @throws IOException if file can't be opened
+     */
+    public Reader open(File file) throws IOException {
+        var in = new BufferedInputStream(new FileInputStream(file), bufferSize);
+        try {
+            var compression = decompress ? Compression.detect(in) : Compression.NONE;
+            if (compression == Compression.NONE && memoryMapped) {
+                in.close();
+                return new MappedFileReader(file.toPath(), charset);
+            }
+            return new BufferedReader(new InputStreamReader(compression.wrap(in, bufferSize), charset), bufferSize);
+        } catch (IOException e) {
+            in.close();
+            throw e;
+        }
+    }
+
+    public ReaderOptions copy() {
+        var ret = new ReaderOptions();
+        ret.charset = charset;
+        ret.numberStrategy = numberStrategy;
+        ret.deduplicateKeys = deduplicateKeys;
+        ret.lenient = lenient;
+        ret.memoryMapped = memoryMapped;
+        ret.decompress = decompress;
+        ret.bufferSize = bufferSize;
+        ret.snapshotCache = snapshotCache;
+        return ret;
+    }
+}
@@ -0,0 +1,16 @@
+package xyz.bobkinn.indigodataio.gson.io;
+
+/**
+ * Layout of file with many json records
+ * @since 3.1.0
+ */
+public enum RecordFormat {
+    /**
+     * One record per line, also known as JSON Lines
+     */
+    NDJSON,
+    /**
+     * Records are elements of top-level array
+     */
+    JSON_ARRAY
+}
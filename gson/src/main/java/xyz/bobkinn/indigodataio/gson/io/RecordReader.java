@@ -0,0 +1,249 @@
+package xyz.bobkinn.indigodataio.gson.io;
+
+import com.google.gson.JsonIOException;
+import com.google.gson.JsonParseException;
+import com.google.gson.JsonSyntaxException;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
+import com.google.gson.stream.MalformedJsonException;
+import xyz.bobkinn.indigodataio.NestedKeyMap;
+import xyz.bobkinn.indigodataio.gson.GsonData;
+import xyz.bobkinn.indigodataio.gson.GsonOps;
+import xyz.bobkinn.indigodataio.ops.ArrayPackingVisitor;
+import xyz.bobkinn.indigodataio.ops.MapOps;
+
+import java.io.*;
+import java.util.*;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+/**
+ * Iterates json records one by one, so memory usage does not depend on count of records.
+ * {@link RecordFormat Format} is detected from first token: top-level array is read as {@link RecordFormat#JSON_ARRAY},
+ * object is read as first of {@link RecordFormat#NDJSON} records. Each record must be object.<br>
+ * If holder reuse is enabled, same cleared holder is returned for each record, so it is valid only until next record.<br>
+ * Errors are thrown as {@link JsonSyntaxException} for malformed json and {@link JsonIOException} for failed reading
+ * @param <T> holder type
+ * @since 3.1.0
+ */
+public abstract class RecordReader<T> implements Iterator<T>, Closeable {
+    private final JsonReader in;
+    protected final ReaderOptions options;
+    private final boolean reuse;
+    private T holder;
+    private RecordFormat format;
+    private boolean finished;
+    private long count;
+
+    protected RecordReader(Reader from, ReaderOptions options, boolean reuse) {
+        this.in = new JsonReader(from);
+        // lenient mode allows many top-level values, records are read with lenient flag of options
+        in.setLenient(true);
+        this.options = options;
+        this.reuse = reuse;
+    }
+
+    /**
+     * @param from reader, closed by {@link #close()}
+     * @param options reader options, charset is ignored
+     * @param reuse return same holder for each record
+     * @return reader of {@link GsonData} records
+     */
+    public static RecordReader<GsonData> gson(Reader from, ReaderOptions options, boolean reuse) {
+        return new GsonRecords(from, options, reuse);
+    }
+
+    public static RecordReader<GsonData> gson(File from, ReaderOptions options, boolean reuse) {
+        return gson(open(from, options), options, reuse);
+    }
+
+    /**
+     * @param from reader, closed by {@link #close()}
+     * @param options reader options, charset is ignored
+     * @param ops ops of created maps, if it uses native arrays lists of numbers are read as primitive arrays
+     * @param reuse return same holder for each record
+     * @return reader of {@link NestedKeyMap} records
+     */
+    public static RecordReader<NestedKeyMap> map(Reader from, ReaderOptions options, MapOps ops, boolean reuse) {
+        return new MapRecords(from, options, ops, reuse);
+    }
+
+    public static RecordReader<NestedKeyMap> map(File from, ReaderOptions options, MapOps ops, boolean reuse) {
+        return map(open(from, options), options, ops, reuse);
+    }
+
+    private static Reader open(File from, ReaderOptions options) {
+        if (!from.isFile()) throw new IllegalArgumentException("File "+from+" does not exists or is directory");
+        try {
+            return options.open(from);
+        } catch (IOException e) {
+            throw new RuntimeException("Failed to read file "+from, e);
+        }
+    }
+
+    /**
+     * @return new empty holder
+     */
+    protected abstract T newHolder();
+
+    protected abstract void clear(T holder);
+
+    /**
+     * Reads value of top-level key to holder
+     * @param in reader positioned at value
+     * @param holder holder
+     * @param key key
+     */
+    protected abstract void readEntry(JsonReader in, T holder, String key) throws IOException;
+
+    /**
+     * @return detected format or null if no token was read yet
+     */
+    public RecordFormat getFormat() {
+        return format;
+    }
+
+    /**
+     * @return count of read records
+     */
+    public long getCount() {
+        return count;
+    }
+
+    @Override
+    public boolean hasNext() {
+        if (finished) return false;
+        try {
+            if (format == null) {
+                JsonToken first;
+                try {
+                    first = in.peek();
+                } catch (EOFException e) {
+                    // empty document
+                    finished = true;
+                    return false;
+                }
+                if (first == JsonToken.BEGIN_ARRAY) {
+                    in.beginArray();
+                    format = RecordFormat.JSON_ARRAY;
+                } else {
+                    format = RecordFormat.NDJSON;
+                }
+            }
+            if (format == RecordFormat.JSON_ARRAY) {
+                if (in.hasNext()) return true;
+                in.endArray();
+                finished = true;
+                return false;
+            }
+            if (in.peek() != JsonToken.END_DOCUMENT) return true;
+            finished = true;
+            return false;
+        } catch (MalformedJsonException | IllegalStateException e) {
+            throw new JsonSyntaxException(e);
+        } catch (IOException e) {
+            throw new JsonIOException(e);
+        }
+    }
+
+    @Override
+    public T next() {
+        if (!hasNext()) throw new NoSuchElementException();
+        T ret;
+        if (reuse && holder != null) {
+            ret = holder;
+            clear(ret);
+        } else {
+            ret = newHolder();
+            if (reuse) holder = ret;
+        }
+        try {
+            if (in.peek() != JsonToken.BEGIN_OBJECT) {
+                throw new JsonParseException("Record " + count + " is not object");
+            }
+            in.setLenient(options.isLenient());
+            in.beginObject();
+            while (in.hasNext()) readEntry(in, ret, in.nextName());
+            in.endObject();
+            in.setLenient(true);
+        } catch (MalformedJsonException | IllegalStateException | NumberFormatException e) {
+            throw new JsonSyntaxException(e);
+        } catch (IOException e) {
+            throw new JsonIOException(e);
+        }
+        count++;
+        return ret;
+    }
+
+    /**
+     * @return sequential stream of remaining records, closing it closes this reader
+     */
+    public Stream<T> stream() {
+        var spliterator = Spliterators.spliteratorUnknownSize(this, Spliterator.ORDERED | Spliterator.NONNULL);
+        return StreamSupport.stream(spliterator, false).onClose(() -> {
+            try {
+                close();
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        });
+    }
+
+    @Override
+    public void close() throws IOException {
+        in.close();
+    }
+
+    private static final class GsonRecords extends RecordReader<GsonData> {
+        private final JsonTreeReader reader;
+
+        private GsonRecords(Reader from, ReaderOptions options, boolean reuse) {
+            super(from, options, reuse);
+            reader = new JsonTreeReader(options);
+        }
+
+        @Override
+        protected GsonData newHolder() {
+            return new GsonData();
+        }
+
+        @Override
+        protected void clear(GsonData holder) {
+            holder.clear();
+        }
+
+        @Override
+        protected void readEntry(JsonReader in, GsonData holder, String key) throws IOException {
+            holder.getRaw().add(key, reader.read(in));
+        }
+    }
+
+    private static final class MapRecords extends RecordReader<NestedKeyMap> {
+        private final JsonEventReader reader;
+        private final MapOps ops;
+
+        private MapRecords(Reader from, ReaderOptions options, MapOps ops, boolean reuse) {
+            super(from, options, reuse);
+            reader = new JsonEventReader(options, GsonOps.INSTANCE);
+            this.ops = ops;
+        }
+
+        @Override
+        protected NestedKeyMap newHolder() {
+            return new NestedKeyMap(new HashMap<>(), ops);
+        }
+
+        @Override
+        protected void clear(NestedKeyMap holder) {
+            // keeps table of map, so next record of similar size does not resize it
+            holder.clear();
+        }
+
+        @Override
+        protected void readEntry(JsonReader in, NestedKeyMap holder, String key) throws IOException {
+            var sink = ops.sink();
+            reader.read(in, ops.isNativeArrays() ? new ArrayPackingVisitor(sink) : sink);
+            holder.getRaw().put(key, sink.result());
+        }
+    }
+}
@@ -0,0 +1,141 @@
+package xyz.bobkinn.indigodataio.gson.io;
+
+import com.google.gson.JsonIOException;
+import com.google.gson.JsonObject;
+import com.google.gson.stream.JsonWriter;
+import xyz.bobkinn.indigodataio.NestedKeyMap;
+import xyz.bobkinn.indigodataio.gson.GsonData;
+
+import java.io.*;
+
+/**
+ * Writes json records one by one in {@link RecordFormat format} readable by {@link RecordReader}.
+ * {@link RecordFormat#NDJSON} records are always written minimized, one per line.
+ * {@link RecordFormat#JSON_ARRAY} array is closed by {@link #close()}.<br>
+ * Output is flushed after each {@code flushEvery} records, so readers of file see complete records.
+ * Errors are thrown as {@link JsonIOException}
+ * @since 3.1.0
+ */
+public class RecordWriter implements Closeable, Flushable {
+    public static final int DEFAULT_BUFFER_SIZE = 64 * 1024;
+
+    private final Writer out;
+    private final JsonWriter writer;
+    private final JsonEventWriter events;
+    private final RecordFormat format;
+    private final int flushEvery;
+    private int pending;
+    private long count;
+    private boolean closed;
+
+    /**
+     * @param to writer, closed by {@link #close()}
+     * @param format format
+     * @param options options used to indent {@link RecordFormat#JSON_ARRAY}, charset is ignored
+     * @param flushEvery count of records after which output is flushed, 0 to flush only when buffer is full
+     */
+    public RecordWriter(Writer to, RecordFormat format, WriterOptions options, int flushEvery) {
+        if (flushEvery < 0) throw new IllegalArgumentException("Flush count must not be negative");
+        this.out = to instanceof BufferedWriter ? to : new BufferedWriter(to, DEFAULT_BUFFER_SIZE);
+        this.writer = JsonTreeWriter.configure(new JsonWriter(out));
+        if (format == RecordFormat.JSON_ARRAY) options.apply(writer);
+        this.events = new JsonEventWriter(writer);
+        this.format = format;
+        this.flushEvery = flushEvery;
+        if (format == RecordFormat.JSON_ARRAY) {
+            try {
+                writer.beginArray();
+            } catch (IOException e) {
+                throw new JsonIOException(e);
+            }
+        }
+    }
+
+    /**
+     * Opens file for writing
+     * @param to file
+     * @param format format
+     * @param options writer options
+     * @param flushEvery count of records after which output is flushed
+     * @param append add records to end of existing {@link RecordFormat#NDJSON} file
+     * @return new writer
+     * @throws IllegalArgumentException if appending to {@link RecordFormat#JSON_ARRAY} file
+     */
+    public static RecordWriter open(File to, RecordFormat format, WriterOptions options, int flushEvery, boolean append) {
+        if (append && format != RecordFormat.NDJSON) {
+            throw new IllegalArgumentException("Only " + RecordFormat.NDJSON + " files can be appended");
+        }
+        JsonIo.createParentFolder(to.getParentFile());
+        try {
+            return new RecordWriter(options.open(to, append), format, options, flushEvery);
+        } catch (IOException e) {
+            throw new RuntimeException("Failed to write file "+to, e);
+        }
+    }
+
+    public RecordFormat getFormat() {
+        return format;
+    }
+
+    /**
+     * @return count of written records
+     */
+    public long getCount() {
+        return count;
+    }
+
+    public void write(JsonObject record) {
+        try {
+            JsonTreeWriter.write(writer, record);
+        } catch (IOException e) {
+            throw new JsonIOException(e);
+        }
+        afterRecord();
+    }
+
+    public void write(GsonData record) {
+        write(record.getRaw());
+    }
+
+    /**
+     * Writes map directly without building {@link JsonObject}
+     * @param record record
+     */
+    public void write(NestedKeyMap record) {
+        record.getOps().visit(record.getRaw(), events);
+        afterRecord();
+    }
+
+    private void afterRecord() {
+        try {
+            if (format == RecordFormat.NDJSON) out.write('\n');
+            count++;
+            if (flushEvery > 0 && ++pending >= flushEvery) flush();
+        } catch (IOException e) {
+            throw new JsonIOException(e);
+        }
+    }
+
+    @Override
+    public void flush() throws JsonIOException {
+        try {
+            writer.flush();
+        } catch (IOException e) {
+            throw new JsonIOException(e);
+        }
+        pending = 0;
+    }
+
+    @Override
+    public void close() throws IOException {
+        if (closed) return;
+        closed = true;
+        try {
+            if (format == RecordFormat.JSON_ARRAY) writer.endArray();
+            writer.flush();
+        } finally {
+            // JsonWriter fails to close document without values
+            out.close();
+        }
+    }
+}
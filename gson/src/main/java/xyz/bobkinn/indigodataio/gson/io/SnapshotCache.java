@@ -0,0 +1,197 @@
+package xyz.bobkinn.indigodataio.gson.io;
+
+import com.google.gson.JsonObject;
+import xyz.bobkinn.indigodataio.binary.BinaryIo;
+import xyz.bobkinn.indigodataio.gson.GsonData;
+import xyz.bobkinn.indigodataio.gson.GsonOps;
+
+import java.io.*;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.zip.CRC32C;
+
+/**
+ * Cache of parsed json files in binary format of {@code indigodataio-binary} module, which must be present at runtime.<br>
+ * Snapshot stores path, size, modification time and checksum of source file.
+ * When they match, snapshot is memory mapped and read instead of parsing json,
+ * otherwise file is parsed and snapshot is rewritten. Unreadable snapshots are treated as stale.<br>
+ * Values are stored using {@link GsonOps#PRESERVING}, so numbers keep their kind: integers are restored as long
+ * or {@link java.math.BigInteger} and decimals as double, {@link ReaderOptions#getNumberStrategy() number strategy}
+ * is not applied. Text of decimals may be normalized, like {@code 1e2} as {@code 100.0}.
+ * Enabled by {@link ReaderOptions#setSnapshotCache(SnapshotCache)}
+ * @since 3.1.0
+ */
+public class SnapshotCache {
+    public static final String EXTENSION = ".snapshot";
+    private static final int MAGIC = 0x49445343; // IDSC
+    private static final int VERSION = 2;
+
+    /**
+     * Folder of snapshots, null if they are stored near source files
+     */
+    private final File folder;
+    private final boolean verifyChecksum;
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+
+    /**
+     * @param folder folder of snapshots or null to store them near source files
+     * @param verifyChecksum if true, checksum of source is compared with snapshot, otherwise only size and time are compared
+     */
+    public SnapshotCache(File folder, boolean verifyChecksum) {
+        this.folder = folder;
+        this.verifyChecksum = verifyChecksum;
+    }
+
+    /**
+     * Cache that stores snapshots near source files and verifies checksum
+     */
+    public SnapshotCache() {
+        this(null, true);
+    }
+
+    public File getFolder() {
+        return folder;
+    }
+
+    public boolean isVerifyChecksum() {
+        return verifyChecksum;
+    }
+
+    /**
+     * @return count of reads served from snapshot
+     */
+    public long getHits() {
+        return hits.sum();
+    }
+
+    /**
+     * @return count of reads that parsed json
+     */
+    public long getMisses() {
+        return misses.sum();
+    }
+
+    /**
+     * @param source json file
+     * @return snapshot file of source
+     */
+    public File getSnapshotFile(File source) {
+        if (folder == null) return new File(source.getAbsoluteFile().getParentFile(), source.getName() + EXTENSION);
+        var path = source.getAbsolutePath();
+        return new File(folder, source.getName() + "-" + Integer.toHexString(path.hashCode()) + EXTENSION);
+    }
+
+    /**
+     * Deletes snapshot of source
+     * @param source json file
+     */
+    public void invalidate(File source) {
+        var file = getSnapshotFile(source);
+        if (file.exists() && !file.delete()) throw new IllegalStateException("Failed to delete snapshot " + file);
+    }
+
+    private record Key(String path, long size, long modified, long checksum) {
+    }
+
+    private Key key(File source) throws IOException {
+        var size = source.length();
+        var modified = source.lastModified();
+        long checksum = 0;
+        if (verifyChecksum) {
+            var crc = new CRC32C();
+            try (var ch = FileChannel.open(source.toPath(), StandardOpenOption.READ)) {
+                crc.update(ch.map(FileChannel.MapMode.READ_ONLY, 0, ch.size()));
+            }
+            checksum = crc.getValue();
+        }
+        return new Key(source.getAbsolutePath(), size, modified, checksum);
+    }
+
+    /**
+     * Reads source from snapshot or parses it and writes snapshot
+     * @param source json file
+     * @param options options used to parse source
+     * @return read data or null if file is empty
+     */
+    GsonData read(File source, ReaderOptions options) {
+        Key key;
+        try {
+            key = key(source);
+        } catch (IOException e) {
+            throw new RuntimeException("Failed to read file " + source, e);
+        }
+        var snapshot = getSnapshotFile(source);
+        var data = load(snapshot, key);
+        if (data != null) {
+            hits.increment();
+            return data;
+        }
+        misses.increment();
+        data = JsonIo.parse(source, options);
+        // skipped if source was changed while parsing
+        if (data != null && source.length() == key.size() && source.lastModified() == key.modified()) {
+            store(snapshot, key, data);
+        }
+        return data;
+    }
+
+    private static GsonData load(File snapshot, Key key) {
+        if (!snapshot.isFile()) return null;
+        try (var ch = FileChannel.open(snapshot.toPath(), StandardOpenOption.READ)) {
+            // header is read without mapping, so stale snapshot can be replaced on any platform
+            var in = new DataInputStream(Channels.newInputStream(ch));
+            if (in.readInt() != MAGIC || in.readUnsignedByte() != VERSION) return null;
+            var path = in.readNBytes(in.readUnsignedShort());
+            var read = new Key(new String(path, StandardCharsets.UTF_8), in.readLong(), in.readLong(), in.readLong());
+            if (!read.equals(key)) return null;
+            long offset = 4 + 1 + 2 + path.length + 3 * 8;
+            MappedByteBuffer buffer = ch.map(FileChannel.MapMode.READ_ONLY, offset, ch.size() - offset);
+            // top-level keys are not parsed as paths
+            if (BinaryIo.readValue(GsonOps.PRESERVING, buffer) instanceof JsonObject o) return new GsonData(o);
+            return null;
+        } catch (IOException | RuntimeException e) {
+            // corrupted or truncated snapshot
+            return null;
+        }
+    }
+
+    private void store(File snapshot, Key key, GsonData data) {
+        var path = key.path().getBytes(StandardCharsets.UTF_8);
+        if (path.length > 0xFFFF) return;
+        try {
+            var parent = snapshot.getParentFile();
+            if (!parent.isDirectory() && !parent.mkdirs()) return;
+            var tmp = File.createTempFile(snapshot.getName(), ".tmp", parent);
+            try {
+                try (var out = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(tmp)))) {
+                    out.writeInt(MAGIC);
+                    out.writeByte(VERSION);
+                    out.writeShort(path.length);
+                    out.write(path);
+                    out.writeLong(key.size());
+                    out.writeLong(key.modified());
+                    out.writeLong(key.checksum());
+                    BinaryIo.writeValue(GsonOps.PRESERVING, data.getRaw(), out);
+                }
+                try {
+                    Files.move(tmp.toPath(), snapshot.toPath(), StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+                } catch (AtomicMoveNotSupportedException e) {
+                    Files.move(tmp.toPath(), snapshot.toPath(), StandardCopyOption.REPLACE_EXISTING);
+                }
+            } finally {
+                Files.deleteIfExists(tmp.toPath());
+            }
+        } catch (IOException | UncheckedIOException e) {
+            // snapshot is only an optimization, source is parsed again next time
+        }
+    }
+}
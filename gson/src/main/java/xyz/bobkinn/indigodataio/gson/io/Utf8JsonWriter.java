@@ -0,0 +1,282 @@
+package xyz.bobkinn.indigodataio.gson.io;
+
+import com.google.gson.JsonArray;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonPrimitive;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.WritableByteChannel;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Writes {@link JsonElement} tree as UTF-8 bytes without {@link com.google.gson.stream.JsonWriter} and charset encoder.
+ * Output is equal to {@link JsonTreeWriter} with {@link JsonTreeWriter#configure(com.google.gson.stream.JsonWriter) same settings}
+ * and indent of {@link WriterOptions}.<br>
+ * Bytes are collected in reusable buffer, escaped keys are cached between writes.
+ * Instance is not thread-safe, but can be reused for many writes
+ * @since 3.1.0
+ */
+public final class Utf8JsonWriter {
+    private static final int MAX_CACHED_KEYS = 1024;
+    private static final int MAX_CACHED_KEY_LENGTH = 64;
+    private static final byte[] HEX = "0123456789abcdef".getBytes(StandardCharsets.US_ASCII);
+    private static final byte[] NULL = {'n', 'u', 'l', 'l'};
+    private static final byte[] TRUE = {'t', 'r', 'u', 'e'};
+    private static final byte[] FALSE = {'f', 'a', 'l', 's', 'e'};
+    /**
+     * Escape of ascii char, {@code null} if char is written as is.
+     * Same as html-safe replacements of JsonWriter
+     */
+    private static final byte[][] ESCAPES = new byte[128][];
+
+    static {
+        for (int c = 0; c < 0x20; c++) ESCAPES[c] = unicodeEscape((char) c);
+        ESCAPES['"'] = new byte[]{'\\', '"'};
+        ESCAPES['\\'] = new byte[]{'\\', '\\'};
+        ESCAPES['\t'] = new byte[]{'\\', 't'};
+        ESCAPES['\b'] = new byte[]{'\\', 'b'};
+        ESCAPES['\n'] = new byte[]{'\\', 'n'};
+        ESCAPES['\r'] = new byte[]{'\\', 'r'};
+        ESCAPES['\f'] = new byte[]{'\\', 'f'};
+        for (var c : "<>&='".toCharArray()) ESCAPES[c] = unicodeEscape(c);
+    }
+
+    private static byte[] unicodeEscape(char c) {
+        return new byte[]{'\\', 'u', HEX[c >> 12], HEX[(c >> 8) & 15], HEX[(c >> 4) & 15], HEX[c & 15]};
+    }
+
+    private interface Sink {
+        void write(byte[] b, int off, int len) throws IOException;
+    }
+
+    private final byte[] buffer;
+    private final Map<String, byte[]> keys = new HashMap<>();
+    private int pos;
+    private Sink sink;
+    private byte[] indent;
+    private byte[] nameSeparator;
+
+    /**
+     * @param bufferSize size of buffer, at least 32
+     */
+    public Utf8JsonWriter(int bufferSize) {
+        if (bufferSize < 32) throw new IllegalArgumentException("Buffer size must be at least 32");
+        this.buffer = new byte[bufferSize];
+    }
+
+    public Utf8JsonWriter() {
+        this(8192);
+    }
+
+    /**
+     * @param value value to write
+     * @param options options, charset must be UTF-8
+     * @param to channel, not closed by this method
+     * @throws IOException if writing failed
+     */
+    public void write(JsonElement value, WriterOptions options, WritableByteChannel to) throws IOException {
+        write(value, options, (b, off, len) -> {
+            var buf = ByteBuffer.wrap(b, off, len);
+            while (buf.hasRemaining()) to.write(buf);
+        });
+    }
+
+    /**
+     * @param value value to write
+     * @param options options, charset must be UTF-8
+     * @param to stream, not closed or flushed by this method
+     * @throws IOException if writing failed
+     */
+    public void write(JsonElement value, WriterOptions options, OutputStream to) throws IOException {
+        write(value, options, to::write);
+    }
+
+    private void write(JsonElement value, WriterOptions options, Sink to) throws IOException {
+        if (!options.getCharset().equals(StandardCharsets.UTF_8)) {
+            throw new IllegalArgumentException("Charset must be UTF-8, got " + options.getCharset());
+        }
+        var ind = options.getIndent();
+        indent = ind.isEmpty() ? null : ind.getBytes(StandardCharsets.UTF_8);
+        nameSeparator = indent == null ? new byte[]{':'} : new byte[]{':', ' '};
+        sink = to;
+        pos = 0;
+        try {
+            writeValue(value, 0);
+            flushBuffer();
+        } finally {
+            sink = null;
+        }
+    }
+
+    private void flushBuffer() throws IOException {
+        if (pos > 0) sink.write(buffer, 0, pos);
+        pos = 0;
+    }
+
+    private void put(byte b) throws IOException {
+        if (pos == buffer.length) flushBuffer();
+        buffer[pos++] = b;
+    }
+
+    private void put(byte[] b) throws IOException {
+        if (pos + b.length > buffer.length) {
+            flushBuffer();
+            if (b.length > buffer.length) {
+                sink.write(b, 0, b.length);
+                return;
+            }
+        }
+        System.arraycopy(b, 0, buffer, pos, b.length);
+        pos += b.length;
+    }
+
+    private void newline(int depth) throws IOException {
+        if (indent == null) return;
+        put((byte) '\n');
+        for (int i = 0; i < depth; i++) put(indent);
+    }
+
+    private void writeValue(JsonElement value, int depth) throws IOException {
+        if (value == null || value.isJsonNull()) {
+            put(NULL);
+        } else if (value instanceof JsonPrimitive p) {
+            if (p.isNumber()) writeNumber(p.getAsNumber());
+            else if (p.isBoolean()) put(p.getAsBoolean() ? TRUE : FALSE);
+            else writeString(p.getAsString());
+        } else if (value instanceof JsonArray a) {
+            put((byte) '[');
+            boolean empty = true;
+            for (var e : a) {
+                if (!empty) put((byte) ',');
+                newline(depth + 1);
+                writeValue(e, depth + 1);
+                empty = false;
+            }
+            if (!empty) newline(depth);
+            put((byte) ']');
+        } else if (value instanceof JsonObject o) {
+            put((byte) '{');
+            boolean empty = true;
+            for (Map.Entry<String, JsonElement> e : o.entrySet()) {
+                var v = e.getValue();
+                // null members are skipped
+                if (v == null || v.isJsonNull()) continue;
+                if (!empty) put((byte) ',');
+                newline(depth + 1);
+                writeKey(e.getKey());
+                put(nameSeparator);
+                writeValue(v, depth + 1);
+                empty = false;
+            }
+            if (!empty) newline(depth);
+            put((byte) '}');
+        } else {
+            throw new IllegalArgumentException("Couldn't write " + value.getClass());
+        }
+    }
+
+    private void writeKey(String key) throws IOException {
+        var bytes = keys.get(key);
+        if (bytes != null) {
+            put(bytes);
+            return;
+        }
+        int maxBytes = key.length() * 6 + 2;
+        if (key.length() > MAX_CACHED_KEY_LENGTH || maxBytes > buffer.length) {
+            writeString(key);
+            return;
+        }
+        // whole key fits into buffer, so its bytes can be copied from it
+        if (pos + maxBytes > buffer.length) flushBuffer();
+        int start = pos;
+        writeString(key);
+        if (keys.size() >= MAX_CACHED_KEYS) keys.clear();
+        keys.put(key, Arrays.copyOfRange(buffer, start, pos));
+    }
+
+    private void writeNumber(Number n) throws IOException {
+        if (n instanceof Integer || n instanceof Long || n instanceof Short || n instanceof Byte) {
+            writeLong(n.longValue());
+        } else {
+            // ascii only, same text as JsonWriter writes
+            var s = n.toString();
+            if (pos + s.length() > buffer.length) flushBuffer();
+            if (s.length() > buffer.length) {
+                put(s.getBytes(StandardCharsets.US_ASCII));
+                return;
+            }
+            for (int i = 0; i < s.length(); i++) buffer[pos++] = (byte) s.charAt(i);
+        }
+    }
+
+    private void writeLong(long v) throws IOException {
+        if (pos + 20 > buffer.length) flushBuffer();
+        if (v == Long.MIN_VALUE) {
+            for (var c : "-9223372036854775808".toCharArray()) buffer[pos++] = (byte) c;
+            return;
+        }
+        if (v < 0) {
+            buffer[pos++] = '-';
+            v = -v;
+        }
+        int digits = 1;
+        for (long t = v; t >= 10; t /= 10) digits++;
+        int end = pos + digits;
+        for (int i = end - 1; i >= pos; i--) {
+            buffer[i] = (byte) ('0' + v % 10);
+            v /= 10;
+        }
+        pos = end;
+    }
+
+    private void writeString(String s) throws IOException {
+        put((byte) '"');
+        int len = s.length();
+        // longest output of one char is 6 bytes of unicode escape
+        int limit = buffer.length - 6;
+        for (int i = 0; i < len; i++) {
+            if (pos > limit) flushBuffer();
+            char c = s.charAt(i);
+            if (c < 0x80) {
+                var esc = ESCAPES[c];
+                if (esc == null) {
+                    buffer[pos++] = (byte) c;
+                } else {
+                    System.arraycopy(esc, 0, buffer, pos, esc.length);
+                    pos += esc.length;
+                }
+            } else if (c < 0x800) {
+                buffer[pos++] = (byte) (0xC0 | c >> 6);
+                buffer[pos++] = (byte) (0x80 | c & 0x3F);
+            } else if (c == '\u2028' || c == '\u2029') {
+                var esc = unicodeEscape(c);
+                System.arraycopy(esc, 0, buffer, pos, esc.length);
+                pos += esc.length;
+            } else if (Character.isSurrogate(c)) {
+                char low;
+                if (Character.isHighSurrogate(c) && i + 1 < len && Character.isLowSurrogate(low = s.charAt(i + 1))) {
+                    int cp = Character.toCodePoint(c, low);
+                    buffer[pos++] = (byte) (0xF0 | cp >> 18);
+                    buffer[pos++] = (byte) (0x80 | cp >> 12 & 0x3F);
+                    buffer[pos++] = (byte) (0x80 | cp >> 6 & 0x3F);
+                    buffer[pos++] = (byte) (0x80 | cp & 0x3F);
+                    i++;
+                } else {
+                    // unpaired surrogate is replaced same as charset encoder does
+                    buffer[pos++] = '?';
+                }
+            } else {
+                buffer[pos++] = (byte) (0xE0 | c >> 12);
+                buffer[pos++] = (byte) (0x80 | c >> 6 & 0x3F);
+                buffer[pos++] = (byte) (0x80 | c & 0x3F);
+            }
+        }
+        put((byte) '"');
+    }
+}
@@ -0,0 +1,120 @@
+package xyz.bobkinn.indigodataio.gson.io;
+
+import lombok.NonNull;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.BiConsumer;
+
+/**
+ * Writes tracked {@link FileBinding}s some time after their holder is modified.
+ * Modifications made before scheduled write are written together, unmodified holders are never written.
+ * Failed write is reported to error handler and retried after next modification.
+ * Write that can't be scheduled because executor is shut down is reported to error handler too
+ * @since 3.1.0
+ */
+public class WriteBehindScheduler implements AutoCloseable {
+    private final ScheduledExecutorService executor;
+    private final boolean ownsExecutor;
+    private final long delayNanos;
+    private final Map<FileBinding<?>, AtomicBoolean> tracked = new ConcurrentHashMap<>();
+    private final BiConsumer<FileBinding<?>, RuntimeException> errorHandler;
+
+    /**
+     * @param executor executor that runs writes, not closed by {@link #close()}
+     * @param delay time between first modification and write
+     * @param errorHandler receives bindings which write failed or couldn't be scheduled
+     */
+    public WriteBehindScheduler(ScheduledExecutorService executor, long delay, TimeUnit unit,
+                                BiConsumer<FileBinding<?>, RuntimeException> errorHandler) {
+        this(executor, false, delay, unit, errorHandler);
+    }
+
+    /**
+     * Creates scheduler with own daemon thread
+     * @param delay time between first modification and write
+     * @param errorHandler receives bindings which write failed
+     */
+    public WriteBehindScheduler(long delay, TimeUnit unit, BiConsumer<FileBinding<?>, RuntimeException> errorHandler) {
+        this(Executors.newSingleThreadScheduledExecutor(r -> {
+            var t = new Thread(r, "JsonIo-write-behind");
+            t.setDaemon(true);
+            return t;
+        }), true, delay, unit, errorHandler);
+    }
+
+    private WriteBehindScheduler(@NonNull ScheduledExecutorService executor, boolean ownsExecutor, long delay, TimeUnit unit,
+                                 @NonNull BiConsumer<FileBinding<?>, RuntimeException> errorHandler) {
+        this.executor = executor;
+        this.ownsExecutor = ownsExecutor;
+        this.delayNanos = unit.toNanos(delay);
+        this.errorHandler = errorHandler;
+    }
+
+    /**
+     * Starts tracking binding, it is written later if it is already dirty.
+     * Tracker of binding can be used by one scheduler at time
+     * @param binding binding
+     */
+    public void track(FileBinding<?> binding) {
+        var scheduled = new AtomicBoolean();
+        if (tracked.putIfAbsent(binding, scheduled) != null) return;
+        binding.getTracker().setListener(() -> schedule(binding, scheduled));
+        if (binding.isDirty()) schedule(binding, scheduled);
+    }
+
+    /**
+     * Stops tracking binding without writing it
+     * @param binding binding
+     */
+    public void untrack(FileBinding<?> binding) {
+        if (tracked.remove(binding) != null) binding.getTracker().setListener(null);
+    }
+
+    private void schedule(FileBinding<?> binding, AtomicBoolean scheduled) {
+        if (!scheduled.compareAndSet(false, true)) return;
+        try {
+            executor.schedule(() -> {
+                // modifications during write schedule next write
+                scheduled.set(false);
+                save(binding);
+            }, delayNanos, TimeUnit.NANOSECONDS);
+        } catch (RejectedExecutionException e) {
+            // not thrown to code that modified holder, next modification tries again
+            scheduled.set(false);
+            errorHandler.accept(binding, e);
+        }
+    }
+
+    private void save(FileBinding<?> binding) {
+        try {
+            binding.save();
+        } catch (RuntimeException e) {
+            errorHandler.accept(binding, e);
+        }
+    }
+
+    /**
+     * Writes all dirty tracked bindings in current thread
+     */
+    public void flush() {
+        for (var binding : tracked.keySet()) save(binding);
+    }
+
+    /**
+     * Stops tracking, writes dirty bindings and shuts down own executor
+     */
+    @Override
+    public void close() {
+        var bindings = List.copyOf(tracked.keySet());
+        for (var binding : bindings) untrack(binding);
+        for (var binding : bindings) save(binding);
+        if (ownsExecutor) executor.shutdown();
+    }
+}
@@ -5,8 +5,14 @@ import com.google.gson.stream.JsonWriter;
 import lombok.Getter;
 import lombok.Setter;
 
+import java.io.*;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
 import java.nio.charset.Charset;
 import java.nio.charset.StandardCharsets;
+import java.nio.file.StandardOpenOption;
+import java.util.zip.Deflater;
 
 
 @SuppressWarnings("LombokSetterMayBeUsed")
@@ -33,6 +39,21 @@ public class WriterOptions {
     private String indent = "";
     @Setter
     private Charset charset = StandardCharsets.UTF_8;
+    /**
+     * Compression of written files
+     * @since 3.1.0
+     */
+    private Compression compression = Compression.NONE;
+    /**
+     * Level from 0 to 9 or {@link Deflater#DEFAULT_COMPRESSION}
+     * @since 3.1.0
+     */
+    private int compressionLevel = Deflater.DEFAULT_COMPRESSION;
+    /**
+     * Size of output buffers
+     * @since 3.1.0
+     */
+    private int bufferSize = 8192;
 
     public void setMinimized(){
         setIndent(0);
@@ -50,4 +71,100 @@ public class WriterOptions {
     public void apply(JsonWriter w){
         w.setIndent(indent);
     }
+
+    /**
+     * @since 3.1.0
+     */
+    public void setCompression(Compression compression){
+        setCompression(compression, Deflater.DEFAULT_COMPRESSION);
+    }
+
+    /**
+     * @param compression compression of written files
+     * @param level level from 0 to 9 or {@link Deflater#DEFAULT_COMPRESSION}
+     * @since 3.1.0
+     */
+    public void setCompression(Compression compression, int level){
+        if (level < -1 || level > 9) throw new IllegalArgumentException("Invalid compression level "+level);
+        this.compression = compression;
+        this.compressionLevel = level;
+    }
+
+    /**
+     * @since 3.1.0
+     */
+    public void setBufferSize(int bufferSize){
+        if (bufferSize <= 0) throw new IllegalArgumentException("Buffer size must be positive");
+        this.bufferSize = bufferSize;
+    }
+
+    /**
+     * Opens writer of file using charset and compression of this options
+     * @param file file
+     * @param append add to end of file. Appended gzip output is read as one stream, deflate output is not
+     * @return new buffered writer
+     * @throws IOException if file can't be opened
+     * @since 3.1.0
+     */
+    public Writer open(File file, boolean append) throws IOException {
+        if (append && compression == Compression.DEFLATE) {
+            throw new IllegalArgumentException("Deflate compressed files can't be appended");
+        }
+        var out = new FileOutputStream(file, append);
+        try {
+            var stream = compression.wrap(out, compressionLevel, bufferSize);
+            return new BufferedWriter(new OutputStreamWriter(stream, charset), bufferSize);
+        } catch (IOException e){
+            out.close();
+            throw e;
+        }
+    }
+
+    /**
+     * Opens byte channel of file using compression of this options, charset is not applied
+     * @param file file
+     * @param append add to end of file
+     * @return file channel or channel of compressing stream
+     * @throws IOException if file can't be opened
+     * @see #open(File, boolean)
+     * @since 3.1.0
+     */
+    public WritableByteChannel openChannel(File file, boolean append) throws IOException {
+        if (compression == Compression.NONE) {
+            return FileChannel.open(file.toPath(), StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                    append ? StandardOpenOption.APPEND : StandardOpenOption.TRUNCATE_EXISTING);
+        }
+        if (append && compression == Compression.DEFLATE) {
+            throw new IllegalArgumentException("Deflate compressed files can't be appended");
+        }
+        var out = new FileOutputStream(file, append);
+        try {
+            return Channels.newChannel(compression.wrap(out, compressionLevel, bufferSize));
+        } catch (IOException e){
+            out.close();
+            throw e;
+        }
+    }
+
+    /**
+     * @see #open(File, boolean)
+     * @since 3.1.0
+     */
+    public Writer open(File file) throws IOException {
+        return open(file, false);
+    }
+
+    /**
+     * @return new mutable options with same values
+     * @since 3.1.0
+     */
+    public WriterOptions copy(){
+        var ret = new WriterOptions();
+        ret.indent = indent;
+        ret.charset = charset;
+        ret.compression = compression;
+        ret.compressionLevel = compressionLevel;
+        ret.bufferSize = bufferSize;
+        return ret;
+    }
 }
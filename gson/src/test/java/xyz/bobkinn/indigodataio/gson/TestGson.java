@@ -1,13 +1,58 @@
 package xyz.bobkinn.indigodataio.gson;
 
+import com.google.gson.JsonArray;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonNull;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParser;
 import com.google.gson.JsonPrimitive;
+import com.google.gson.JsonSyntaxException;
+import com.google.gson.ToNumberPolicy;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonWriter;
 import org.junit.Test;
+import xyz.bobkinn.indigodataio.DataPath;
 import xyz.bobkinn.indigodataio.NestedKeyMap;
+import xyz.bobkinn.indigodataio.gson.io.AsyncJsonIo;
+import xyz.bobkinn.indigodataio.gson.io.Compression;
+import xyz.bobkinn.indigodataio.gson.io.DataStore;
+import xyz.bobkinn.indigodataio.gson.io.FileBinding;
+import xyz.bobkinn.indigodataio.gson.io.JsonIo;
+import xyz.bobkinn.indigodataio.gson.io.JsonTreeReader;
+import xyz.bobkinn.indigodataio.gson.io.JsonTreeWriter;
+import xyz.bobkinn.indigodataio.gson.io.MappedFileReader;
+import xyz.bobkinn.indigodataio.gson.io.ReaderOptions;
+import xyz.bobkinn.indigodataio.gson.io.RecordFormat;
+import xyz.bobkinn.indigodataio.gson.io.RecordReader;
+import xyz.bobkinn.indigodataio.gson.io.RecordWriter;
+import xyz.bobkinn.indigodataio.gson.io.SnapshotCache;
+import xyz.bobkinn.indigodataio.gson.io.Utf8JsonWriter;
+import xyz.bobkinn.indigodataio.gson.io.WriteBehindScheduler;
+import xyz.bobkinn.indigodataio.gson.io.WriterOptions;
 import xyz.bobkinn.indigodataio.ops.MapOps;
+import xyz.bobkinn.indigodataio.ops.ParallelConverter;
 
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.StringReader;
+import java.io.StringWriter;
+import java.math.BigInteger;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
 
 public class TestGson {
     @Test
@@ -103,4 +148,539 @@ public class TestGson {
         System.out.println(gd);
         assert (km.getFloat("f") == 3.3f) && gd.getFloat("f") == 3.3f;
     }
+
+    @Test
+    public void testDataPath(){
+        var map = new GsonData();
+        var path = DataPath.of("server.net.port");
+        map.putInt(path, 25565);
+        assert map.getInt("server.net.port") == 25565;
+        assert map.getInt(path) == 25565;
+        assert map.getSection(DataPath.of("server.net")).getInt("port") == 25565;
+        assert map.remove(path).getAsInt() == 25565;
+        assert !map.contains(path);
+    }
+
+    @Test
+    public void testPrimitiveArrays(){
+        var map = new GsonData();
+        map.putDoubleArray("d", new double[]{1.5, -2});
+        map.putByteList("b", List.of((byte) 1, (byte) 2));
+        map.putBoolArray("z", new boolean[]{true, false});
+        map.putStringList("s", List.of("a", "b"));
+        assert Arrays.equals(map.getDoubleArray("d"), new double[]{1.5, -2});
+        assert Arrays.equals(map.getIntArray("b"), new int[]{1, 2});
+        assert map.getBoolList("z").equals(List.of(true, false));
+        assert map.getStringList("s").equals(List.of("a", "b"));
+        assert map.getIntArray("s") == null;
+        assert map.getStringList("d") == null;
+    }
+
+    @Test
+    public void testTransfer(){
+        var gd = GsonData.newBuilder()
+                .put("s", "str")
+                .put("b", true)
+                .down("o")
+                    .put("i", 300)
+                    .put("d", 0.1d)
+                    .up()
+                .build();
+        gd.putIntArray("o.arr", new int[]{1, 2});
+        gd.putValue("n", null);
+        var km = gd.convertTo(new NestedKeyMap());
+        assert km.getShort("o.i") == 300;
+        assert km.getIntList("o.arr").equals(List.of(1, 2));
+        assert km.contains("n") && km.get("n") == null;
+        km.putInt("o.added", 1); // nested maps are mutable
+        var back = km.convertTo(new GsonData());
+        back.remove("o.added");
+        assert back.getRaw().equals(gd.getRaw());
+    }
+
+    @Test
+    public void testNumberNarrowing(){
+        var o = JsonParser.parseString("{\"b\": 1, \"s\": 300, \"i\": 70000, \"l\": 10000000000," +
+                " \"e\": 1e2, \"f\": 0.5, \"d\": 0.1, \"big\": 123456789012345678901," +
+                " \"precise\": 1.0000000000000001, \"tiny\": 1e-400}").getAsJsonObject();
+        var m = (Map<?, ?>) GsonOps.INSTANCE.convertTo(MapOps.INSTANCE, o);
+        assert m.get("b").equals((byte) 1);
+        assert m.get("s").equals((short) 300);
+        assert m.get("i").equals(70000);
+        assert m.get("l").equals(10000000000L);
+        assert m.get("e").equals((byte) 100);
+        assert m.get("f").equals(0.5f);
+        assert m.get("d").equals(0.1d);
+        assert m.get("big").equals(1.2345678901234568E20);
+        assert m.get("precise").equals(1f);
+        assert m.get("tiny").equals(0f);
+        var p = (Map<?, ?>) GsonOps.PRESERVING.convertTo(MapOps.INSTANCE, o);
+        assert p.get("b").equals(1L);
+        assert p.get("f").equals(0.5d);
+        assert p.get("big") instanceof BigInteger;
+    }
+
+    @Test
+    public void testParallelConvert(){
+        var gd = new GsonData();
+        for (int i = 0; i < 8; i++) {
+            for (int j = 0; j < 50; j++) {
+                gd.putInt("s" + i + ".k" + j, i * j);
+                gd.putDoubleArray("s" + i + ".arr" + j, new double[]{i, j, 0.5});
+            }
+        }
+        gd.putIntArray("big", new int[100]);
+        var converter = new ParallelConverter(ForkJoinPool.commonPool(), 16);
+        var parallel = converter.convertTo(gd, new NestedKeyMap());
+        var sequential = gd.convertTo(new NestedKeyMap());
+        assert parallel.getRaw().equals(sequential.getRaw());
+        assert converter.copy(gd).getRaw().equals(gd.getRaw());
+        var text = "{\"x\":2.0,\"y\":{\"z\":1.50,\"l\":[1.0,2,3.00]}}";
+        var source = new GsonData(JsonParser.parseString(text).getAsJsonObject());
+        // low threshold splits nested values too
+        var copied = new ParallelConverter(ForkJoinPool.commonPool(), 1).copy(source);
+        assert JsonIo.GSON.toJson(copied.getRaw()).equals(text) : copied;
+        assert JsonIo.GSON.toJson(copied.getRaw()).equals(JsonIo.GSON.toJson(source.copy().getRaw()));
+        assert converter.convert(GsonOps.INSTANCE, MapOps.INSTANCE, gd.getRaw()).equals(sequential.getRaw());
+
+        var decimals = new GsonData(JsonParser.parseString("{\"b\":2.0,\"s\":{\"l\":[1.0,3]}}").getAsJsonObject());
+        var copy = decimals.copy();
+        assert JsonIo.GSON.toJson(copy.getRaw()).equals("{\"b\":2.0,\"s\":{\"l\":[1.0,3]}}") : copy;
+        copy.putInt("s.x", 1);
+        assert !decimals.contains("s.x");
+    }
+
+    @Test
+    public void testBatchMerge(){
+        var ops = GsonOps.INSTANCE;
+        var values = new LinkedHashMap<JsonElement, JsonElement>();
+        var elements = new ArrayList<JsonElement>();
+        for (int i = 0; i < 10000; i++) {
+            values.put(new JsonPrimitive("k" + i), new JsonPrimitive(i));
+            elements.add(new JsonPrimitive(i));
+        }
+        var base = new JsonObject();
+        base.addProperty("base", true);
+        var merged = ops.mergeToMap(base, values).orElseThrow().getAsJsonObject();
+        assert merged.size() == 10001 && base.size() == 1;
+        assert ops.mergeToList(ops.empty(), elements).orElseThrow().getAsJsonArray().size() == 10000;
+
+        var batch = ops.batch();
+        JsonElement built = base;
+        for (var e : values.entrySet()) built = batch.mergeToMap(built, e.getKey(), e.getValue()).orElseThrow();
+        built = batch.remove(built, "k0");
+        assert base.size() == 1 && built.getAsJsonObject().size() == 10000;
+        var first = built;
+        built = batch.set(built, "extra", new JsonPrimitive(1));
+        assert first == built;
+        batch.freeze();
+        var after = batch.set(built, "more", new JsonPrimitive(2));
+        assert after != built && !built.getAsJsonObject().has("more");
+    }
+
+    @Test
+    public void testTreeReader() throws IOException {
+        var json = "{\"a\":[1,2.5,\"s\",true,null,[]],\"b\":{\"a\":{},\"n\":null},\"c\":\"<&>\",\"big\":12345678901234567890}";
+        var tree = JsonTreeReader.DEFAULT.read(new JsonReader(new StringReader(json)));
+        assert tree.equals(JsonParser.parseString(json));
+        var keys = tree.getAsJsonObject().keySet().iterator().next();
+        var nestedKey = tree.getAsJsonObject().getAsJsonObject("b").keySet().iterator().next();
+        assert keys == nestedKey;
+
+        var options = new ReaderOptions();
+        options.setNumberStrategy(ToNumberPolicy.LONG_OR_DOUBLE);
+        var typed = new JsonTreeReader(options).read(new JsonReader(new StringReader(json)));
+        assert typed.getAsJsonObject().getAsJsonArray("a").get(0).getAsNumber() instanceof Long;
+
+        var out = new StringWriter();
+        JsonTreeWriter.write(JsonTreeWriter.configure(new JsonWriter(out)), tree);
+        assert out.toString().equals(JsonIo.GSON.toJson(tree));
+
+        var file = File.createTempFile("indigo", ".json");
+        file.deleteOnExit();
+        var data = new GsonData(tree.getAsJsonObject());
+        JsonIo.write(data, file);
+        assert JsonIo.read(file).getRaw().equals(JsonIo.GSON.fromJson(Files.readString(file.toPath()), GsonData.class).getRaw());
+    }
+
+    @Test
+    public void testMapIo() throws IOException {
+        var json = "{\"a\":{\"ints\":[1,2,300000],\"mixed\":[1,\"s\",[2.5,1]],\"empty\":[]},\"n\":null,\"big\":12345678901234567890,\"d\":0.1}";
+        var file = File.createTempFile("indigo", ".json");
+        file.deleteOnExit();
+        Files.writeString(file.toPath(), json);
+        var map = JsonIo.readMap(file);
+        var expected = JsonIo.read(file).convertTo(new NestedKeyMap());
+        assert map.getRaw().equals(expected.getRaw());
+
+        var packed = JsonIo.readMap(new StringReader(json), ReaderOptions.DEFAULT, MapOps.NATIVE_ARRAYS);
+        assert Arrays.equals((int[]) packed.get("a.ints"), new int[]{1, 2, 300000});
+        assert packed.getList("a.mixed").get(2) instanceof double[];
+        assert packed.getList("a.empty").isEmpty();
+
+        var out = new StringWriter();
+        JsonIo.write(map, out, WriterOptions.MINIMIZED);
+        var tree = new StringWriter();
+        JsonTreeWriter.write(JsonTreeWriter.configure(new JsonWriter(tree)), map.convertTo(new GsonData()).getRaw());
+        assert out.toString().equals(tree.toString());
+    }
+
+    @Test
+    public void testSelectiveRead() throws IOException {
+        var json = "{\"a\":{\"x\":1,\"y\":{\"z\":2}},\"b\":[1,2],\"c\":\"s\",\"d\":{\"e\":3}}";
+        var file = File.createTempFile("indigo", ".json");
+        file.deleteOnExit();
+        Files.writeString(file.toPath(), json);
+        var selected = JsonIo.read(file, ReaderOptions.DEFAULT, List.of(DataPath.of("a.y"), DataPath.of("c"), DataPath.of("c.q")));
+        assert selected.keys().equals(Set.of("a", "c"));
+        assert selected.getInt("a.y.z") == 2 && !selected.contains("a.x");
+        assert selected.getString("c").equals("s");
+        var whole = JsonIo.read(file, ReaderOptions.DEFAULT, List.of(DataPath.of(""), DataPath.of("a.x")));
+        assert whole.getRaw().equals(JsonParser.parseString(json)) : whole;
+
+        var lazy = JsonIo.readLazy(file);
+        assert lazy.keys().size() == 4 && lazy.getPending().size() == 4;
+        assert lazy.getInt("d.e") == 3;
+        assert lazy.getPending().equals(Set.of("a", "b", "c"));
+        lazy.putString("c", "t");
+        assert lazy.getRaw().equals(JsonParser.parseString(json.replace("\"s\"", "\"t\"")));
+        assert lazy.getPending().isEmpty();
+
+        var broken = JsonIo.readLazy(file);
+        Files.writeString(file.toPath(), "{\"a\":1,\"b\":[1,}");
+        try {
+            broken.getInt("b");
+            assert false;
+        } catch (JsonSyntaxException ignored) {
+        }
+        assert broken.getPending().contains("b");
+    }
+
+    @Test
+    public void testMappedRead() throws IOException {
+        var sb = new StringBuilder("{");
+        for (int i = 0; i < 2000; i++) {
+            if (i > 0) sb.append(',');
+            sb.append("\"k").append(i).append("\":\"значение ✓ ").append(i).append('"');
+        }
+        var json = sb.append('}').toString();
+        var file = File.createTempFile("indigo", ".json");
+        file.deleteOnExit();
+        Files.writeString(file.toPath(), json);
+        // small odd window splits multibyte chars between windows
+        try (var r = new MappedFileReader(file.toPath(), StandardCharsets.UTF_8, 7)) {
+            var chars = new StringWriter();
+            r.transferTo(chars);
+            assert chars.toString().equals(json);
+        }
+        var options = new ReaderOptions();
+        options.setMemoryMapped(true);
+        assert JsonIo.read(file, options).getRaw().equals(JsonIo.read(file).getRaw());
+    }
+
+    @Test
+    public void testAsyncBulk() throws IOException {
+        var dir = Files.createTempDirectory("indigo").toFile();
+        dir.deleteOnExit();
+        var data = new LinkedHashMap<File, GsonData>();
+        for (int i = 0; i < 20; i++) {
+            var d = new GsonData();
+            d.putInt("id", i);
+            var f = new File(dir, "user" + i + ".json");
+            f.deleteOnExit();
+            data.put(f, d);
+        }
+        try (var io = new AsyncJsonIo(4)) {
+            assert io.writeAll(data, WriterOptions.MINIMIZED).join().isSuccess();
+            var broken = new File(dir, "broken.json");
+            broken.deleteOnExit();
+            Files.writeString(broken.toPath(), "{\"id\":");
+            var result = io.readAll(dir, ReaderOptions.DEFAULT).join();
+            assert result.results().size() == 20 && result.failures().keySet().equals(Set.of(broken));
+            for (var e : data.entrySet()) assert result.results().get(e.getKey()).equals(e.getValue());
+        }
+        assert JsonIo.readAsync(data.keySet().iterator().next()).join().getInt("id") == 0;
+    }
+
+    @Test
+    public void testWriteBehind() throws Exception {
+        var file = new File(Files.createTempDirectory("indigo").toFile(), "data.json");
+        file.deleteOnExit();
+        file.getParentFile().deleteOnExit();
+        var data = new TrackedGsonData();
+        var binding = FileBinding.of(data, file, WriterOptions.MINIMIZED);
+        assert !binding.save() && !file.exists();
+        var errors = new CopyOnWriteArrayList<RuntimeException>();
+        try (var scheduler = new WriteBehindScheduler(50, TimeUnit.MILLISECONDS, (b, e) -> errors.add(e))) {
+            scheduler.track(binding);
+            for (int i = 0; i < 100; i++) data.putInt("k" + i, i);
+            data.getSection("k0", null);
+            long end = System.currentTimeMillis() + 5000;
+            while (binding.isDirty() && System.currentTimeMillis() < end) Thread.sleep(10);
+            assert !binding.isDirty() && JsonIo.read(file).getInt("k99") == 99;
+            var modified = file.lastModified();
+            Thread.sleep(100);
+            assert file.lastModified() == modified;
+            data.putString("s", "v");
+        }
+        assert JsonIo.read(file).getString("s").equals("v") && errors.isEmpty();
+
+        // shut down executor is reported, not thrown from modification
+        var executor = Executors.newSingleThreadScheduledExecutor();
+        executor.shutdown();
+        try (var scheduler = new WriteBehindScheduler(executor, 50, TimeUnit.MILLISECONDS, (b, e) -> errors.add(e))) {
+            scheduler.track(binding);
+            data.putString("s", "w");
+            assert errors.size() == 1 && errors.get(0) instanceof RejectedExecutionException;
+        }
+        assert JsonIo.read(file).getString("s").equals("w");
+    }
+
+    @Test
+    public void testRecords() throws IOException {
+        var file = File.createTempFile("indigo-records", ".ndjson");
+        file.deleteOnExit();
+        try (var w = RecordWriter.open(file, RecordFormat.NDJSON, WriterOptions.NORMAL, 2, false)) {
+            for (int i = 0; i < 3; i++) {
+                var d = new GsonData();
+                d.put("id", i);
+                d.put("pos.x", i * 1.5);
+                w.write(d);
+            }
+        }
+        try (var w = RecordWriter.open(file, RecordFormat.NDJSON, WriterOptions.NORMAL, 0, true)) {
+            var m = new NestedKeyMap();
+            m.put("id", 3);
+            m.put("tags", List.of(1, 2));
+            w.write(m);
+        }
+        var lines = Files.readAllLines(file.toPath());
+        assert lines.size() == 4 : lines;
+        assert lines.get(3).equals("{\"id\":3,\"tags\":[1,2]}") : lines.get(3);
+        try (var s = JsonIo.readRecords(file)) {
+            assert s.mapToInt(d -> d.getInt("id")).sum() == 6;
+        }
+        try (var r = RecordReader.map(file, ReaderOptions.DEFAULT, MapOps.NATIVE_ARRAYS, true)) {
+            NestedKeyMap first = null;
+            while (r.hasNext()) {
+                var m = r.next();
+                if (first == null) first = m;
+                assert m == first;
+                assert m.size() == 2;
+            }
+            assert first.get("tags") instanceof int[];
+            assert r.getCount() == 4 && r.getFormat() == RecordFormat.NDJSON;
+        }
+
+        var sw = new StringWriter();
+        try (var w = new RecordWriter(sw, RecordFormat.JSON_ARRAY, WriterOptions.MINIMIZED, 0)) {
+            w.write(JsonParser.parseString("{\"a\":1}").getAsJsonObject());
+            w.write(JsonParser.parseString("{\"a\":2}").getAsJsonObject());
+        }
+        assert sw.toString().equals("[{\"a\":1},{\"a\":2}]") : sw;
+        try (var r = RecordReader.gson(new StringReader(sw.toString()), ReaderOptions.DEFAULT, false)) {
+            var ids = r.stream().map(d -> d.getInt("a")).toList();
+            assert ids.equals(List.of(1, 2)) : ids;
+            assert r.getFormat() == RecordFormat.JSON_ARRAY;
+        }
+        try (var r = RecordReader.gson(new StringReader(""), ReaderOptions.DEFAULT, false)) {
+            assert !r.hasNext();
+        }
+    }
+
+    @Test
+    public void testCompression() throws IOException {
+        var data = new GsonData();
+        for (int i = 0; i < 500; i++) data.put("records.r" + i + ".name", "repeated value " + (i % 10));
+        var file = File.createTempFile("indigo-compressed", ".json");
+        file.deleteOnExit();
+        JsonIo.write(data, file, WriterOptions.MINIMIZED);
+        var plainSize = file.length();
+        for (var compression : List.of(Compression.GZIP, Compression.DEFLATE)) {
+            var options = WriterOptions.MINIMIZED.copy();
+            options.setCompression(compression, 9);
+            JsonIo.write(data, file, options);
+            assert file.length() * 5 < plainSize : compression + " " + file.length() + " / " + plainSize;
+            assert JsonIo.read(file).equals(data);
+            var mapped = ReaderOptions.DEFAULT.copy();
+            mapped.setMemoryMapped(true);
+            assert JsonIo.read(file, mapped).equals(data);
+            assert JsonIo.readMap(file).getString("records.r7.name").equals("repeated value 7");
+        }
+
+        // gzip records can be appended
+        var options = WriterOptions.MINIMIZED.copy();
+        options.setCompression(Compression.GZIP);
+        for (int i = 0; i < 2; i++) {
+            try (var w = RecordWriter.open(file, RecordFormat.NDJSON, options, 1, i > 0)) {
+                w.write(data);
+            }
+        }
+        try (var s = JsonIo.readRecords(file)) {
+            assert s.count() == 2;
+        }
+    }
+
+    @Test
+    public void testDataStore() throws Exception {
+        var dir = Files.createTempDirectory("indigo-store").toFile();
+        dir.deleteOnExit();
+        for (int i = 0; i < 4; i++) {
+            var f = new File(dir, "p" + i + ".json");
+            f.deleteOnExit();
+            var d = new GsonData();
+            d.putInt("id", i);
+            JsonIo.write(d, f);
+        }
+        try (var store = new DataStore(dir, 2)) {
+            // concurrent loads of same id share one read
+            var pool = Executors.newFixedThreadPool(8);
+            var start = new CountDownLatch(1);
+            var futures = new ArrayList<Future<TrackedGsonData>>();
+            for (int i = 0; i < 8; i++) futures.add(pool.submit(() -> {
+                start.await();
+                return store.get("p0");
+            }));
+            start.countDown();
+            var first = futures.get(0).get();
+            for (var f : futures) assert f.get() == first;
+            pool.shutdown();
+            assert store.getStats().loads() == 1 && first.getInt("id") == 0;
+
+            assert store.get("missing") == null && !store.contains("missing");
+            first.putString("name", "changed");
+            store.get("p1");
+            store.get("p2");
+            // p0 is evicted and written
+            assert store.size() == 2 && store.getStats().evictions() == 1 && store.getStats().writes() == 1;
+            assert JsonIo.read(new File(dir, "p0.json")).getString("name").equals("changed");
+            assert store.get("p0") != first && store.get("p0").getString("name").equals("changed");
+
+            var created = store.getOrCreate("p9");
+            new File(dir, "p9.json").deleteOnExit();
+            created.putInt("id", 9);
+            var stats = store.getStats();
+            assert stats.hits() + stats.misses() == 14 && stats.loads() == 4 && stats.hitRate() > 0;
+        }
+        assert JsonIo.read(new File(dir, "p9.json")).getInt("id") == 9;
+    }
+
+    @Test(timeout = 10000)
+    public void testDataStoreWriteFailure() throws Exception {
+        var dir = Files.createTempDirectory("indigo-store").toFile();
+        dir.deleteOnExit();
+        // non-empty directory can't be replaced by file
+        var blocker = new File(dir, "a.json");
+        var inner = new File(blocker, "x");
+        assert blocker.mkdir() && inner.createNewFile();
+        try (var store = new DataStore(dir, 1)) {
+            store.getOrCreate("a").putInt("id", 1);
+            // eviction of a fails, but b is returned
+            store.getOrCreate("b").putInt("id", 2);
+            var stats = store.getStats();
+            assert stats.evictions() == 1 && stats.writeFailures() == 1 && stats.writes() == 0;
+            assert store.contains("a");
+            store.invalidate("b");
+            assert store.getOrCreate("b").keys().isEmpty();
+            // pending holder is returned instead of reading file
+            assert store.get("a").getInt("id") == 1;
+            try {
+                store.flush();
+                assert false;
+            } catch (RuntimeException ignored) {
+            }
+            assert inner.delete() && blocker.delete();
+        }
+        var written = new File(dir, "a.json");
+        written.deleteOnExit();
+        assert JsonIo.read(written).getInt("id") == 1;
+    }
+
+    @Test
+    public void testSnapshotCache() throws IOException {
+        var dir = Files.createTempDirectory("indigo-snapshot").toFile();
+        dir.deleteOnExit();
+        var file = new File(dir, "config.json");
+        file.deleteOnExit();
+        var data = new GsonData();
+        for (int i = 0; i < 50; i++) {
+            data.putString("entries.e" + i + ".name", "name" + i);
+            data.putDouble("entries.e" + i + ".weight", i / 4.0);
+        }
+        data.putList("list", List.of(new JsonPrimitive(1), new JsonPrimitive(true)));
+        // key with dot, decimal with integral value and integer bigger than long
+        data.getRaw().add("a.b", new JsonPrimitive(1));
+        data.getRaw().add("x", new JsonPrimitive(2.0));
+        data.getRaw().add("big", new JsonPrimitive(new BigInteger("12345678901234567890123")));
+        JsonIo.write(data, file);
+
+        var cache = new SnapshotCache();
+        var options = ReaderOptions.DEFAULT.copy();
+        options.setSnapshotCache(cache);
+        var snapshot = cache.getSnapshotFile(file);
+        snapshot.deleteOnExit();
+        assert JsonIo.read(file, options).equals(data) && snapshot.isFile() && cache.getMisses() == 1;
+        var hit = JsonIo.read(file, options);
+        assert hit.equals(data) && cache.getHits() == 1;
+        assert JsonIo.GSON.toJson(hit.getRaw()).equals(JsonIo.GSON.toJson(JsonIo.read(file).getRaw()));
+        assert JsonIo.GSON.toJson(hit.getRaw()).contains("\"a.b\":1,\"x\":2.0,\"big\":12345678901234567890123");
+
+        // same size and time, but other content
+        var modified = file.lastModified();
+        var text = Files.readString(file.toPath()).replace("name7\"", "name8\"");
+        Files.writeString(file.toPath(), text);
+        assert file.setLastModified(modified);
+        var changed = JsonIo.read(file, options);
+        assert changed.getString("entries.e7.name").equals("name8") && cache.getMisses() == 2;
+        assert JsonIo.read(file, options).equals(changed) && cache.getHits() == 2;
+
+        // broken snapshot is ignored and rewritten
+        Files.write(snapshot.toPath(), new byte[]{1, 2, 3});
+        assert JsonIo.read(file, options).equals(changed) && cache.getMisses() == 3;
+        assert JsonIo.read(file, options).equals(changed) && cache.getHits() == 3;
+        cache.invalidate(file);
+        assert !snapshot.exists();
+    }
+
+    @Test
+    public void testUtf8Writer() throws IOException {
+        var root = JsonParser.parseString("{\"n\":1.50,\"big\":123456789012345678901234567890,\"e\":{},\"a\":[]}").getAsJsonObject();
+        root.addProperty("s", "quote\" slash\\ <tag>&='x' \t\n\u0001\u007f é ж \u2028 \u20ac \ud83d\ude00 lone\ud800 end");
+        root.addProperty("key <&> \u00e9", "v");
+        root.addProperty("i", Integer.MIN_VALUE);
+        root.addProperty("l", Long.MIN_VALUE);
+        root.addProperty("d", 0.1);
+        root.addProperty("f", 1.5f);
+        root.addProperty("b", false);
+        root.add("null", null);
+        var list = new JsonArray();
+        list.add(JsonNull.INSTANCE);
+        list.add("x".repeat(100));
+        var nested = new JsonObject();
+        nested.add("skipped", JsonNull.INSTANCE);
+        list.add(nested);
+        root.add("list", list);
+        for (var options : List.of(WriterOptions.MINIMIZED, WriterOptions.NORMAL, WriterOptions.TABS)) {
+            var sw = new StringWriter();
+            var jw = new JsonWriter(sw);
+            options.apply(jw);
+            JsonTreeWriter.write(JsonTreeWriter.configure(jw), root);
+            var expected = sw.toString().getBytes(StandardCharsets.UTF_8);
+            for (var writer : List.of(new Utf8JsonWriter(), new Utf8JsonWriter(32))) {
+                // second write uses cached keys
+                for (int i = 0; i < 2; i++) {
+                    var out = new ByteArrayOutputStream();
+                    writer.write(root, options, out);
+                    assert Arrays.equals(out.toByteArray(), expected) : out.toString(StandardCharsets.UTF_8) + "\n" + sw;
+                }
+            }
+        }
+        var file = File.createTempFile("indigo-utf8", ".json");
+        file.deleteOnExit();
+        var data = new GsonData(root);
+        JsonIo.write(data, file, WriterOptions.NORMAL);
+        var sw = new StringWriter();
+        JsonIo.GSON.newBuilder().setPrettyPrinting().create().toJson(root, sw);
+        assert Arrays.equals(Files.readAllBytes(file.toPath()), sw.toString().getBytes(StandardCharsets.UTF_8));
+    }
 }
@@ -0,0 +1,89 @@
+package xyz.bobkinn.indigodataio.gson.bench;
+
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import xyz.bobkinn.indigodataio.NestedKeyMap;
+import xyz.bobkinn.indigodataio.binary.BinaryIo;
+import xyz.bobkinn.indigodataio.gson.io.JsonIo;
+import xyz.bobkinn.indigodataio.gson.io.ReaderOptions;
+import xyz.bobkinn.indigodataio.ops.MapOps;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares {@link BinaryIo} with {@link JsonIo} on same {@link NestedKeyMap} document held in memory.<br>
+ * Run with {@code main} from test classpath
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class BinaryBenchmark {
+
+    @Param({"5000", "20000"})
+    public int records;
+
+    private NestedKeyMap data;
+    private byte[] json;
+    private byte[] binary;
+
+    @Setup
+    public void setup() {
+        var random = new Random(42);
+        data = NestedKeyMap.withNativeArrays();
+        for (int i = 0; i < records; i++) {
+            var r = "r" + i + ".";
+            data.put(r + "id", i);
+            data.put(r + "name", "record-" + random.nextInt(100000));
+            data.put(r + "score", random.nextDouble() * 1000);
+            data.put(r + "active", random.nextBoolean());
+            var tags = new int[8];
+            for (int j = 0; j < tags.length; j++) tags[j] = random.nextInt(1000);
+            data.put(r + "tags", tags);
+            data.put(r + "pos.x", random.nextGaussian());
+            data.put(r + "pos.y", random.nextGaussian());
+            data.put(r + "pos.z", random.nextGaussian());
+        }
+        json = writeJson();
+        binary = writeBinary();
+        System.out.println("json " + json.length + " bytes, binary " + binary.length + " bytes");
+    }
+
+    @Benchmark
+    public byte[] writeJson() {
+        var out = new ByteArrayOutputStream(json != null ? json.length : 1 << 16);
+        JsonIo.write(data, out, JsonIo.DEFAULT_OPTIONS);
+        return out.toByteArray();
+    }
+
+    @Benchmark
+    public byte[] writeBinary() {
+        var out = new ByteArrayOutputStream(binary != null ? binary.length : 1 << 16);
+        BinaryIo.write(data, out);
+        return out.toByteArray();
+    }
+
+    @Benchmark
+    public NestedKeyMap readJson() {
+        return JsonIo.readMap(new InputStreamReader(new ByteArrayInputStream(json), StandardCharsets.UTF_8),
+                ReaderOptions.DEFAULT, MapOps.NATIVE_ARRAYS);
+    }
+
+    @Benchmark
+    public NestedKeyMap readBinary() {
+        return BinaryIo.read(new ByteArrayInputStream(binary), NestedKeyMap.withNativeArrays());
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder().include(BinaryBenchmark.class.getSimpleName()).build()).run();
+    }
+}
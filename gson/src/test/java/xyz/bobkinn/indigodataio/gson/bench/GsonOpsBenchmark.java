@@ -0,0 +1,174 @@
+package xyz.bobkinn.indigodataio.gson.bench;
+
+import com.google.gson.JsonArray;
+import com.google.gson.JsonElement;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import xyz.bobkinn.indigodataio.Pair;
+import xyz.bobkinn.indigodataio.gson.GsonOps;
+import xyz.bobkinn.indigodataio.ops.TypeOps;
+
+import java.util.Optional;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+/**
+ * Compares primitive array paths of {@link GsonOps} with {@link TypeOps} defaults.<br>
+ * Run with {@code main} from test classpath
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class GsonOpsBenchmark {
+
+    @Param({"100", "10000"})
+    public int size;
+
+    private final TypeOps<JsonElement> defaults = new DefaultOps();
+    private double[] doubles;
+    private int[] ints;
+    private JsonElement doubleArray;
+    private JsonElement intArray;
+
+    @Setup
+    public void setup() {
+        var random = new Random(42);
+        doubles = random.doubles(size).toArray();
+        ints = random.ints(size).toArray();
+        doubleArray = GsonOps.INSTANCE.createDoubleArray(doubles);
+        intArray = GsonOps.INSTANCE.createIntArray(ints);
+    }
+
+    @Benchmark
+    public JsonElement createDoubleArrayGson() {
+        return GsonOps.INSTANCE.createDoubleArray(doubles);
+    }
+
+    @Benchmark
+    public JsonElement createDoubleArrayDefault() {
+        return defaults.createDoubleArray(doubles);
+    }
+
+    @Benchmark
+    public JsonElement createIntArrayGson() {
+        return GsonOps.INSTANCE.createIntArray(ints);
+    }
+
+    @Benchmark
+    public JsonElement createIntArrayDefault() {
+        return defaults.createIntArray(ints);
+    }
+
+    @Benchmark
+    public Optional<double[]> getDoubleArrayGson() {
+        return GsonOps.INSTANCE.getDoubleArray(doubleArray);
+    }
+
+    @Benchmark
+    public Optional<double[]> getDoubleArrayDefault() {
+        return defaults.getDoubleArray(doubleArray);
+    }
+
+    @Benchmark
+    public Optional<int[]> getIntArrayGson() {
+        return GsonOps.INSTANCE.getIntArray(intArray);
+    }
+
+    @Benchmark
+    public Optional<int[]> getIntArrayDefault() {
+        return defaults.getIntArray(intArray);
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(GsonOpsBenchmark.class.getSimpleName())
+                .build()).run();
+    }
+
+    /**
+     * Ops that use only {@link TypeOps} defaults for arrays and lists
+     */
+    private static class DefaultOps implements TypeOps<JsonElement> {
+        private static final GsonOps OPS = GsonOps.INSTANCE;
+
+        @Override
+        public JsonElement empty() {
+            return OPS.empty();
+        }
+
+        @Override
+        public <U> U convertTo(TypeOps<U> outOps, JsonElement input) {
+            return OPS.convertTo(outOps, input);
+        }
+
+        @Override
+        public Optional<Number> getNumberValue(JsonElement input) {
+            return OPS.getNumberValue(input);
+        }
+
+        @Override
+        public JsonElement createNumeric(Number i) {
+            return OPS.createNumeric(i);
+        }
+
+        @Override
+        public Optional<String> getString(JsonElement input) {
+            return OPS.getString(input);
+        }
+
+        @Override
+        public JsonElement createString(String value) {
+            return OPS.createString(value);
+        }
+
+        @Override
+        public Optional<JsonElement> mergeToList(JsonElement list, JsonElement value) {
+            return OPS.mergeToList(list, value);
+        }
+
+        @Override
+        public Optional<JsonElement> mergeToMap(JsonElement map, JsonElement key, JsonElement value) {
+            return OPS.mergeToMap(map, key, value);
+        }
+
+        @Override
+        public Optional<Stream<Pair<JsonElement, JsonElement>>> getMapValues(JsonElement input) {
+            return OPS.getMapValues(input);
+        }
+
+        @Override
+        public JsonElement createMap(Stream<Pair<JsonElement, JsonElement>> map) {
+            return OPS.createMap(map);
+        }
+
+        @Override
+        public Optional<Stream<JsonElement>> getStream(JsonElement input) {
+            return OPS.getStream(input);
+        }
+
+        @Override
+        public JsonElement createList(Stream<? extends JsonElement> input) {
+            // previous GsonOps implementation
+            var list = input.map(v -> v == null ? empty() : v).toList();
+            final JsonArray ret = new JsonArray(list.size());
+            list.forEach(ret::add);
+            return ret;
+        }
+
+        @Override
+        public JsonElement createArray(JsonElement[] input) {
+            return createList(Stream.of(input));
+        }
+
+        @Override
+        public JsonElement remove(JsonElement input, String key) {
+            return OPS.remove(input, key);
+        }
+    }
+}
@@ -0,0 +1,121 @@
+package xyz.bobkinn.indigodataio.gson.bench;
+
+import com.google.gson.JsonArray;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonWriter;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import xyz.bobkinn.indigodataio.gson.GsonData;
+import xyz.bobkinn.indigodataio.gson.io.JsonIo;
+import xyz.bobkinn.indigodataio.gson.io.JsonTreeReader;
+import xyz.bobkinn.indigodataio.gson.io.JsonTreeWriter;
+import xyz.bobkinn.indigodataio.gson.io.ReaderOptions;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.StringReader;
+import java.io.StringWriter;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares {@link JsonTreeReader} and {@link JsonTreeWriter} with {@link JsonIo#GSON} adapter path
+ * on generated documents of few megabytes.<br>
+ * Run with {@code main} from test classpath
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class JsonIoBenchmark {
+
+    /**
+     * Count of records in document, 20000 is about 4 MB
+     */
+    @Param({"5000", "20000"})
+    public int records;
+
+    private String json;
+    private GsonData data;
+    private File file;
+    private ReaderOptions mapped;
+
+    @Setup
+    public void setup() {
+        var random = new Random(42);
+        var root = new JsonObject();
+        for (int i = 0; i < records; i++) {
+            var r = new JsonObject();
+            r.addProperty("id", i);
+            r.addProperty("name", "record-" + random.nextInt(100000));
+            r.addProperty("score", random.nextDouble() * 1000);
+            r.addProperty("active", random.nextBoolean());
+            var tags = new JsonArray();
+            for (int j = 0; j < 8; j++) tags.add(random.nextInt(1000));
+            r.add("tags", tags);
+            var pos = new JsonObject();
+            pos.addProperty("x", random.nextGaussian());
+            pos.addProperty("y", random.nextGaussian());
+            pos.addProperty("z", random.nextGaussian());
+            r.add("pos", pos);
+            root.add("r" + i, r);
+        }
+        json = root.toString();
+        data = new GsonData(root);
+        try {
+            file = File.createTempFile("indigo-bench", ".json");
+            file.deleteOnExit();
+            Files.writeString(file.toPath(), json);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        mapped = new ReaderOptions();
+        mapped.setMemoryMapped(true);
+    }
+
+    @Benchmark
+    public GsonData readFileBuffered() {
+        return JsonIo.read(file, ReaderOptions.DEFAULT);
+    }
+
+    @Benchmark
+    public GsonData readFileMapped() {
+        return JsonIo.read(file, mapped);
+    }
+
+    @Benchmark
+    public GsonData readGson() {
+        return JsonIo.GSON.fromJson(new JsonReader(new StringReader(json)), GsonData.class);
+    }
+
+    @Benchmark
+    public JsonElement readTree() throws IOException {
+        return JsonTreeReader.DEFAULT.read(new JsonReader(new StringReader(json)));
+    }
+
+    @Benchmark
+    public int writeGson() {
+        var w = new StringWriter(json.length());
+        JsonIo.GSON.toJson(data, GsonData.class, new JsonWriter(w));
+        return w.getBuffer().length();
+    }
+
+    @Benchmark
+    public int writeTree() throws IOException {
+        var w = new StringWriter(json.length());
+        JsonTreeWriter.write(JsonTreeWriter.configure(new JsonWriter(w)), data.getRaw());
+        return w.getBuffer().length();
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder().include(JsonIoBenchmark.class.getSimpleName()).build()).run();
+    }
+}
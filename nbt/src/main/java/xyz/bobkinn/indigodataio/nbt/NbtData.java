@@ -0,0 +1,362 @@
+package xyz.bobkinn.indigodataio.nbt;
+
+import lombok.NonNull;
+import lombok.RequiredArgsConstructor;
+import org.jetbrains.annotations.Contract;
+import org.jetbrains.annotations.NotNull;
+import xyz.bobkinn.indigodataio.AbstractDataHolder;
+import xyz.bobkinn.indigodataio.DataPath;
+import xyz.bobkinn.indigodataio.MapBuilder;
+import xyz.bobkinn.indigodataio.nbt.tag.*;
+import xyz.bobkinn.indigodataio.ops.TypeOps;
+
+import java.util.*;
+import java.util.function.Function;
+
+/**
+ * Holder backed by {@link CompoundTag}. Null values are not stored, putting null removes key
+ * @since 3.1.0
+ */
+@RequiredArgsConstructor
+public class NbtData extends AbstractDataHolder<NbtData, Tag, CompoundTag> {
+    @NonNull
+    private final CompoundTag data;
+
+    public NbtData(){
+        this(new CompoundTag());
+    }
+
+    public static MapBuilder<NbtData, Tag> newBuilder(){
+        return new NbtData().toBuilder();
+    }
+
+    @Override
+    public NbtData getNew() {
+        return new NbtData();
+    }
+
+    @Override
+    public CompoundTag getNewRaw() {
+        return new CompoundTag();
+    }
+
+    @Override
+    public NbtData getNewRaw(CompoundTag data) {
+        return new NbtData(data);
+    }
+
+    @NotNull
+    @Override
+    public Set<Entry<String, Tag>> entrySet() {
+        return data.entrySet();
+    }
+
+    @Override
+    public TypeOps<Tag> getOps() {
+        return NbtOps.INSTANCE;
+    }
+
+    @Override
+    public MapBuilder<NbtData, Tag> toBuilder() {
+        return new MapBuilder<>(null, this, NbtData::new,
+                NbtData::mapToPrimitive, NbtData::mapToPrimitive, NbtData::mapToPrimitive);
+    }
+
+    @Override
+    public MapBuilder<NbtData, Tag> toBuilder(String key) {
+        checkEmptyKey(key);
+        NbtData root;
+        if (containsSection(key)) {
+            root = getSection(key);
+        } else {
+            root = getNew();
+            putSection(key, root);
+        }
+        return new MapBuilder<>(null, root, NbtData::new,
+                NbtData::mapToPrimitive, NbtData::mapToPrimitive, NbtData::mapToPrimitive);
+    }
+
+    @Override
+    public String toString() {
+        return data.toString();
+    }
+
+    public CompoundTag getRaw(){
+        return data;
+    }
+
+    @Contract("_, _, true -> !null")
+    protected CompoundTag resolveMap(@NotNull DataPath path, int length, boolean create) {
+        var ret = data;
+        for (int i = 0; i < length; i++) {
+            var k = path.get(i);
+            if (k.isEmpty()) return ret;
+            var o = ret.get(k);
+            if (o == null) {
+                if (!create) return null;
+                o = getNewRaw();
+                ret.put(k, o);
+            }
+            if (!(o instanceof CompoundTag c)) return null;
+            ret = c;
+        }
+        return ret;
+    }
+
+    private static void checkEmptyKey(String key){
+        if (key.isEmpty()) throw new IllegalArgumentException("Empty key '"+key+"'");
+    }
+
+    private static void checkEmptyKey(DataPath key){
+        if (key.isEmpty()) throw new IllegalArgumentException("Empty key '"+key+"'");
+    }
+
+    @Override
+    public Tag remove(String key) {
+        checkEmptyKey(key);
+        return remove(path(key));
+    }
+
+    @Override
+    public Tag remove(DataPath key) {
+        checkEmptyKey(key);
+        var map = resolveParent(key, false);
+        if (map == null) return null;
+        return map.remove(key.last());
+    }
+
+    @Override
+    public boolean contains(String key) {
+        checkEmptyKey(key);
+        return contains(path(key));
+    }
+
+    @Override
+    public boolean contains(DataPath key) {
+        checkEmptyKey(key);
+        var map = resolveParent(key, false);
+        if (map == null) return false;
+        return map.containsKey(key.last());
+    }
+
+    @Override
+    public boolean contains(String key, Class<? extends Tag> type) {
+        return type.isInstance(get(key));
+    }
+
+    @Override
+    public boolean containsSection(String key) {
+        return getMap(key) != null;
+    }
+
+    @Override
+    public Set<String> keys() {
+        return data.keySet();
+    }
+
+    @Override
+    public Set<String> keys(String key) {
+        return keys(path(key));
+    }
+
+    @Override
+    public Set<String> keys(DataPath key) {
+        var map = resolveParent(key, false);
+        if (map == null) return Set.of();
+        return map.keySet();
+    }
+
+    @Override
+    public int size() {
+        return data.size();
+    }
+
+    @Override
+    public void clear() {
+        data.clear();
+    }
+
+    @Override
+    public Tag get(String key, Tag def) {
+        return get(path(key), def);
+    }
+
+    @Override
+    public Tag get(DataPath key, Tag def) {
+        var map = resolveParent(key, false);
+        if (map == null) return def;
+        var v = map.get(key.last());
+        return v != null ? v : def;
+    }
+
+    public <A extends Tag> A getType(String key, Class<A> cls) {
+        return getType(path(key), cls);
+    }
+
+    public <A extends Tag> A getType(DataPath key, Class<A> cls) {
+        var v = get(key, null);
+        if (cls.isInstance(v)) return cls.cast(v);
+        else return null;
+    }
+
+    public static CompoundTag mapAsCompound(Map<String, Tag> map){
+        if (map == null) return null;
+        var o = new CompoundTag(map.size());
+        map.forEach((k, v) -> {
+            if (v != null && v != EndTag.INSTANCE) o.put(k, v);
+        });
+        return o;
+    }
+
+    public static <A> ListTag mapList(List<A> source, Function<A, Tag> conv){
+        if (source == null) return null;
+        var ls = new ListTag(source.size());
+        for (A a : source) {
+            if (a != null) ls.add(conv.apply(a));
+        }
+        return ls;
+    }
+
+    public static Tag mapToPrimitive(Object value){
+        if (value == null) return null;
+        if (value instanceof Boolean b) {
+            return ByteTag.of(b);
+        } else if (value instanceof String s) {
+            return new StringTag(s);
+        } else if (value instanceof Number n) {
+            return NbtOps.INSTANCE.createNumeric(n);
+        } else if (value instanceof Character c) {
+            return new StringTag(c.toString());
+        } else {
+            throw new IllegalArgumentException("Value is not bool, string, number or character but "+value.getClass().getName());
+        }
+    }
+
+    @Override
+    public Tag get(String key) {
+        return get(key, null);
+    }
+
+    @Override
+    public List<? extends Tag> getList(String key, List<? extends Tag> def) {
+        var ls = getType(key, ListTag.class);
+        return ls != null ? ls : def;
+    }
+
+    @Override
+    public Tag putValue(String key, Tag value) {
+        return putValue(path(key), value);
+    }
+
+    @Override
+    public Tag putValue(DataPath key, Tag value) {
+        if (value == null || value == EndTag.INSTANCE) return remove(key);
+        var map = resolveParent(key, true);
+        return map.put(key.last(), value);
+    }
+
+    @Override
+    public Tag putRaw(@NotNull String key, Tag value) {
+        if (value == null || value == EndTag.INSTANCE) return data.remove(key);
+        return data.put(key, value);
+    }
+
+    @Override
+    public Tag putList(String key, List<? extends Tag> value) {
+        if (value == null) return putValue(key, null);
+        var ls = new ListTag(value.size());
+        ls.addAll(value);
+        return putValue(key, ls);
+    }
+
+    public CompoundTag getCompound(String key, CompoundTag def){
+        return getCompound(path(key), def);
+    }
+
+    public CompoundTag getCompound(DataPath key, CompoundTag def){
+        var v = get(key);
+        return v instanceof CompoundTag c ? c : def;
+    }
+
+    @Override
+    public NbtData getSection(String key, NbtData def) {
+        return getSection(path(key), def);
+    }
+
+    @Override
+    public NbtData getSection(DataPath key, NbtData def) {
+        var d = getCompound(key, null);
+        if (d == null) return def;
+        return new NbtData(d);
+    }
+
+    @Override
+    public NbtData getSection(String key) {
+        return getSection(key, null);
+    }
+
+    @Override
+    public List<NbtData> getSectionList(String key, List<NbtData> def) {
+        var ls = getType(key, ListTag.class);
+        if (ls == null || !ls.isEmpty() && ls.getElementType() != Tag.COMPOUND) return def;
+        List<NbtData> ret = new ArrayList<>(ls.size());
+        ls.forEach(e -> ret.add(getNewRaw((CompoundTag) e)));
+        return ret;
+    }
+
+    @Override
+    public Tag putSection(String key, NbtData value) {
+        return putValue(key, value.data);
+    }
+
+    @Override
+    public Tag putSection(DataPath key, NbtData value) {
+        return putValue(key, value.data);
+    }
+
+    @Override
+    public Tag putSectionList(String key, List<NbtData> value) {
+        return putValue(key, mapList(value, NbtData::getRaw));
+    }
+
+    @Override
+    public Map<String, Tag> getMap(String key, Map<String, Tag> def) {
+        return getMap(path(key), def);
+    }
+
+    @Override
+    public Map<String, Tag> getMap(DataPath key, Map<String, Tag> def) {
+        var c = getCompound(key, null);
+        return c != null ? c : def;
+    }
+
+    @Override
+    public Map<String, Tag> getMap(String key) {
+        return getMap(key, null);
+    }
+
+    @Override
+    public List<Map<String, Tag>> getMapList(String key, List<Map<String, Tag>> def) {
+        var ls = getType(key, ListTag.class);
+        if (ls == null || !ls.isEmpty() && ls.getElementType() != Tag.COMPOUND) return def;
+        List<Map<String, Tag>> ret = new ArrayList<>(ls.size());
+        ls.forEach(e -> ret.add((CompoundTag) e));
+        return ret;
+    }
+
+    @Override
+    public Tag putMap(String key, Map<String, Tag> value) {
+        return putValue(key, mapAsCompound(value));
+    }
+
+    @Override
+    public Tag putMap(DataPath key, Map<String, Tag> value) {
+        return putValue(key, mapAsCompound(value));
+    }
+
+    @Override
+    public Tag putMapList(String key, List<Map<String, Tag>> value) {
+        return putValue(key, mapList(value, NbtData::mapAsCompound));
+    }
+
+}
@@ -0,0 +1,567 @@
+package xyz.bobkinn.indigodataio.nbt;
+
+import org.jetbrains.annotations.Nullable;
+import xyz.bobkinn.indigodataio.Pair;
+import xyz.bobkinn.indigodataio.nbt.tag.*;
+import xyz.bobkinn.indigodataio.ops.BaseMap;
+import xyz.bobkinn.indigodataio.ops.DataVisitor;
+import xyz.bobkinn.indigodataio.ops.StackSink;
+import xyz.bobkinn.indigodataio.ops.TypeOps;
+import xyz.bobkinn.indigodataio.ops.TypeSink;
+
+import java.math.BigInteger;
+import java.nio.ByteBuffer;
+import java.util.*;
+import java.util.stream.IntStream;
+import java.util.stream.LongStream;
+import java.util.stream.Stream;
+
+/**
+ * Ops for NBT {@link Tag tags}. Byte, int and long arrays are kept as native array tags,
+ * booleans are stored as bytes. NBT has no null, so {@link EndTag empty} values are skipped
+ * when creating compounds and lists
+ * @since 3.1.0
+ */
+public class NbtOps implements TypeOps<Tag> {
+    public static final NbtOps INSTANCE = new NbtOps();
+
+    @Override
+    public Tag empty() {
+        return EndTag.INSTANCE;
+    }
+
+    @Override
+    public Tag emptyMap() {
+        return new CompoundTag();
+    }
+
+    @Override
+    public Tag emptyList() {
+        return new ListTag();
+    }
+
+    @Override
+    public <U> U convertTo(TypeOps<U> outOps, Tag input) {
+        return transfer(outOps, input);
+    }
+
+    @Override
+    public void visit(Tag input, DataVisitor visitor) {
+        if (input instanceof CompoundTag c) {
+            visitor.beginMap(c.size());
+            for (var e : c.entrySet()) {
+                visitor.visitKey(e.getKey());
+                visit(e.getValue(), visitor);
+            }
+            visitor.endMap();
+        } else if (input instanceof ListTag l) {
+            visitor.beginList(l.size());
+            for (var e : l) visit(e, visitor);
+            visitor.endList();
+        } else if (input instanceof StringTag s) visitor.visitString(s.value());
+        else if (input instanceof IntTag t) visitor.visitInt(t.value());
+        else if (input instanceof DoubleTag t) visitor.visitDouble(t.value());
+        else if (input instanceof ByteTag t) visitor.visitByte(t.value());
+        else if (input instanceof LongTag t) visitor.visitLong(t.value());
+        else if (input instanceof FloatTag t) visitor.visitFloat(t.value());
+        else if (input instanceof ShortTag t) visitor.visitShort(t.value());
+        else if (input instanceof ByteArrayTag t) visitor.visitByteArray(t.value());
+        else if (input instanceof IntArrayTag t) visitor.visitIntArray(t.value());
+        else if (input instanceof LongArrayTag t) visitor.visitLongArray(t.value());
+        else visitor.visitNull();
+    }
+
+    @Override
+    public TypeSink<Tag> sink() {
+        return new NbtSink(this);
+    }
+
+    /**
+     * Builds {@link CompoundTag} and {@link ListTag} directly, arrays are copied into array tags.
+     * Lists of numbers with different types are widened to common type, like int and double to double
+     */
+    private static final class NbtSink extends StackSink<Tag> {
+
+        private NbtSink(NbtOps ops) {
+            super(ops);
+        }
+
+        @Override
+        protected Object newMap(int sizeHint) {
+            return sizeHint < 0 ? new CompoundTag() : new CompoundTag(sizeHint);
+        }
+
+        @Override
+        protected void putEntry(Object map, String key, Tag value) {
+            if (value != EndTag.INSTANCE) ((CompoundTag) map).put(key, value);
+        }
+
+        @Override
+        protected Tag finishMap(Object map) {
+            return (CompoundTag) map;
+        }
+
+        // elements are buffered, so numbers of different types can be widened before building list tag
+        @Override
+        protected Object newList(int sizeHint) {
+            return sizeHint < 0 ? new ArrayList<Tag>() : new ArrayList<Tag>(sizeHint);
+        }
+
+        @SuppressWarnings("unchecked")
+        @Override
+        protected void addElement(Object list, Tag value) {
+            if (value != EndTag.INSTANCE) ((List<Tag>) list).add(value);
+        }
+
+        @SuppressWarnings("unchecked")
+        @Override
+        protected Tag finishList(Object list) {
+            var elements = (List<Tag>) list;
+            var ret = new ListTag(elements.size());
+            var type = commonNumericType(elements);
+            for (var e : elements) ret.add(type != 0 && e.getId() != type ? widen((NumericTag) e, type) : e);
+            return ret;
+        }
+
+        /**
+         * @return id of type that holds all numbers of list, 0 if list has other tags or one type
+         */
+        private static byte commonNumericType(List<Tag> elements) {
+            if (elements.isEmpty()) return 0;
+            byte first = elements.get(0).getId();
+            boolean mixed = false, integral = false, decimal = false, doubles = false;
+            byte maxIntegral = 0;
+            for (var e : elements) {
+                if (!(e instanceof NumericTag)) return 0;
+                var id = e.getId();
+                if (id != first) mixed = true;
+                if (id == Tag.FLOAT) {
+                    decimal = true;
+                } else if (id == Tag.DOUBLE) {
+                    decimal = true;
+                    doubles = true;
+                } else {
+                    integral = true;
+                    if (id > maxIntegral) maxIntegral = id;
+                }
+            }
+            if (!mixed) return 0;
+            // float can't hold all integers exactly
+            if (decimal) return doubles || integral ? Tag.DOUBLE : Tag.FLOAT;
+            return maxIntegral;
+        }
+
+        private static Tag widen(NumericTag tag, byte type) {
+            var n = tag.getAsNumber();
+            return switch (type) {
+                case Tag.SHORT -> new ShortTag(n.shortValue());
+                case Tag.INT -> new IntTag(n.intValue());
+                case Tag.LONG -> new LongTag(n.longValue());
+                case Tag.FLOAT -> new FloatTag(n.floatValue());
+                default -> new DoubleTag(n.doubleValue());
+            };
+        }
+
+        @Override
+        public void visitByteArray(byte[] value) {
+            value(new ByteArrayTag(value.clone()));
+        }
+
+        @Override
+        public void visitIntArray(int[] value) {
+            value(new IntArrayTag(value.clone()));
+        }
+
+        @Override
+        public void visitLongArray(long[] value) {
+            value(new LongArrayTag(value.clone()));
+        }
+    }
+
+    // numbers
+
+    @Override
+    public Optional<Number> getNumberValue(Tag input) {
+        return input instanceof NumericTag n ? Optional.of(n.getAsNumber()) : Optional.empty();
+    }
+
+    @Override
+    public Number getNumberValue(Tag input, Number defaultValue) {
+        return input instanceof NumericTag n ? n.getAsNumber() : defaultValue;
+    }
+
+    @Override
+    public byte getByte(Tag input, byte defaultValue) {
+        return input instanceof NumericTag n ? n.getAsNumber().byteValue() : defaultValue;
+    }
+
+    @Override
+    public short getShort(Tag input, short defaultValue) {
+        return input instanceof NumericTag n ? n.getAsNumber().shortValue() : defaultValue;
+    }
+
+    @Override
+    public int getInt(Tag input, int defaultValue) {
+        return input instanceof NumericTag n ? n.getAsNumber().intValue() : defaultValue;
+    }
+
+    @Override
+    public long getLong(Tag input, long defaultValue) {
+        return input instanceof NumericTag n ? n.getAsNumber().longValue() : defaultValue;
+    }
+
+    @Override
+    public float getFloat(Tag input, float defaultValue) {
+        return input instanceof NumericTag n ? n.getAsNumber().floatValue() : defaultValue;
+    }
+
+    @Override
+    public double getDouble(Tag input, double defaultValue) {
+        return input instanceof NumericTag n ? n.getAsNumber().doubleValue() : defaultValue;
+    }
+
+    /**
+     * Boxed primitives keep their type. Other numbers become int or long tag if they are integers that fit,
+     * else double tag
+     */
+    @Override
+    public Tag createNumeric(Number i) {
+        if (i instanceof Integer v) return new IntTag(v);
+        if (i instanceof Double v) return new DoubleTag(v);
+        if (i instanceof Long v) return new LongTag(v);
+        if (i instanceof Float v) return new FloatTag(v);
+        if (i instanceof Byte v) return new ByteTag(v);
+        if (i instanceof Short v) return new ShortTag(v);
+        if (i instanceof BigInteger v && v.bitLength() < 64) return createIntegral(v.longValue());
+        if (!(i instanceof BigInteger)) {
+            try {
+                return createIntegral(Long.parseLong(i.toString()));
+            } catch (NumberFormatException ignored) {
+                // not integer text
+            }
+        }
+        return new DoubleTag(i.doubleValue());
+    }
+
+    private static Tag createIntegral(long value) {
+        return value == (int) value ? new IntTag((int) value) : new LongTag(value);
+    }
+
+    @Override
+    public Tag createByte(byte value) {
+        return new ByteTag(value);
+    }
+
+    @Override
+    public Tag createShort(short value) {
+        return new ShortTag(value);
+    }
+
+    @Override
+    public Tag createInt(int value) {
+        return new IntTag(value);
+    }
+
+    @Override
+    public Tag createLong(long value) {
+        return new LongTag(value);
+    }
+
+    @Override
+    public Tag createFloat(float value) {
+        return new FloatTag(value);
+    }
+
+    @Override
+    public Tag createDouble(double value) {
+        return new DoubleTag(value);
+    }
+
+    @Override
+    public Tag createBoolean(boolean value) {
+        return ByteTag.of(value);
+    }
+
+    // strings
+
+    @Override
+    public Optional<String> getString(Tag input) {
+        return input instanceof StringTag s ? Optional.of(s.value()) : Optional.empty();
+    }
+
+    @Override
+    public Tag createString(String value) {
+        return new StringTag(value);
+    }
+
+    // lists and maps
+
+    /**
+     * @param list list or empty
+     * @return new list with elements of list or null if list is not list tag
+     */
+    private static @Nullable ListTag copyList(Tag list, int extra) {
+        if (list == EndTag.INSTANCE) return new ListTag(extra);
+        if (!(list instanceof ListTag l)) return null;
+        var ret = new ListTag(l.size() + extra);
+        ret.addAll(l);
+        return ret;
+    }
+
+    /**
+     * @param map map or empty
+     * @return new compound with entries of map or null if map is not compound
+     */
+    private static @Nullable CompoundTag copyMap(Tag map) {
+        if (map == EndTag.INSTANCE) return new CompoundTag();
+        if (!(map instanceof CompoundTag c)) return null;
+        var ret = new CompoundTag(c.size() + 1);
+        ret.putAll(c);
+        return ret;
+    }
+
+    @Override
+    public Optional<Tag> mergeToList(Tag list, Tag value) {
+        return mergeToList(list, Collections.singletonList(value));
+    }
+
+    @Override
+    public Optional<Tag> mergeToList(Tag list, List<Tag> values) {
+        var ret = copyList(list, values.size());
+        if (ret == null) return Optional.empty();
+        try {
+            for (var v : values) {
+                if (v != null && v != EndTag.INSTANCE) ret.add(v);
+            }
+        } catch (IllegalArgumentException e) {
+            // element type differs from list type
+            return Optional.empty();
+        }
+        return Optional.of(ret);
+    }
+
+    @Override
+    public Optional<Tag> mergeToMap(Tag map, Tag key, Tag value) {
+        if (!(key instanceof StringTag k)) return Optional.empty();
+        var ret = copyMap(map);
+        if (ret == null) return Optional.empty();
+        if (value == null || value == EndTag.INSTANCE) ret.remove(k.value());
+        else ret.put(k.value(), value);
+        return Optional.of(ret);
+    }
+
+    @Override
+    public Optional<Tag> mergeToMap(Tag map, BaseMap<Tag> values) {
+        var ret = copyMap(map);
+        if (ret == null) return Optional.empty();
+        var it = values.entries().iterator();
+        while (it.hasNext()) {
+            var e = it.next();
+            // same result as merging entries one by one, failing on first non-string key
+            if (!(e.getFirst() instanceof StringTag k)) return Optional.empty();
+            var v = e.getSecond();
+            if (v == null || v == EndTag.INSTANCE) ret.remove(k.value());
+            else ret.put(k.value(), v);
+        }
+        return Optional.of(ret);
+    }
+
+    @Override
+    public Optional<Stream<Pair<Tag, Tag>>> getMapValues(Tag input) {
+        if (!(input instanceof CompoundTag c)) return Optional.empty();
+        return Optional.of(c.entrySet().stream().map(e -> Pair.of(new StringTag(e.getKey()), e.getValue())));
+    }
+
+    @Override
+    public Optional<BaseMap<Tag>> getMap(Tag input) {
+        if (!(input instanceof CompoundTag c)) return Optional.empty();
+        return Optional.of(new BaseMap<>() {
+            @Nullable
+            @Override
+            public Tag get(final Tag key) {
+                return key instanceof StringTag s ? c.get(s.value()) : null;
+            }
+
+            @Nullable
+            @Override
+            public Tag get(final String key) {
+                return c.get(key);
+            }
+
+            @Override
+            public Stream<Pair<Tag, Tag>> entries() {
+                return c.entrySet().stream().map(e -> Pair.of(new StringTag(e.getKey()), e.getValue()));
+            }
+
+            @Override
+            public String toString() {
+                return "BaseMap[" + c + "]";
+            }
+        });
+    }
+
+    @Override
+    public Tag createMap(Stream<Pair<Tag, Tag>> map) {
+        var ret = new CompoundTag();
+        map.forEach(p -> {
+            var key = getString(p.getFirst()).orElseThrow(() ->
+                    new IllegalArgumentException("Map key is not string: " + p.getFirst()));
+            var v = p.getSecond();
+            if (v != null && v != EndTag.INSTANCE) ret.put(key, v);
+        });
+        return ret;
+    }
+
+    @Override
+    public Optional<Stream<Tag>> getStream(Tag input) {
+        if (input instanceof ListTag l) return Optional.of(l.stream());
+        if (input instanceof ByteArrayTag a) {
+            return Optional.of(IntStream.range(0, a.value().length).mapToObj(i -> new ByteTag(a.value()[i])));
+        }
+        if (input instanceof IntArrayTag a) return Optional.of(Arrays.stream(a.value()).mapToObj(IntTag::new));
+        if (input instanceof LongArrayTag a) return Optional.of(Arrays.stream(a.value()).mapToObj(LongTag::new));
+        return Optional.empty();
+    }
+
+    /**
+     * @throws IllegalArgumentException if elements have different types
+     */
+    @Override
+    public Tag createList(Stream<? extends Tag> input) {
+        var ret = new ListTag();
+        input.forEachOrdered(v -> {
+            if (v != null && v != EndTag.INSTANCE) ret.add(v);
+        });
+        return ret;
+    }
+
+    @Override
+    public Tag createArray(Tag[] input) {
+        var ret = new ListTag(input.length);
+        for (var v : input) {
+            if (v != null && v != EndTag.INSTANCE) ret.add(v);
+        }
+        return ret;
+    }
+
+    @Override
+    public int getSize(Tag input) {
+        if (input instanceof CompoundTag c) return c.size();
+        if (input instanceof ListTag l) return l.size();
+        if (input instanceof ByteArrayTag a) return a.value().length;
+        if (input instanceof IntArrayTag a) return a.value().length;
+        if (input instanceof LongArrayTag a) return a.value().length;
+        return -1;
+    }
+
+    @Override
+    public Tag remove(Tag input, String key) {
+        if (!(input instanceof CompoundTag c) || !c.containsKey(key)) return input;
+        var ret = copyMap(c);
+        ret.remove(key);
+        return ret;
+    }
+
+    // native arrays, returned arrays are not copied
+
+    @Override
+    public Optional<byte[]> getByteArray(Tag input) {
+        if (input instanceof ByteArrayTag a) return Optional.of(a.value());
+        return TypeOps.super.getByteArray(input);
+    }
+
+    @Override
+    public Optional<int[]> getIntArray(Tag input) {
+        if (input instanceof IntArrayTag a) return Optional.of(a.value());
+        return TypeOps.super.getIntArray(input);
+    }
+
+    @Override
+    public Optional<long[]> getLongArray(Tag input) {
+        if (input instanceof LongArrayTag a) return Optional.of(a.value());
+        return TypeOps.super.getLongArray(input);
+    }
+
+    @Override
+    public Tag createByteArray(byte[] input) {
+        return new ByteArrayTag(input);
+    }
+
+    @Override
+    public Tag createByteBuffer(ByteBuffer input) {
+        var ret = new byte[input.capacity()];
+        input.get(0, ret);
+        return new ByteArrayTag(ret);
+    }
+
+    @Override
+    public Tag createByteList(List<Byte> input) {
+        var ret = new byte[input.size()];
+        for (int i = 0; i < ret.length; i++) ret[i] = input.get(i);
+        return new ByteArrayTag(ret);
+    }
+
+    @Override
+    public Tag createIntArray(int[] input) {
+        return new IntArrayTag(input);
+    }
+
+    @Override
+    public Tag createIntStream(IntStream input) {
+        return new IntArrayTag(input.toArray());
+    }
+
+    @Override
+    public Tag createIntList(List<Integer> input) {
+        var ret = new int[input.size()];
+        for (int i = 0; i < ret.length; i++) ret[i] = input.get(i);
+        return new IntArrayTag(ret);
+    }
+
+    @Override
+    public Tag createLongArray(long[] input) {
+        return new LongArrayTag(input);
+    }
+
+    @Override
+    public Tag createLongStream(LongStream input) {
+        return new LongArrayTag(input.toArray());
+    }
+
+    @Override
+    public Tag createLongList(List<Long> input) {
+        var ret = new long[input.size()];
+        for (int i = 0; i < ret.length; i++) ret[i] = input.get(i);
+        return new LongArrayTag(ret);
+    }
+
+    // other arrays are stored as list tags, filled without streams
+
+    @Override
+    public Tag createBoolArray(boolean[] value) {
+        var ret = new ListTag(value.length);
+        for (var v : value) ret.add(ByteTag.of(v));
+        return ret;
+    }
+
+    @Override
+    public Tag createShortArray(short[] input) {
+        var ret = new ListTag(input.length);
+        for (var v : input) ret.add(new ShortTag(v));
+        return ret;
+    }
+
+    @Override
+    public Tag createFloatArray(float[] input) {
+        var ret = new ListTag(input.length);
+        for (var v : input) ret.add(new FloatTag(v));
+        return ret;
+    }
+
+    @Override
+    public Tag createDoubleArray(double[] input) {
+        var ret = new ListTag(input.length);
+        for (var v : input) ret.add(new DoubleTag(v));
+        return ret;
+    }
+}
@@ -0,0 +1,115 @@
+package xyz.bobkinn.indigodataio.nbt.io;
+
+import xyz.bobkinn.indigodataio.nbt.NbtData;
+import xyz.bobkinn.indigodataio.nbt.tag.CompoundTag;
+import xyz.bobkinn.indigodataio.ops.DataVisitor;
+
+import java.io.*;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Reads and writes NBT files. Input is decompressed if it starts with gzip magic,
+ * so both compressed and uncompressed files can be read
+ * @since 3.1.0
+ */
+@SuppressWarnings("unused")
+public final class NbtIo {
+
+    private NbtIo() {
+    }
+
+    /**
+     * @param in stream
+     * @return buffered stream that decompresses gzip input
+     */
+    private static DataInputStream open(InputStream in) throws IOException {
+        var buffered = new BufferedInputStream(in, 8192);
+        buffered.mark(2);
+        int b1 = buffered.read();
+        int b2 = buffered.read();
+        buffered.reset();
+        if (b1 == 0x1f && b2 == 0x8b) {
+            return new DataInputStream(new BufferedInputStream(new GZIPInputStream(buffered, 8192), 8192));
+        }
+        return new DataInputStream(buffered);
+    }
+
+    /**
+     * Streams root tag to visitor without building tags. Stream is not closed
+     * @param from input stream, compressed or not
+     * @param visitor visitor of root value
+     * @return name of root tag
+     */
+    public static String read(InputStream from, DataVisitor visitor) {
+        try {
+            return new NbtReader(open(from)).read(visitor);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Reads root compound, stream is not closed
+     * @param from input stream, compressed or not
+     * @return root compound
+     * @throws UncheckedIOException if data is malformed or root is not compound
+     */
+    public static CompoundTag read(InputStream from) {
+        try {
+            var root = new NbtReader(open(from)).read();
+            if (!(root instanceof CompoundTag c)) throw new IOException("Root tag is not compound");
+            return c;
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    public static NbtData read(File from) {
+        if (!from.isFile()) throw new IllegalArgumentException("File " + from + " does not exists or is directory");
+        try (var in = new FileInputStream(from)) {
+            return new NbtData(read(in));
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to read file " + from, e);
+        }
+    }
+
+    /**
+     * Writes compound as root tag with empty name, stream is not closed
+     * @param data root compound
+     * @param to output stream
+     * @param compressed compress output with gzip
+     */
+    public static void write(CompoundTag data, OutputStream to, boolean compressed) {
+        try {
+            if (compressed) {
+                var gzip = new GZIPOutputStream(to, 8192);
+                var out = new DataOutputStream(new BufferedOutputStream(gzip, 8192));
+                new NbtWriter(out).write("", data);
+                out.flush();
+                gzip.finish();
+            } else {
+                var out = new DataOutputStream(new BufferedOutputStream(to, 8192));
+                new NbtWriter(out).write("", data);
+                out.flush();
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    public static void write(NbtData data, File to, boolean compressed) {
+        try (var out = new FileOutputStream(to)) {
+            write(data.getRaw(), out, compressed);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to write file " + to, e);
+        }
+    }
+
+    /**
+     * Writes gzip compressed file, like Minecraft {@code .dat} files
+     */
+    public static void write(NbtData data, File to) {
+        write(data, to, true);
+    }
+}
@@ -0,0 +1,114 @@
+package xyz.bobkinn.indigodataio.nbt.io;
+
+import xyz.bobkinn.indigodataio.nbt.NbtOps;
+import xyz.bobkinn.indigodataio.nbt.tag.Tag;
+import xyz.bobkinn.indigodataio.ops.DataVisitor;
+
+import java.io.DataInput;
+import java.io.IOException;
+
+/**
+ * Reads binary NBT and sends it to visitor without building tags,
+ * so it can be converted to other ops directly.
+ * Byte, int and long arrays are sent as native arrays
+ * @since 3.1.0
+ */
+public class NbtReader {
+    /**
+     * Same nesting limit as Minecraft
+     */
+    public static final int DEFAULT_MAX_DEPTH = 512;
+
+    private final DataInput in;
+    private final int maxDepth;
+
+    public NbtReader(DataInput in, int maxDepth) {
+        this.in = in;
+        this.maxDepth = maxDepth;
+    }
+
+    public NbtReader(DataInput in) {
+        this(in, DEFAULT_MAX_DEPTH);
+    }
+
+    /**
+     * Reads named root tag
+     * @param visitor visitor of root value
+     * @return name of root tag
+     * @throws IOException if data is malformed or root is end tag
+     */
+    public String read(DataVisitor visitor) throws IOException {
+        var id = in.readByte();
+        if (id == Tag.END) throw new IOException("Root tag is end tag");
+        var name = in.readUTF();
+        readPayload(id, visitor, 0);
+        return name;
+    }
+
+    /**
+     * Reads named root tag
+     * @return root tag
+     */
+    public Tag read() throws IOException {
+        var sink = NbtOps.INSTANCE.sink();
+        read(sink);
+        return sink.result();
+    }
+
+    private int readLength() throws IOException {
+        int len = in.readInt();
+        if (len < 0) throw new IOException("Negative length " + len);
+        return len;
+    }
+
+    private void readPayload(byte id, DataVisitor visitor, int depth) throws IOException {
+        switch (id) {
+            case Tag.BYTE -> visitor.visitByte(in.readByte());
+            case Tag.SHORT -> visitor.visitShort(in.readShort());
+            case Tag.INT -> visitor.visitInt(in.readInt());
+            case Tag.LONG -> visitor.visitLong(in.readLong());
+            case Tag.FLOAT -> visitor.visitFloat(in.readFloat());
+            case Tag.DOUBLE -> visitor.visitDouble(in.readDouble());
+            case Tag.STRING -> visitor.visitString(in.readUTF());
+            case Tag.BYTE_ARRAY -> {
+                var ret = new byte[readLength()];
+                in.readFully(ret);
+                visitor.visitByteArray(ret);
+            }
+            case Tag.INT_ARRAY -> {
+                var ret = new int[readLength()];
+                for (int i = 0; i < ret.length; i++) ret[i] = in.readInt();
+                visitor.visitIntArray(ret);
+            }
+            case Tag.LONG_ARRAY -> {
+                var ret = new long[readLength()];
+                for (int i = 0; i < ret.length; i++) ret[i] = in.readLong();
+                visitor.visitLongArray(ret);
+            }
+            case Tag.LIST -> {
+                checkDepth(depth);
+                var type = in.readByte();
+                int len = readLength();
+                if (type == Tag.END && len > 0) throw new IOException("List of end tags has elements");
+                visitor.beginList(len);
+                for (int i = 0; i < len; i++) readPayload(type, visitor, depth + 1);
+                visitor.endList();
+            }
+            case Tag.COMPOUND -> {
+                checkDepth(depth);
+                visitor.beginMap(-1);
+                byte type;
+                while ((type = in.readByte()) != Tag.END) {
+                    visitor.visitKey(in.readUTF());
+                    readPayload(type, visitor, depth + 1);
+                }
+                visitor.endMap();
+            }
+            default -> throw new IOException("Unknown tag id " + id);
+        }
+    }
+
+    private void checkDepth(int depth) throws IOException {
+        if (depth >= maxDepth) throw new IOException("Tag is nested deeper than " + maxDepth);
+    }
+}
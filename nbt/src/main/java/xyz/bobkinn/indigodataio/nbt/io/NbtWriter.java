@@ -0,0 +1,62 @@
+package xyz.bobkinn.indigodataio.nbt.io;
+
+import xyz.bobkinn.indigodataio.nbt.tag.*;
+
+import java.io.DataOutput;
+import java.io.IOException;
+
+/**
+ * Writes tags in binary NBT format
+ * @since 3.1.0
+ */
+public class NbtWriter {
+    private final DataOutput out;
+
+    public NbtWriter(DataOutput out) {
+        this.out = out;
+    }
+
+    /**
+     * Writes named root tag
+     * @param name name of root, usually empty
+     * @param tag root tag
+     */
+    public void write(String name, Tag tag) throws IOException {
+        if (tag.getId() == Tag.END) throw new IllegalArgumentException("Root tag can't be end tag");
+        out.writeByte(tag.getId());
+        out.writeUTF(name);
+        writePayload(tag);
+    }
+
+    private void writePayload(Tag tag) throws IOException {
+        if (tag instanceof CompoundTag c) {
+            for (var e : c.entrySet()) {
+                var v = e.getValue();
+                out.writeByte(v.getId());
+                out.writeUTF(e.getKey());
+                writePayload(v);
+            }
+            out.writeByte(Tag.END);
+        } else if (tag instanceof ListTag l) {
+            out.writeByte(l.getElementType());
+            out.writeInt(l.size());
+            for (var e : l) writePayload(e);
+        } else if (tag instanceof StringTag s) out.writeUTF(s.value());
+        else if (tag instanceof IntTag t) out.writeInt(t.value());
+        else if (tag instanceof DoubleTag t) out.writeDouble(t.value());
+        else if (tag instanceof ByteTag t) out.writeByte(t.value());
+        else if (tag instanceof LongTag t) out.writeLong(t.value());
+        else if (tag instanceof FloatTag t) out.writeFloat(t.value());
+        else if (tag instanceof ShortTag t) out.writeShort(t.value());
+        else if (tag instanceof ByteArrayTag t) {
+            out.writeInt(t.value().length);
+            out.write(t.value());
+        } else if (tag instanceof IntArrayTag t) {
+            out.writeInt(t.value().length);
+            for (var v : t.value()) out.writeInt(v);
+        } else if (tag instanceof LongArrayTag t) {
+            out.writeInt(t.value().length);
+            for (var v : t.value()) out.writeLong(v);
+        }
+    }
+}
@@ -0,0 +1,45 @@
+package xyz.bobkinn.indigodataio.nbt.tag;
+
+import java.util.Arrays;
+import java.util.Objects;
+
+/**
+ * Native byte array tag. Array is not copied, changes of it are visible in tag
+ * @since 3.1.0
+ */
+public record ByteArrayTag(byte[] value) implements Tag {
+
+    public ByteArrayTag {
+        Objects.requireNonNull(value, "value");
+    }
+
+    @Override
+    public byte getId() {
+        return BYTE_ARRAY;
+    }
+
+    @Override
+    public Tag copy() {
+        return new ByteArrayTag(value.clone());
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        return o instanceof ByteArrayTag t && Arrays.equals(value, t.value);
+    }
+
+    @Override
+    public int hashCode() {
+        return Arrays.hashCode(value);
+    }
+
+    @Override
+    public String toString() {
+        var sb = new StringBuilder("[B;");
+        for (int i = 0; i < value.length; i++) {
+            if (i > 0) sb.append(',');
+            sb.append(value[i]).append("b");
+        }
+        return sb.append(']').toString();
+    }
+}
@@ -0,0 +1,29 @@
+package xyz.bobkinn.indigodataio.nbt.tag;
+
+/**
+ * Byte tag, also used to store booleans
+ * @since 3.1.0
+ */
+public record ByteTag(byte value) implements NumericTag {
+    public static final ByteTag FALSE = new ByteTag((byte) 0);
+    public static final ByteTag TRUE = new ByteTag((byte) 1);
+
+    public static ByteTag of(boolean value) {
+        return value ? TRUE : FALSE;
+    }
+
+    @Override
+    public byte getId() {
+        return BYTE;
+    }
+
+    @Override
+    public Number getAsNumber() {
+        return value;
+    }
+
+    @Override
+    public String toString() {
+        return value + "b";
+    }
+}
@@ -0,0 +1,93 @@
+package xyz.bobkinn.indigodataio.nbt.tag;
+
+import org.jetbrains.annotations.NotNull;
+
+import java.util.AbstractMap;
+import java.util.LinkedHashMap;
+import java.util.Objects;
+import java.util.Set;
+import java.util.regex.Pattern;
+
+/**
+ * Mutable map of named tags, keeps insertion order. {@link EndTag} and null can't be stored as values
+ * @since 3.1.0
+ */
+public final class CompoundTag extends AbstractMap<String, Tag> implements Tag {
+    private static final Pattern SIMPLE_KEY = Pattern.compile("[A-Za-z0-9._+-]+");
+
+    private final LinkedHashMap<String, Tag> map;
+
+    public CompoundTag() {
+        map = new LinkedHashMap<>();
+    }
+
+    public CompoundTag(int capacity) {
+        map = new LinkedHashMap<>(Math.max(4, (int) (capacity / 0.75f) + 1));
+    }
+
+    @Override
+    public byte getId() {
+        return COMPOUND;
+    }
+
+    @Override
+    public Tag put(String key, Tag value) {
+        Objects.requireNonNull(key, "key");
+        Objects.requireNonNull(value, "value");
+        if (value.getId() == END) throw new IllegalArgumentException("End tag can't be stored in compound");
+        return map.put(key, value);
+    }
+
+    @Override
+    public Tag get(Object key) {
+        return map.get(key);
+    }
+
+    @Override
+    public boolean containsKey(Object key) {
+        return map.containsKey(key);
+    }
+
+    @Override
+    public Tag remove(Object key) {
+        return map.remove(key);
+    }
+
+    @Override
+    public int size() {
+        return map.size();
+    }
+
+    @Override
+    public void clear() {
+        map.clear();
+    }
+
+    @Override
+    public @NotNull Set<String> keySet() {
+        return map.keySet();
+    }
+
+    @Override
+    public @NotNull Set<Entry<String, Tag>> entrySet() {
+        return map.entrySet();
+    }
+
+    @Override
+    public CompoundTag copy() {
+        var ret = new CompoundTag(map.size());
+        map.forEach((k, v) -> ret.map.put(k, v.copy()));
+        return ret;
+    }
+
+    @Override
+    public String toString() {
+        var sb = new StringBuilder("{");
+        for (var e : map.entrySet()) {
+            if (sb.length() > 1) sb.append(',');
+            var k = e.getKey();
+            sb.append(SIMPLE_KEY.matcher(k).matches() ? k : StringTag.quote(k)).append(':').append(e.getValue());
+        }
+        return sb.append('}').toString();
+    }
+}
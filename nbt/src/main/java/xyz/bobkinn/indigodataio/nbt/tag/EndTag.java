@@ -0,0 +1,24 @@
+package xyz.bobkinn.indigodataio.nbt.tag;
+
+/**
+ * Marks end of compound in binary form. Used as empty value, it can't be stored in compounds and lists
+ * @since 3.1.0
+ */
+public enum EndTag implements Tag {
+    INSTANCE;
+
+    @Override
+    public byte getId() {
+        return END;
+    }
+
+    @Override
+    public Tag copy() {
+        return this;
+    }
+
+    @Override
+    public String toString() {
+        return "END";
+    }
+}
@@ -0,0 +1,22 @@
+package xyz.bobkinn.indigodataio.nbt.tag;
+
+/**
+ * @since 3.1.0
+ */
+public record FloatTag(float value) implements NumericTag {
+
+    @Override
+    public byte getId() {
+        return FLOAT;
+    }
+
+    @Override
+    public Number getAsNumber() {
+        return value;
+    }
+
+    @Override
+    public String toString() {
+        return value + "f";
+    }
+}
@@ -0,0 +1,45 @@
+package xyz.bobkinn.indigodataio.nbt.tag;
+
+import java.util.Arrays;
+import java.util.Objects;
+
+/**
+ * Native int array tag. Array is not copied, changes of it are visible in tag
+ * @since 3.1.0
+ */
+public record IntArrayTag(int[] value) implements Tag {
+
+    public IntArrayTag {
+        Objects.requireNonNull(value, "value");
+    }
+
+    @Override
+    public byte getId() {
+        return INT_ARRAY;
+    }
+
+    @Override
+    public Tag copy() {
+        return new IntArrayTag(value.clone());
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        return o instanceof IntArrayTag t && Arrays.equals(value, t.value);
+    }
+
+    @Override
+    public int hashCode() {
+        return Arrays.hashCode(value);
+    }
+
+    @Override
+    public String toString() {
+        var sb = new StringBuilder("[I;");
+        for (int i = 0; i < value.length; i++) {
+            if (i > 0) sb.append(',');
+            sb.append(value[i]);
+        }
+        return sb.append(']').toString();
+    }
+}
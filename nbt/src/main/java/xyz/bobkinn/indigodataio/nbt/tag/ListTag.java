@@ -0,0 +1,106 @@
+package xyz.bobkinn.indigodataio.nbt.tag;
+
+import java.util.AbstractList;
+import java.util.ArrayList;
+import java.util.Objects;
+import java.util.RandomAccess;
+
+/**
+ * Mutable list of tags of same type. Type is set by first added element and reset when list becomes empty
+ * @since 3.1.0
+ */
+public final class ListTag extends AbstractList<Tag> implements Tag, RandomAccess {
+    private final ArrayList<Tag> list;
+    private byte type = END;
+
+    public ListTag() {
+        list = new ArrayList<>();
+    }
+
+    public ListTag(int capacity) {
+        list = new ArrayList<>(capacity);
+    }
+
+    @Override
+    public byte getId() {
+        return LIST;
+    }
+
+    /**
+     * @return id of elements or {@link #END} if list is empty
+     */
+    public byte getElementType() {
+        return type;
+    }
+
+    /**
+     * @param tag added tag
+     * @param replacesOnly true if tag replaces single element of list
+     */
+    private void check(Tag tag, boolean replacesOnly) {
+        Objects.requireNonNull(tag, "tag");
+        var id = tag.getId();
+        if (id == END) throw new IllegalArgumentException("End tag can't be added to list");
+        if (type == END || replacesOnly) type = id;
+        else if (type != id) {
+            throw new IllegalArgumentException("List of type " + type + " can't contain tag of type " + id);
+        }
+    }
+
+    @Override
+    public Tag get(int index) {
+        return list.get(index);
+    }
+
+    @Override
+    public int size() {
+        return list.size();
+    }
+
+    @Override
+    public Tag set(int index, Tag element) {
+        Objects.checkIndex(index, list.size());
+        check(element, list.size() == 1);
+        return list.set(index, element);
+    }
+
+    @Override
+    public void add(int index, Tag element) {
+        check(element, false);
+        list.add(index, element);
+        modCount++;
+    }
+
+    @Override
+    public Tag remove(int index) {
+        var ret = list.remove(index);
+        if (list.isEmpty()) type = END;
+        modCount++;
+        return ret;
+    }
+
+    @Override
+    public void clear() {
+        list.clear();
+        type = END;
+        modCount++;
+    }
+
+    @Override
+    public ListTag copy() {
+        var ret = new ListTag(list.size());
+        for (var t : list) ret.list.add(t.copy());
+        ret.type = type;
+        return ret;
+    }
+
+    @Override
+    public String toString() {
+        var sb = new StringBuilder("[");
+        for (int i = 0; i < list.size(); i++) {
+            if (i > 0) sb.append(',');
+            sb.append(list.get(i));
+        }
+        return sb.append(']').toString();
+    }
+}
@@ -0,0 +1,45 @@
+package xyz.bobkinn.indigodataio.nbt.tag;
+
+import java.util.Arrays;
+import java.util.Objects;
+
+/**
+ * Native long array tag. Array is not copied, changes of it are visible in tag
+ * @since 3.1.0
+ */
+public record LongArrayTag(long[] value) implements Tag {
+
+    public LongArrayTag {
+        Objects.requireNonNull(value, "value");
+    }
+
+    @Override
+    public byte getId() {
+        return LONG_ARRAY;
+    }
+
+    @Override
+    public Tag copy() {
+        return new LongArrayTag(value.clone());
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        return o instanceof LongArrayTag t && Arrays.equals(value, t.value);
+    }
+
+    @Override
+    public int hashCode() {
+        return Arrays.hashCode(value);
+    }
+
+    @Override
+    public String toString() {
+        var sb = new StringBuilder("[L;");
+        for (int i = 0; i < value.length; i++) {
+            if (i > 0) sb.append(',');
+            sb.append(value[i]).append("L");
+        }
+        return sb.append(']').toString();
+    }
+}
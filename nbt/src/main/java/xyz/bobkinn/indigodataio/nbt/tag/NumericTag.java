@@ -0,0 +1,15 @@
+package xyz.bobkinn.indigodataio.nbt.tag;
+
+/**
+ * Immutable tag holding number
+ * @since 3.1.0
+ */
+public sealed interface NumericTag extends Tag permits ByteTag, ShortTag, IntTag, LongTag, FloatTag, DoubleTag {
+
+    Number getAsNumber();
+
+    @Override
+    default Tag copy() {
+        return this;
+    }
+}
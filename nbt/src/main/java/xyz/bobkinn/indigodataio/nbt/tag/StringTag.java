@@ -0,0 +1,42 @@
+package xyz.bobkinn.indigodataio.nbt.tag;
+
+import java.util.Objects;
+
+/**
+ * @since 3.1.0
+ */
+public record StringTag(String value) implements Tag {
+
+    public StringTag {
+        Objects.requireNonNull(value, "value");
+    }
+
+    @Override
+    public byte getId() {
+        return STRING;
+    }
+
+    @Override
+    public Tag copy() {
+        return this;
+    }
+
+    /**
+     * @param value string
+     * @return quoted string with escaped quotes and backslashes
+     */
+    static String quote(String value) {
+        var sb = new StringBuilder(value.length() + 2).append('"');
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (c == '"' || c == '\\') sb.append('\\');
+            sb.append(c);
+        }
+        return sb.append('"').toString();
+    }
+
+    @Override
+    public String toString() {
+        return quote(value);
+    }
+}
@@ -0,0 +1,29 @@
+package xyz.bobkinn.indigodataio.nbt.tag;
+
+/**
+ * Named binary tag. Ids match Minecraft NBT format
+ * @since 3.1.0
+ */
+public sealed interface Tag permits EndTag, NumericTag, StringTag, ListTag, CompoundTag,
+        ByteArrayTag, IntArrayTag, LongArrayTag {
+    byte END = 0;
+    byte BYTE = 1;
+    byte SHORT = 2;
+    byte INT = 3;
+    byte LONG = 4;
+    byte FLOAT = 5;
+    byte DOUBLE = 6;
+    byte BYTE_ARRAY = 7;
+    byte STRING = 8;
+    byte LIST = 9;
+    byte COMPOUND = 10;
+    byte INT_ARRAY = 11;
+    byte LONG_ARRAY = 12;
+
+    byte getId();
+
+    /**
+     * @return deep copy of this tag, immutable tags return themselves
+     */
+    Tag copy();
+}
@@ -0,0 +1,87 @@
+package xyz.bobkinn.indigodataio.nbt;
+
+import com.google.gson.JsonParser;
+import org.junit.Test;
+import xyz.bobkinn.indigodataio.gson.GsonData;
+import xyz.bobkinn.indigodataio.NestedKeyMap;
+import xyz.bobkinn.indigodataio.nbt.io.NbtIo;
+import xyz.bobkinn.indigodataio.nbt.tag.*;
+import xyz.bobkinn.indigodataio.ops.MapOps;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.List;
+import java.util.Map;
+
+public class TestNbt {
+
+    @Test
+    public void testNbt() throws IOException {
+        var data = new NbtData();
+        data.put("player.name", "Steve");
+        data.put("player.health", 20.0f);
+        data.put("player.xp", 150L);
+        data.put("player.flying", true);
+        data.put("player.inventory", new int[]{1, 2, 3});
+        data.putByteArray("world.blocks", new byte[]{1, 0, 2});
+        data.putLongArray("world.heightmap", new long[]{Long.MAX_VALUE, -1});
+        data.putStringList("tags", List.of("a", "b"));
+        assert data.get("player.inventory") instanceof IntArrayTag;
+        assert data.get("player.flying") instanceof ByteTag;
+        assert data.getBoolean("player.flying");
+        assert data.get("world.heightmap") instanceof LongArrayTag;
+        assert data.getSection("player").getString("name").equals("Steve");
+        System.out.println("data = " + data);
+
+        try {
+            new ListTag().addAll(List.of(new IntTag(1), new StringTag("2")));
+            assert false;
+        } catch (IllegalArgumentException ignored) {
+        }
+
+        var file = File.createTempFile("indigo-nbt", ".dat");
+        file.deleteOnExit();
+        for (var compressed : new boolean[]{true, false}) {
+            NbtIo.write(data, file, compressed);
+            assert (Files.readAllBytes(file.toPath())[0] == (byte) 0x1f) == compressed;
+            var read = NbtIo.read(file);
+            assert read.getRaw().equals(data.getRaw()) : read;
+        }
+
+        // conversion keeps native arrays
+        var map = data.convertTo(NestedKeyMap.withNativeArrays());
+        assert map.get("player.inventory") instanceof int[];
+        assert map.get("world.heightmap") instanceof long[];
+        var back = map.convertTo(new NbtData());
+        assert back.getRaw().equals(data.getRaw()) : back;
+        var copy = data.copy();
+        assert copy.getIntArray("player.inventory") != data.getIntArray("player.inventory");
+        assert copy.getRaw().equals(data.getRaw());
+
+        // streaming to other ops without tags
+        var out = new ByteArrayOutputStream();
+        NbtIo.write(data.getRaw(), out, true);
+        var sink = MapOps.NATIVE_ARRAYS.sink();
+        NbtIo.read(new ByteArrayInputStream(out.toByteArray()), sink);
+        @SuppressWarnings("unchecked")
+        var streamed = (Map<String, Object>) sink.result();
+        assert new NestedKeyMap(streamed, MapOps.NATIVE_ARRAYS).getByteArray("world.blocks")[2] == 2;
+    }
+
+    @Test
+    public void testFromGson() {
+        var json = JsonParser.parseString("{\"a\":[1,300],\"b\":[1,2.5],\"c\":[\"x\",\"y\"],\"d\":{\"e\":[1,2]}}");
+        var nbt = new GsonData(json.getAsJsonObject()).convertTo(new NbtData());
+        var a = (ListTag) nbt.get("a");
+        assert a.get(0) instanceof ShortTag && ((ShortTag) a.get(1)).getAsNumber().intValue() == 300 : a;
+        var b = (ListTag) nbt.get("b");
+        assert b.get(0) instanceof DoubleTag && ((DoubleTag) b.get(1)).getAsNumber().doubleValue() == 2.5 : b;
+        assert nbt.getList("c").size() == 2;
+        assert nbt.get("d.e") instanceof ListTag;
+        var back = nbt.convertTo(new GsonData());
+        assert back.getRaw().get("b").getAsJsonArray().get(0).getAsDouble() == 1.0 : back;
+    }
+}